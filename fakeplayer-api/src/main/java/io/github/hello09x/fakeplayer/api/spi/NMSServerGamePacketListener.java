@@ -9,4 +9,11 @@ public interface NMSServerGamePacketListener {
 
     String BUNGEE_CORD_CORRECTED_CHANNEL = StandardMessenger.validateAndCorrectChannel(BUNGEE_CORD_CHANNEL);
 
+    /**
+     * 应用上一 tick 收到的击退动量
+     * <p>由假人的 tick 在 {@link NMSServerPlayer#doTick()} 之前调用, 不支持的版本什么都不做</p>
+     */
+    default void applyPendingMotion() {
+    }
+
 }
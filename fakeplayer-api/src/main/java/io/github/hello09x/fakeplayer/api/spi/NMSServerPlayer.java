@@ -6,6 +6,8 @@ import org.bukkit.plugin.Plugin;
 import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.UUID;
+
 public interface NMSServerPlayer {
 
     /**
@@ -221,4 +223,26 @@ public interface NMSServerPlayer {
      */
     void swapItemWithOffhand();
 
+    /**
+     * 在当前世界中重新登记这个玩家, 使其获得刷怪能力
+     * <p>刚放置到世界中的假人不会被计入刷怪, 以往需要传送到其他世界再传送回来. 必须在 {@link NMSNetwork#placeNewPlayer} 之后调用</p>
+     *
+     * @return 当前版本是否支持, 不支持时不会做任何修改
+     */
+    default boolean resetSpawningState() {
+        return false;
+    }
+
+    /**
+     * 将一个尚未登陆的玩家重新绑定到新的 UUID 和名称
+     * <p>用于复用预先创建好的玩家实例, 必须在 {@link NMSNetwork#placeNewPlayer} 之前调用</p>
+     *
+     * @param uuid UUID
+     * @param name 名称
+     * @return 当前版本是否支持, 不支持时不会做任何修改
+     */
+    default boolean rebind(@NotNull UUID uuid, @NotNull String name) {
+        return false;
+    }
+
 }
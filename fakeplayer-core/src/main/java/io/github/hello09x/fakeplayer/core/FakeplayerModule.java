@@ -14,12 +14,18 @@ import io.github.hello09x.fakeplayer.core.manager.invsee.OpenInvInvseeManagerImp
 import io.github.hello09x.fakeplayer.core.manager.invsee.SimpleInvseeManagerImpl;
 import io.github.hello09x.fakeplayer.core.placeholder.FakeplayerPlaceholderExpansion;
 import io.github.hello09x.fakeplayer.core.placeholder.FakeplayerPlaceholderExpansionImpl;
+import io.github.hello09x.fakeplayer.core.repository.storage.FakeplayerStorage;
+import io.github.hello09x.fakeplayer.core.repository.storage.MemoryFakeplayerStorageImpl;
+import io.github.hello09x.fakeplayer.core.repository.storage.SqliteFakeplayerStorageImpl;
 import io.github.hello09x.fakeplayer.core.util.ClassUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.ServiceLoader;
 import java.util.logging.Logger;
 
@@ -48,6 +54,41 @@ public class FakeplayerModule extends AbstractModule {
         };
     }
 
+    /**
+     * 切换存储方式后, 如果新的存储还没有数据, 则从原来的存储中迁移
+     */
+    @Provides
+    @Singleton
+    public @NotNull FakeplayerStorage storage(FakeplayerConfig config, SqliteFakeplayerStorageImpl sqlite) {
+        var file = Main.getInstance().getDataFolder().toPath().resolve(MemoryFakeplayerStorageImpl.FILE_NAME);
+        return switch (config.getStorageType()) {
+            case SQLITE -> {
+                if (Files.exists(file)) {
+                    log.info("Migrating data from %s to SQLite".formatted(file.getFileName()));
+                    var memory = new MemoryFakeplayerStorageImpl(file);
+                    sqlite.importFrom(memory);
+                    memory.close();
+                    try {
+                        Files.move(file, file.resolveSibling(file.getFileName() + ".migrated"));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                yield sqlite;
+            }
+            case MEMORY -> {
+                var exists = Files.exists(file);
+                var memory = new MemoryFakeplayerStorageImpl(file);
+                if (!exists) {
+                    log.info("Migrating data from SQLite to %s".formatted(file.getFileName()));
+                    memory.importFrom(sqlite);
+                }
+                log.info("Using in-memory storage");
+                yield memory;
+            }
+        };
+    }
+
     @Provides
     @Singleton
     private @NotNull NMSBridge nmsBridge() {
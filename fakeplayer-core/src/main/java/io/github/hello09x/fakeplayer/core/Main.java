@@ -16,8 +16,12 @@ import io.github.hello09x.fakeplayer.core.listener.PlayerListener;
 import io.github.hello09x.fakeplayer.core.listener.ServerStartupListener;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerAutofishManager;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerReplenishManager;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerShellPool;
+import io.github.hello09x.fakeplayer.core.manager.PluginMessageForwarder;
 import io.github.hello09x.fakeplayer.core.manager.WildFakeplayerManager;
+import io.github.hello09x.fakeplayer.core.manager.feature.FakeplayerFeatureManager;
 import io.github.hello09x.fakeplayer.core.manager.invsee.InvseeManager;
+import io.github.hello09x.fakeplayer.core.manager.metrics.MetricsServer;
 import io.github.hello09x.fakeplayer.core.placeholder.FakeplayerPlaceholderExpansion;
 import io.github.hello09x.fakeplayer.core.util.update.UpdateChecker;
 import lombok.Getter;
@@ -69,8 +73,15 @@ public final class Main extends JavaPlugin {
             manager.registerEvents(injector.getInstance(FakeplayerReplenishManager.class), this);
             manager.registerEvents(injector.getInstance(InvseeManager.class), this);
             manager.registerEvents(injector.getInstance(ServerStartupListener.class), this);
+            manager.registerEvents(injector.getInstance(PluginMessageForwarder.class), this);
+            manager.registerEvents(injector.getInstance(WildFakeplayerManager.class), this);
+            manager.registerEvents(injector.getInstance(FakeplayerFeatureManager.class), this);
         }
 
+        // 尽早开始预创建假人实例
+        injector.getInstance(FakeplayerShellPool.class);
+        injector.getInstance(MetricsServer.class).start();
+
         {
             var placeholderExpansion = injector.getInstance(FakeplayerPlaceholderExpansion.class);
             if (placeholderExpansion != null) {
@@ -28,6 +28,8 @@ public class CommandRegistry {
     @Inject
     private ActionCommand actionCommand;
     @Inject
+    private ChunksCommand chunksCommand;
+    @Inject
     private CmdCommand cmdCommand;
     @Inject
     private ConfigCommand configCommand;
@@ -46,6 +48,8 @@ public class CommandRegistry {
     @Inject
     private ListCommand listCommand;
     @Inject
+    private LoadTestCommand loadTestCommand;
+    @Inject
     private MoveCommand moveCommand;
     @Inject
     private ReloadCommand reloadCommand;
@@ -116,6 +120,16 @@ public class CommandRegistry {
                                         world("world").withPermission(Permission.spawnLocation),
                                         location("location").withPermission(Permission.spawnLocation))
                                 .executes(spawnCommand::spawn),
+                        command("spawn")
+                                .withPermission(Permission.spawnCount)
+                                .withShortDescription("fakeplayer.command.spawn.description")
+                                .withArguments(
+                                        literals("flag", List.of("--count")),
+                                        int32("count", 1))
+                                .withOptionalArguments(
+                                        world("world").withPermission(Permission.spawnLocation),
+                                        location("location").withPermission(Permission.spawnLocation))
+                                .executes(spawnCommand::spawnBatch),
                         command("kill")
                                 .withPermission(Permission.kill)
                                 .withShortDescription("fakeplayer.command.kill.description")
@@ -136,6 +150,14 @@ public class CommandRegistry {
                                 .withRequirement(CommandSupports::hasFakeplayer)
                                 .withOptionalArguments(fakeplayer("name"))
                                 .executesPlayer(distanceCommand::distance),
+                        command("chunks")
+                                .withPermission(Permission.chunks)
+                                .withShortDescription("fakeplayer.command.chunks.description")
+                                .withRequirement(CommandSupports::hasFakeplayer)
+                                .withOptionalArguments(
+                                        int32("page", 1),
+                                        int32("size", 1))
+                                .executes(chunksCommand::chunks),
                         command("skin")
                                 .withPermission(Permission.skin)
                                 .withShortDescription("fakeplayer.command.skin.description")
@@ -444,6 +466,18 @@ public class CommandRegistry {
                                 .withShortDescription("fakeplayer.command.reload-translation.description")
                                 .withPermission(CommandPermission.OP)
                                 .executes(reloadCommand::reloadTranslation),
+                        command("loadtest")
+                                .withShortDescription("fakeplayer.command.loadtest.description")
+                                .withPermission(CommandPermission.OP)
+                                .withSubcommands(
+                                        command("start")
+                                                .withShortDescription("fakeplayer.command.loadtest.start.description")
+                                                .withArguments(scenario("scenario"))
+                                                .executes(loadTestCommand::start),
+                                        command("stop")
+                                                .withShortDescription("fakeplayer.command.loadtest.stop.description")
+                                                .executes(loadTestCommand::stop)
+                                ),
 
                         // developer debug
                         command("debug")
@@ -456,7 +490,9 @@ public class CommandRegistry {
                                                         text("channel"),
                                                         text("message")
                                                 )
-                                                .executes(debugCommand::sendPluginMessage)
+                                                .executes(debugCommand::sendPluginMessage),
+                                        command("spawn-latency")
+                                                .executes(debugCommand::spawnLatency)
                                 )
 
                 );
@@ -11,6 +11,7 @@ import io.github.hello09x.fakeplayer.core.Main;
 import io.github.hello09x.fakeplayer.core.command.impl.ActionCommand;
 import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
+import io.github.hello09x.fakeplayer.core.manager.loadtest.LoadTestManager;
 import io.github.hello09x.fakeplayer.core.repository.model.Feature;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -27,6 +28,7 @@ import java.util.stream.Stream;
 
 import static io.github.hello09x.devtools.command.Commands.command;
 import static io.github.hello09x.devtools.command.Commands.int32;
+import static io.github.hello09x.devtools.command.Commands.text;
 import static net.kyori.adventure.text.Component.translatable;
 
 public abstract class CommandSupports {
@@ -37,6 +39,8 @@ public abstract class CommandSupports {
 
     private static final ActionCommand actionCommand = Main.getInjector().getInstance(ActionCommand.class);
 
+    private final static LoadTestManager loadTestManager = Main.getInjector().getInstance(LoadTestManager.class);
+
     public static @NotNull CommandAPICommand[] newActionCommands(@NotNull ActionType action) {
         return new CommandAPICommand[]{
                 command("once")
@@ -179,6 +183,13 @@ public abstract class CommandSupports {
         })));
     }
 
+    public static @NotNull Argument<String> scenario(@NotNull String nodeName) {
+        return text(nodeName).replaceSuggestions(ArgumentSuggestions.strings(info -> {
+            var arg = info.currentArg().toLowerCase(Locale.ENGLISH);
+            return loadTestManager.getScenarioNames().stream().filter(name -> name.toLowerCase(Locale.ENGLISH).startsWith(arg)).toArray(String[]::new);
+        }));
+    }
+
     public static boolean hasFakeplayerForRespawn(@NotNull CommandSender sender) {
         if (config.isKickOnDead()) {
             return false;
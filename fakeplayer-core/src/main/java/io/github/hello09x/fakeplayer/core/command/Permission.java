@@ -5,6 +5,7 @@ public interface Permission {
     String spawn = "fakeplayer.command.spawn";
     String spawnName = "fakeplayer.command.spawn.name";
     String spawnLocation = "fakeplayer.command.spawn.location";
+    String spawnCount = "fakeplayer.command.spawn.count";
 
     String select = "fakeplayer.command.select";
     String selection = "fakeplayer.command.selection";
@@ -12,6 +13,7 @@ public interface Permission {
     String kill = "fakeplayer.command.kill";
     String list = "fakeplayer.command.list";
     String distance = "fakeplayer.command.distance";
+    String chunks = "fakeplayer.command.chunks";
     String drop = "fakeplayer.command.drop";
     String dropstack = "fakeplayer.command.dropstack";
     String dropinv = "fakeplayer.command.dropinv";
@@ -0,0 +1,90 @@
+package io.github.hello09x.fakeplayer.core.command.impl;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import dev.jorel.commandapi.executors.CommandArguments;
+import io.github.hello09x.devtools.command.Page;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerChunkManager;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerChunkManager.ChunkReport;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import static net.kyori.adventure.text.Component.*;
+import static net.kyori.adventure.text.format.NamedTextColor.*;
+import static net.kyori.adventure.text.format.TextDecoration.BOLD;
+
+@Singleton
+public class ChunksCommand extends AbstractCommand {
+
+    @Inject
+    private FakeplayerChunkManager chunkManager;
+
+    /**
+     * 查看假人加载的区块
+     */
+    public void chunks(@NotNull CommandSender sender, @NotNull CommandArguments args) {
+        var page = (int) args.getOptional("page").orElse(1);
+        var size = (int) args.getOptional("size").orElse(10);
+        chunkManager.reportAsync().thenAccept(report -> Bukkit.getScheduler().runTask(
+                Main.getInstance(),
+                () -> this.send(sender, report, page, size)
+        ));
+    }
+
+    private void send(@NotNull CommandSender sender, @NotNull ChunkReport report, int page, int size) {
+        var all = sender.isOp();
+        var bots = report.bots().stream().filter(bot -> all || bot.creator().equals(sender.getName())).toList();
+
+        sender.sendMessage(translatable(
+                "fakeplayer.command.chunks.summary",
+                text(report.bots().size(), WHITE),
+                text(report.held(), WHITE),
+                text(report.distinct(), WHITE)
+        ).color(GRAY));
+
+        sender.sendMessage(Page.of(bots, page, size).asComponent(
+                translatable("fakeplayer.command.chunks.title", AQUA, BOLD),
+                bot -> textOfChildren(
+                        text(bot.name() + " (" + bot.creator() + ")", GOLD),
+                        text(" - ", GRAY),
+                        translatable(
+                                "fakeplayer.command.chunks.bot",
+                                text(bot.held(), WHITE),
+                                text(bot.sharedWithBots(), WHITE),
+                                text(bot.sharedWithPlayers(), WHITE),
+                                text(bot.unique(), WHITE)
+                        ).color(GRAY)
+                ),
+                i -> "/fp chunks " + i + " " + size
+        ));
+
+        if (all) {
+            sender.sendMessage(translatable("fakeplayer.command.chunks.creators", AQUA));
+            for (var creator : report.creators()) {
+                sender.sendMessage(textOfChildren(
+                        text(creator.creator(), GOLD),
+                        text(" - ", GRAY),
+                        translatable(
+                                "fakeplayer.command.chunks.creator",
+                                text(creator.bots(), WHITE),
+                                text(creator.held(), WHITE),
+                                text(creator.unique(), WHITE)
+                        ).color(GRAY)
+                ));
+            }
+        }
+
+        var redundant = report.redundant().stream().filter(bot -> all || sender.getName().equals(bot.creator())).toList();
+        if (redundant.isEmpty()) {
+            sender.sendMessage(translatable("fakeplayer.command.chunks.no-redundant", GRAY));
+        } else {
+            sender.sendMessage(translatable(
+                    "fakeplayer.command.chunks.redundant",
+                    text(String.join(", ", redundant.stream().map(FakeplayerChunkManager.Holder::name).toList()), WHITE)
+            ).color(GRAY));
+        }
+    }
+
+}
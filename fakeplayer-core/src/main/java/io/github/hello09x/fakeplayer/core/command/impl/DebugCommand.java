@@ -7,11 +7,16 @@ import dev.jorel.commandapi.executors.CommandArguments;
 import io.github.hello09x.fakeplayer.api.spi.NMSBridge;
 import io.github.hello09x.fakeplayer.core.Main;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerSpawnMetrics;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import static net.kyori.adventure.text.Component.text;
+import static net.kyori.adventure.text.format.NamedTextColor.GRAY;
+import static net.kyori.adventure.text.format.NamedTextColor.WHITE;
+
 
 /**
  * @author tanyaofei
@@ -22,11 +27,13 @@ public class DebugCommand {
 
     private final FakeplayerManager manager;
     private final NMSBridge bridge;
+    private final FakeplayerSpawnMetrics spawnMetrics;
 
     @Inject
-    public DebugCommand(FakeplayerManager manager, NMSBridge bridge) {
+    public DebugCommand(FakeplayerManager manager, NMSBridge bridge, FakeplayerSpawnMetrics spawnMetrics) {
         this.manager = manager;
         this.bridge = bridge;
+        this.spawnMetrics = spawnMetrics;
     }
 
     public void sendPluginMessage(@NotNull CommandSender sender, @NotNull CommandArguments args) {
@@ -40,4 +47,11 @@ public class DebugCommand {
         player.sendPluginMessage(Main.getInstance(), channel, msg.toByteArray());
     }
 
+    public void spawnLatency(@NotNull CommandSender sender, @NotNull CommandArguments args) {
+        this.spawnMetrics.summarize().forEach((path, summary) -> sender.sendMessage(text()
+                .append(text(path.name(), WHITE))
+                .append(text(": %d spawned, avg %.1f ms".formatted(summary.count(), summary.averageMillis()), GRAY))
+        ));
+    }
+
 }
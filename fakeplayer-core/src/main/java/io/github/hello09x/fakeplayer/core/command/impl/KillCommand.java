@@ -5,7 +5,8 @@ import com.google.inject.Singleton;
 import dev.jorel.commandapi.exceptions.WrapperCommandSyntaxException;
 import dev.jorel.commandapi.executors.CommandArguments;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerDeathTracker;
-import io.github.hello09x.fakeplayer.core.repository.FakeplayerProfileRepository;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerRespawnWriter;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerSnapshotManager;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
@@ -19,12 +20,14 @@ import static net.kyori.adventure.text.format.NamedTextColor.GRAY;
 public class KillCommand extends AbstractCommand {
 
     private final FakeplayerDeathTracker deathTracker;
-    private final FakeplayerProfileRepository profileRepository;
+    private final FakeplayerRespawnWriter respawnWriter;
+    private final FakeplayerSnapshotManager snapshotManager;
 
     @Inject
-    public KillCommand(FakeplayerDeathTracker deathTracker, FakeplayerProfileRepository profileRepository) {
+    public KillCommand(FakeplayerDeathTracker deathTracker, FakeplayerRespawnWriter respawnWriter, FakeplayerSnapshotManager snapshotManager) {
         this.deathTracker = deathTracker;
-        this.profileRepository = profileRepository;
+        this.respawnWriter = respawnWriter;
+        this.snapshotManager = snapshotManager;
     }
 
     /**
@@ -44,8 +47,8 @@ public class KillCommand extends AbstractCommand {
 
             // Mark as command kill to prevent auto-respawn
             deathTracker.markCommandKill(uuid);
-            profileRepository.setShouldRespawn(uuid, false);
-            profileRepository.setDeathReason(uuid, FakeplayerDeathTracker.DeathReason.COMMAND);
+            respawnWriter.update(uuid, FakeplayerDeathTracker.DeathReason.COMMAND, false);
+            snapshotManager.delete(uuid);
 
             if (manager.remove(fake.getName(), "command kill")) {
                 names.add(fake.getName());
@@ -1,17 +1,25 @@
 package io.github.hello09x.fakeplayer.core.command.impl;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import dev.jorel.commandapi.executors.CommandArguments;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerSnapshotManager;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
 @Singleton
 public class KillallCommand extends AbstractCommand {
 
+    @Inject
+    private FakeplayerSnapshotManager snapshotManager;
+
     /**
      * 移除服务器所有假人
      */
     public void killall(@NotNull CommandSender sender, @NotNull CommandArguments args) {
+        for (var target : manager.getAll()) {
+            snapshotManager.delete(target.getUniqueId());
+        }
         manager.removeAll("Command killall");
     }
 
@@ -0,0 +1,70 @@
+package io.github.hello09x.fakeplayer.core.command.impl;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import dev.jorel.commandapi.executors.CommandArguments;
+import io.github.hello09x.fakeplayer.core.manager.loadtest.LoadTestManager;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import static net.kyori.adventure.text.Component.text;
+import static net.kyori.adventure.text.Component.translatable;
+import static net.kyori.adventure.text.format.NamedTextColor.*;
+
+@Singleton
+public class LoadTestCommand {
+
+    private final LoadTestManager loadTestManager;
+
+    @Inject
+    public LoadTestCommand(LoadTestManager loadTestManager) {
+        this.loadTestManager = loadTestManager;
+    }
+
+    /**
+     * 开始运行压力测试场景
+     */
+    public void start(@NotNull CommandSender sender, @NotNull CommandArguments args) {
+        var name = (String) args.get("scenario");
+
+        var running = loadTestManager.getRunning();
+        if (running != null) {
+            sender.sendMessage(translatable("fakeplayer.command.loadtest.error.running", text(running.name(), WHITE)).color(RED));
+            return;
+        }
+        if (!loadTestManager.getScenarioNames().contains(name)) {
+            sender.sendMessage(translatable("fakeplayer.command.loadtest.error.not-found", text(name, WHITE)).color(RED));
+            return;
+        }
+
+        try {
+            var scenario = loadTestManager.start(name);
+            sender.sendMessage(translatable(
+                    "fakeplayer.command.loadtest.success.started",
+                    text(scenario.name(), WHITE),
+                    text(scenario.bots(), WHITE),
+                    text(scenario.rampUpTicks() / 20, WHITE),
+                    text(scenario.durationTicks() / 20, WHITE)
+            ).color(GRAY));
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage(translatable(
+                    "fakeplayer.command.loadtest.error.invalid",
+                    text(name, WHITE),
+                    text(String.valueOf(e.getMessage()), WHITE)
+            ).color(RED));
+        }
+    }
+
+    /**
+     * 停止正在运行的场景
+     */
+    public void stop(@NotNull CommandSender sender, @NotNull CommandArguments args) {
+        var file = loadTestManager.stop();
+        if (file == null) {
+            sender.sendMessage(translatable("fakeplayer.command.loadtest.error.not-running", RED));
+            return;
+        }
+        sender.sendMessage(translatable("fakeplayer.command.loadtest.success.stopped", text(file.getPath(), WHITE)).color(GRAY));
+    }
+
+}
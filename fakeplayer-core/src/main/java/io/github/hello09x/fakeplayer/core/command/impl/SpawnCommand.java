@@ -21,6 +21,7 @@ import org.jetbrains.annotations.NotNull;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Objects;
 import java.util.Optional;
 
 import static net.kyori.adventure.text.Component.text;
@@ -42,6 +43,27 @@ public class SpawnCommand extends AbstractCommand {
                                        Mth.floor(location.getZ(), 0.5));
     }
 
+    private static @NotNull Location getSpawnpoint(@NotNull CommandSender sender, @NotNull CommandArguments args) {
+        var world = (World) args.get("world");
+        var location = (Location) args.get("location");
+        if (world == null || location == null) {
+            return sender instanceof Player p
+                    ? p.getLocation().clone()
+                    : Bukkit.getWorlds().get(0).getSpawnLocation().clone();
+        }
+
+        return new Location(
+                world,
+                location.getX(),
+                location.getY(),
+                location.getZ()
+        );
+    }
+
+    private long getLifespan() {
+        return Optional.ofNullable(config.getLifespan()).map(Duration::toMillis).orElse(FakeplayerTicker.NON_REMOVE_AT);
+    }
+
     /**
      * 创建假人
      */
@@ -51,25 +73,10 @@ public class SpawnCommand extends AbstractCommand {
         if (name != null && name.isEmpty()) {
             name = null;
         }
-        var world = (World) args.get("world");
-        var location = (Location) args.get("location");
-
-        Location spawnpoint;
-        if (world == null || location == null) {
-            spawnpoint = sender instanceof Player p
-                    ? p.getLocation().clone()
-                    : Bukkit.getWorlds().get(0).getSpawnLocation().clone();
-        } else {
-            spawnpoint = new Location(
-                    world,
-                    location.getX(),
-                    location.getY(),
-                    location.getZ()
-            );
-        }
+        var spawnpoint = getSpawnpoint(sender, args);
 
         var removedAt = Optional.ofNullable(config.getLifespan()).map(lifespan -> LocalDateTime.now().plus(lifespan)).orElse(null);
-        manager.spawnAsync(sender, name, spawnpoint, Optional.ofNullable(config.getLifespan()).map(Duration::toMillis).orElse(FakeplayerTicker.NON_REMOVE_AT))
+        manager.spawnAsync(sender, name, spawnpoint, this.getLifespan())
                .thenAcceptAsync(player -> {
                    if (player == null) {
                        return;
@@ -107,5 +114,45 @@ public class SpawnCommand extends AbstractCommand {
                });
     }
 
+    /**
+     * 批量创建假人
+     */
+    @HandleCommandException
+    public void spawnBatch(@NotNull CommandSender sender, @NotNull CommandArguments args) {
+        var count = (int) Objects.requireNonNull(args.get("count"));
+        var spawnpoint = getSpawnpoint(sender, args);
+
+        manager.spawnBatchAsync(sender, count, spawnpoint, this.getLifespan())
+               .thenAcceptAsync(result -> scheduler.runTask(Main.getInstance(), () -> {
+                   sender.sendMessage(translatable(
+                           "fakeplayer.command.spawn.success.batch",
+                           text(result.spawned().size(), WHITE),
+                           text(result.requested(), WHITE),
+                           text(toLocationString(spawnpoint), WHITE),
+                           text(result.failures().size(), WHITE)
+                   ).color(GRAY));
+
+                   // 只提示第一个失败原因, 避免刷屏
+                   result.failures().stream().findFirst().ifPresent(e -> {
+                       if (Throwables.getRootCause(e) instanceof CommandException ce) {
+                           sender.sendMessage(ce.component());
+                       }
+                   });
+                   for (var e : result.failures()) {
+                       if (!(Throwables.getRootCause(e) instanceof CommandException)) {
+                           log.severe(Throwables.getStackTraceAsString(e));
+                       }
+                   }
+
+                   if (sender instanceof Player p && !result.spawned().isEmpty() && manager.countByCreator(sender) == result.spawned().size()) {
+                       // 有些命令在有假人的时候才会显示, 因此需要强制刷新一下
+                       p.updateCommands();
+                   }
+               })).exceptionally(e -> {
+                   scheduler.runTask(Main.getInstance(), () -> sender.sendMessage(translatable("fakeplayer.command.spawn.error.unknown", RED)));
+                   log.severe(Throwables.getStackTraceAsString(e));
+                   return null;
+               });
+    }
 
 }
@@ -1,9 +1,10 @@
 package io.github.hello09x.fakeplayer.core.command.impl;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import dev.jorel.commandapi.exceptions.WrapperCommandSyntaxException;
 import dev.jorel.commandapi.executors.CommandArguments;
-import io.github.hello09x.devtools.core.utils.EntityUtils;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerTeleporter;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -14,6 +15,9 @@ import static net.kyori.adventure.text.format.NamedTextColor.RED;
 @Singleton
 public class TeleportCommand extends AbstractCommand {
 
+    @Inject
+    private FakeplayerTeleporter teleporter;
+
     /**
      * 传送到假人
      */
@@ -39,14 +43,16 @@ public class TeleportCommand extends AbstractCommand {
         var l1 = sender.getLocation();
         var l2 = fake.getLocation();
 
-        EntityUtils.teleportAndSound(fake, l1);
-        EntityUtils.teleportAndSound(sender, l2);
+        teleporter.teleportAndSound(fake, l1);
+        teleporter.teleportAndSound(sender, l2);
     }
 
     private void teleport(@NotNull CommandSender sender, @NotNull Player from, @NotNull Player to) {
-        if (!EntityUtils.teleportAndSound(from, to.getLocation())) {
-            sender.sendMessage(translatable("fakeplayer.command.teleport.error.canceled", RED));
-        }
+        teleporter.teleportAndSound(from, to.getLocation()).whenComplete((success, error) -> {
+            if (error != null || !success) {
+                sender.sendMessage(translatable("fakeplayer.command.teleport.error.canceled", RED));
+            }
+        });
     }
 
 }
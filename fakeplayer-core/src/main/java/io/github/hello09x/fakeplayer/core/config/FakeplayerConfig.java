@@ -36,6 +36,11 @@ public class FakeplayerConfig extends PluginConfig {
 
     private final static String defaultNameChars = "^[a-zA-Z0-9_]+$";
 
+    /**
+     * 每个假人最多记录最近多少次死亡, 也是 {@code auto-respawn.crash-loop.max-deaths} 的上限
+     */
+    public final static int DEATH_HISTORY_SIZE = 16;
+
     /**
      * 每位玩家最多多少个假人
      */
@@ -71,6 +76,11 @@ public class FakeplayerConfig extends PluginConfig {
      */
     private boolean followQuiting;
 
+    /**
+     * 创建者下线多久之后假人跟随下线(tick)
+     */
+    private int followQuitingDelay;
+
     /**
      * 是否探测 IP
      */
@@ -171,6 +181,56 @@ public class FakeplayerConfig extends PluginConfig {
 
     private Map<Feature, String> defaultFeatures;
 
+    /**
+     * 批量生成时执行登陆前事件的线程数
+     */
+    private int spawnPreLoginThreads;
+
+    /**
+     * 批量生成时每 tick 最多放置多少个假人
+     */
+    private int spawnLoginsPerTick;
+
+    /**
+     * 预先创建的假人实例数量, 0 为不开启
+     */
+    private int shellPoolSize;
+
+    /**
+     * 传送时最多同时异步加载多少个区块
+     */
+    private int maxConcurrentChunkLoads;
+
+    /**
+     * 数据存储方式
+     */
+    private StorageType storageType;
+
+    /**
+     * 是否提供 Prometheus 格式的监控指标
+     */
+    private boolean metricsEnabled;
+
+    /**
+     * 监控指标的监听地址
+     */
+    private String metricsHost;
+
+    /**
+     * 监控指标的监听端口
+     */
+    private int metricsPort;
+
+    /**
+     * 是否定期移除不加载任何独有区块的空闲假人
+     */
+    private boolean chunkDedupeEnabled;
+
+    /**
+     * 检查的间隔(tick), 修改后需要重启服务器
+     */
+    private int chunkDedupeInterval;
+
     /**
      * Smart Auto-Respawn Settings
      * Fork enhancement for intelligent respawn based on death cause
@@ -181,6 +241,24 @@ public class FakeplayerConfig extends PluginConfig {
     private boolean respawnOnCommandKill;
     private int respawnDelaySeconds;
     private int respawnCooldownMinutes;
+    private boolean respawnDeathMessageFallback;
+
+    /**
+     * 假人在这段时间内死亡 {@link #crashLoopMaxDeaths} 次后停止自动重生
+     */
+    private int crashLoopWindowSeconds;
+    private int crashLoopMaxDeaths;
+    private int crashLoopMaxDelaySeconds;
+
+    /**
+     * 服务器启动后恢复假人时, 每一批最多恢复多少个
+     */
+    private int restoreMaxWaveSize;
+
+    /**
+     * 服务器启动后恢复假人时, 平均每 tick 耗时低于这个值才开始下一批
+     */
+    private double restoreTargetMspt;
 
     @Inject
     public FakeplayerConfig() {
@@ -196,6 +274,7 @@ public class FakeplayerConfig extends PluginConfig {
         this.playerLimit = maxIfZero(file.getInt("player-limit", 1));
         this.serverLimit = maxIfZero(file.getInt("server-limit", 1000));
         this.followQuiting = file.getBoolean("follow-quiting", true);
+        this.followQuitingDelay = Math.max(0, file.getInt("follow-quiting-delay", 6000));
         this.detectIp = file.getBoolean("detect-ip", false);
         this.kaleTps = file.getInt("kale-tps", 0);
         this.selfCommands = file.getStringList("self-commands");
@@ -227,6 +306,16 @@ public class FakeplayerConfig extends PluginConfig {
         this.debug = file.getBoolean("debug", false);
         this.nameStyleColor = this.getNameStyleColor(file);
         this.nameStyleDecorations = this.getNameStyleDecorations(file);
+        this.spawnPreLoginThreads = file.getInt("batch-spawn.pre-login-threads", 4);
+        this.spawnLoginsPerTick = file.getInt("batch-spawn.logins-per-tick", 4);
+        this.shellPoolSize = Math.max(0, file.getInt("batch-spawn.shell-pool-size", 0));
+        this.maxConcurrentChunkLoads = Math.max(1, file.getInt("teleport.max-concurrent-chunk-loads", 8));
+        this.storageType = ConfigUtils.getEnum(file, "storage.type", StorageType.class, StorageType.SQLITE);
+        this.metricsEnabled = file.getBoolean("metrics.enabled", false);
+        this.metricsHost = file.getString("metrics.host", "127.0.0.1");
+        this.metricsPort = file.getInt("metrics.port", 9464);
+        this.chunkDedupeEnabled = file.getBoolean("chunk-dedupe.enabled", false);
+        this.chunkDedupeInterval = Math.max(20, file.getInt("chunk-dedupe.interval", 6000));
 
         // Smart Auto-Respawn configuration
         this.autoRespawn = file.getBoolean("auto-respawn.enabled", false);
@@ -235,6 +324,12 @@ public class FakeplayerConfig extends PluginConfig {
         this.respawnOnCommandKill = file.getBoolean("auto-respawn.respawn-on-command-kill", false);
         this.respawnDelaySeconds = file.getInt("auto-respawn.respawn-delay", 5);
         this.respawnCooldownMinutes = file.getInt("auto-respawn.respawn-cooldown", 1);
+        this.respawnDeathMessageFallback = file.getBoolean("auto-respawn.death-message-fallback", true);
+        this.crashLoopWindowSeconds = Math.max(1, file.getInt("auto-respawn.crash-loop.window", 300));
+        this.crashLoopMaxDeaths = Math.clamp(file.getInt("auto-respawn.crash-loop.max-deaths", 5), 0, DEATH_HISTORY_SIZE);
+        this.crashLoopMaxDelaySeconds = Math.max(0, file.getInt("auto-respawn.crash-loop.max-delay", 300));
+        this.restoreMaxWaveSize = Math.max(1, file.getInt("auto-respawn.restore.max-wave-size", 50));
+        this.restoreTargetMspt = file.getDouble("auto-respawn.restore.target-mspt", 40D);
 
         if (this.isConfigFileOutOfDate()) {
             Bukkit.getScheduler().runTaskLater(Main.getInstance(), () -> {
@@ -0,0 +1,9 @@
+package io.github.hello09x.fakeplayer.core.config;
+
+public enum StorageType {
+
+    SQLITE,
+
+    MEMORY
+
+}
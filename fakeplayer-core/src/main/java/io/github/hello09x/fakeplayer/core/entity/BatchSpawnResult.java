@@ -0,0 +1,27 @@
+package io.github.hello09x.fakeplayer.core.entity;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * 批量生成的汇总结果
+ *
+ * @param requested 请求生成的数量
+ * @param spawned   成功生成的假人
+ * @param failures  失败原因
+ */
+public record BatchSpawnResult(
+
+        int requested,
+
+        @NotNull
+        List<Player> spawned,
+
+        @NotNull
+        List<Throwable> failures
+
+) {
+
+}
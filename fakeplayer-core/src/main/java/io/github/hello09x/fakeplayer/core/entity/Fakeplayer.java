@@ -1,8 +1,6 @@
 package io.github.hello09x.fakeplayer.core.entity;
 
 import io.github.hello09x.devtools.command.exception.CommandException;
-import io.github.hello09x.devtools.core.utils.EntityUtils;
-import io.github.hello09x.devtools.core.utils.SchedulerUtils;
 import io.github.hello09x.devtools.core.utils.WorldUtils;
 import io.github.hello09x.fakeplayer.api.spi.*;
 import io.github.hello09x.fakeplayer.core.Main;
@@ -11,9 +9,15 @@ import io.github.hello09x.fakeplayer.core.config.PreventKicking;
 import io.github.hello09x.fakeplayer.core.constant.MetadataKeys;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerAutofishManager;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerReplenishManager;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerShellPool;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerSkinManager;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerSpawnMetrics;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerSpawnMetrics.SpawningStatePath;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerTeleporter;
 import io.github.hello09x.fakeplayer.core.manager.action.ActionManager;
+import io.github.hello09x.fakeplayer.core.manager.metrics.FakeplayerSpawnEvent;
 import io.github.hello09x.fakeplayer.core.manager.naming.SequenceName;
+import io.github.hello09x.fakeplayer.core.util.AddressUtils;
 import io.github.hello09x.fakeplayer.core.util.Attributes;
 import io.github.hello09x.fakeplayer.core.util.InternalAddressGenerator;
 import lombok.Getter;
@@ -33,6 +37,7 @@ import java.net.InetAddress;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static net.kyori.adventure.text.Component.text;
 import static net.kyori.adventure.text.Component.translatable;
@@ -47,11 +52,14 @@ public class Fakeplayer {
     private final static FakeplayerReplenishManager replenishManager = Main.getInjector().getInstance(FakeplayerReplenishManager.class);
     private final static FakeplayerAutofishManager autofishManager = Main.getInjector().getInstance(FakeplayerAutofishManager.class);
     private final static ActionManager actionManager = Main.getInjector().getInstance(ActionManager.class);
+    private final static FakeplayerShellPool shellPool = Main.getInjector().getInstance(FakeplayerShellPool.class);
+    private final static FakeplayerSpawnMetrics spawnMetrics = Main.getInjector().getInstance(FakeplayerSpawnMetrics.class);
+    private final static FakeplayerTeleporter teleporter = Main.getInjector().getInstance(FakeplayerTeleporter.class);
 
 
     @NotNull
     @Getter
-    private final CommandSender creator;
+    private CommandSender creator;
 
     @NotNull
     @Getter
@@ -63,7 +71,7 @@ public class Fakeplayer {
 
     @NotNull
     @Getter
-    private final String creatorIp;
+    private String creatorIp;
 
     @NotNull
     @Getter
@@ -83,6 +91,16 @@ public class Fakeplayer {
     @UnknownNullability
     private NMSNetwork network;
 
+    /**
+     * 开始登陆的时间, 用于统计生成耗时
+     */
+    private long loginStartedAt;
+
+    /**
+     * JFR 事件, 没有在录制时不会记录任何内容
+     */
+    private final FakeplayerSpawnEvent spawnEvent = new FakeplayerSpawnEvent();
+
     /**
      * @param creator      创建者
      * @param creatorIp    创建者 IP
@@ -101,80 +119,102 @@ public class Fakeplayer {
         this.creator = creator;
         this.creatorIp = creatorIp;
         this.sequenceName = sequenceName;
-        this.handle = bridge.fromServer(Bukkit.getServer()).newPlayer(uuid, name);
+        this.handle = shellPool.acquire(uuid, name);
         this.player = handle.getPlayer();
 
         this.ticker = new FakeplayerTicker(this, lifespan);
         this.player.setPersistent(config.isPersistData());
         this.player.setSleepingIgnored(true);
-        this.handle.setPlayBefore(); // 可避免一些插件的第一次入服欢迎信息
-        this.handle.disableAdvancements(Main.getInstance()); // 不提示成就信息
     }
 
     /**
-     * 让假人诞生
+     * 将假人交还给原来的创建者, 用于创建者不在线时由控制台重建的假人
+     * <p>必须先从假人清单中移除, 交还之后再重新添加</p>
+     *
+     * @param creator 创建者
+     */
+    public void adopt(@NotNull Player creator) {
+        this.creator = creator;
+        this.creatorIp = AddressUtils.getAddress(creator);
+    }
+
+    /**
+     * 在指定的线程池中执行登陆前的事件
+     * <p>由 {@link io.github.hello09x.fakeplayer.core.manager.FakeplayerSpawnPipeline} 提供一个有界的线程池, 多个假人的登陆前事件可以并行执行</p>
+     *
+     * @param executor 异步线程池
+     * @return 假人所使用的地址
      */
-    public CompletableFuture<Void> spawnAsync(@NotNull SpawnOption option) {
+    public @NotNull CompletableFuture<InetAddress> preLoginAsync(@NotNull Executor executor) {
         var address = ipGen.next();
+        this.loginStartedAt = System.nanoTime();
+        this.spawnEvent.begin();
         this.player.setMetadata(MetadataKeys.SPAWNED_AT, new FixedMetadataValue(Main.getInstance(), Bukkit.getCurrentTick()));
-        return SchedulerUtils
-                .runTaskAsynchronously(Main.getInstance(), () -> {
-                    var event = this.callPreLoginEvent(address);
-                    if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
-                        throw new CommandException(translatable(
-                                "fakeplayer.command.spawn.error.disallowed",
-                                text(player.getName(), WHITE),
-                                event.kickMessage()
-                        ).color(RED));
-                    }
-                })
-                .thenComposeAsync(nul -> SchedulerUtils.runTask(Main.getInstance(), () -> {
-                    {
-                        var event = this.callLoginEvent(address);
-                        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED && config.getPreventKicking().ordinal() < PreventKicking.ON_SPAWNING.ordinal()) {
-                            throw new CommandException(translatable(
-                                    "fakeplayer.command.spawn.error.disallowed", RED,
-                                    text(player.getName(), WHITE),
-                                    event.kickMessage()
-                            ));
-                        }
-                    }
-
-                    if (config.isDropInventoryOnQuiting()) {
-                        // 跨服背包同步插件可能导致假人既丢弃了一份到地上，在重新生成的时候又回来了
-                        // 因此在生成的时候清空一次背包
-                        // 但无法解决登陆后延迟同步背包的情况
-                        this.player.getInventory().clear();
-                    }
-
-                    this.player.setInvulnerable(option.invulnerable());
-                    this.player.setCollidable(option.collidable());
-                    this.player.setCanPickupItems(option.pickupItems());
-                    if (option.lookAtEntity()) {
-                        actionManager.setAction(player, ActionType.LOOK_AT_NEAREST_ENTITY, ActionSetting.continuous());
-                    }
-                    if (option.skin()) {
-                        skinManager.useDefaultSkin(creator, player);
-                    }
-                    if (option.replenish()) {
-                        replenishManager.setReplenish(player, true);
-                    }
-                    if (option.autofish()) {
-                        autofishManager.setAutofish(player, true);
-                    }
-
-                    this.network = bridge.createNetwork(address);
-                    this.network.placeNewPlayer(Bukkit.getServer(), this.player);
-                    this.player.setHealth(Optional.ofNullable(this.player.getAttribute(Attributes.maxHealth()))
-                                                  .map(AttributeInstance::getValue)
-                                                  .orElse(20D));    // 恢复生命值
-                    this.player.setFoodLevel(20);
-                    this.setupName();
-                    this.handle.setupClientOptions();   // 处理皮肤设置问题
-
-                    this.teleportToSpawnpoint(option.spawnAt().clone());
-                    this.ticker.runTaskTimer(Main.getInstance(), 0, 1);
-                }));
+        return CompletableFuture.supplyAsync(() -> {
+            var event = this.callPreLoginEvent(address);
+            if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+                throw new CommandException(translatable(
+                        "fakeplayer.command.spawn.error.disallowed",
+                        text(player.getName(), WHITE),
+                        event.kickMessage()
+                ).color(RED));
+            }
+            return address;
+        }, executor);
+    }
+
+    /**
+     * 登陆并放置到世界中, 必须在主线程调用
+     *
+     * @param address 由 {@link #preLoginAsync(Executor)} 分配的地址
+     * @param option  生成配置
+     */
+    public void login(@NotNull InetAddress address, @NotNull SpawnOption option) {
+        {
+            var event = this.callLoginEvent(address);
+            if (event.getResult() != PlayerLoginEvent.Result.ALLOWED && config.getPreventKicking().ordinal() < PreventKicking.ON_SPAWNING.ordinal()) {
+                throw new CommandException(translatable(
+                        "fakeplayer.command.spawn.error.disallowed", RED,
+                        text(player.getName(), WHITE),
+                        event.kickMessage()
+                ));
+            }
+        }
+
+        if (config.isDropInventoryOnQuiting()) {
+            // 跨服背包同步插件可能导致假人既丢弃了一份到地上，在重新生成的时候又回来了
+            // 因此在生成的时候清空一次背包
+            // 但无法解决登陆后延迟同步背包的情况
+            this.player.getInventory().clear();
+        }
+
+        this.player.setInvulnerable(option.invulnerable());
+        this.player.setCollidable(option.collidable());
+        this.player.setCanPickupItems(option.pickupItems());
+        if (option.lookAtEntity()) {
+            actionManager.setAction(player, ActionType.LOOK_AT_NEAREST_ENTITY, ActionSetting.continuous());
+        }
+        if (option.skin()) {
+            skinManager.useDefaultSkin(creator, player);
+        }
+        if (option.replenish()) {
+            replenishManager.setReplenish(player, true);
+        }
+        if (option.autofish()) {
+            autofishManager.setAutofish(player, true);
+        }
+
+        this.network = bridge.createNetwork(address);
+        this.network.placeNewPlayer(Bukkit.getServer(), this.player);
+        this.player.setHealth(Optional.ofNullable(this.player.getAttribute(Attributes.maxHealth()))
+                                      .map(AttributeInstance::getValue)
+                                      .orElse(20D));    // 恢复生命值
+        this.player.setFoodLevel(20);
+        this.setupName();
+        this.handle.setupClientOptions();   // 处理皮肤设置问题
+
+        this.teleportToSpawnpoint(option.spawnAt().clone());
+        this.ticker.runTaskTimer(Main.getInstance(), 0, 1);
     }
 
     /**
@@ -183,25 +223,59 @@ public class Fakeplayer {
      * @param to 目标位置
      */
     private void teleportToSpawnpoint(@NotNull Location to) {
+        this.acquireSpawningState(to).thenAccept(path -> Bukkit.getScheduler().runTask(Main.getInstance(), () -> this.teleport(to, path)));
+    }
+
+    /**
+     * 让假人获得刷怪能力
+     *
+     * @param to 目标位置
+     * @return 获取刷怪能力的方式
+     */
+    private @NotNull CompletableFuture<SpawningStatePath> acquireSpawningState(@NotNull Location to) {
         var from = this.player.getLocation();
-        if (from.getWorld().equals(to.getWorld())) {
-            // 如果生成世界等于目的世界, 则需要穿越一次维度才能获取刷怪能力
-            var otherWorld = WorldUtils.getOtherWorld(from.getWorld());
-            if (otherWorld == null || !player.teleport(otherWorld.getSpawnLocation())) {
+        if (!from.getWorld().equals(to.getWorld())) {
+            // 传送到其他世界时本身就会获取刷怪能力
+            return CompletableFuture.completedFuture(SpawningStatePath.NONE);
+        }
+
+        // 如果生成世界等于目的世界, 则需要重新登记到世界中才能获取刷怪能力
+        if (this.handle.resetSpawningState()) {
+            return CompletableFuture.completedFuture(SpawningStatePath.DIRECT);
+        }
+
+        // 当前版本不支持直接登记, 穿越一次维度
+        var otherWorld = WorldUtils.getOtherWorld(from.getWorld());
+        var hop = otherWorld == null
+                ? CompletableFuture.completedFuture(false)
+                : teleporter.teleport(player, otherWorld.getSpawnLocation()).exceptionally(e -> false);
+        return hop.thenApply(success -> {
+            if (!success) {
                 this.creator.sendMessage(translatable(
                         "fakeplayer.command.spawn.error.no-mob-spawning-ability",
                         text(player.getName(), WHITE)
                 ).color(GRAY));
             }
-        }
+            return SpawningStatePath.TELEPORT;
+        });
+    }
 
-        Bukkit.getScheduler().runTask(Main.getInstance(), () -> {
-            if (!EntityUtils.teleportAndSound(player, to)) {
+    private void teleport(@NotNull Location to, @NotNull SpawningStatePath path) {
+        teleporter.teleportAndSound(player, to).exceptionally(e -> false).thenAccept(success -> {
+            if (!success) {
                 this.creator.sendMessage(translatable(
                         "fakeplayer.command.spawn.error.teleport-failed",
                         text(player.getName(), WHITE)
                 ).color(GRAY));
             }
+            spawnMetrics.record(this.name, path, (System.nanoTime() - this.loginStartedAt) / 1_000_000);
+            this.spawnEvent.end();
+            if (this.spawnEvent.shouldCommit()) {
+                this.spawnEvent.name = this.name;
+                this.spawnEvent.path = path.name();
+                this.spawnEvent.success = success;
+                this.spawnEvent.commit();
+            }
         });
     }
 
@@ -213,6 +287,17 @@ public class Fakeplayer {
         return handle.getTickCount();
     }
 
+    /**
+     * @return 剩余存活时间(毫秒), 不会被定时移除时为 0
+     */
+    public long getRemainingLifespan() {
+        var removeAt = this.ticker.getRemoveAt();
+        if (removeAt == FakeplayerTicker.NON_REMOVE_AT) {
+            return 0;
+        }
+        return Math.max(1, removeAt - System.currentTimeMillis());
+    }
+
     private @NotNull AsyncPlayerPreLoginEvent callPreLoginEvent(@NotNull InetAddress address) {
         var event = new AsyncPlayerPreLoginEvent(
                 this.name,
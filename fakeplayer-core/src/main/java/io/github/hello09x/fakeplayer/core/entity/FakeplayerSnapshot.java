@@ -0,0 +1,207 @@
+package io.github.hello09x.fakeplayer.core.entity;
+
+import io.github.hello09x.fakeplayer.api.spi.ActionSetting;
+import io.github.hello09x.fakeplayer.api.spi.ActionType;
+import io.github.hello09x.fakeplayer.core.repository.model.Feature;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 假人运行时状态的快照, 用于重启服务器后恢复假人
+ * <p>二进制格式: 魔数, 版本号, 然后依次是各个字段. 字符串以 2 字节长度加 UTF-8 编码保存, 枚举以名称保存, 枚举增删不会影响旧的快照</p>
+ *
+ * @param uuid              假人 UUID
+ * @param name              假人名称
+ * @param creatorUUID       创建者 UUID, 创建者不是玩家时为 {@code null}
+ * @param creatorName       创建者名称
+ * @param yaw               水平朝向
+ * @param pitch             垂直朝向
+ * @param sneaking          是否潜行
+ * @param sprinting         是否疾跑
+ * @param heldItemSlot      手持物品栏位
+ * @param remainingLifespan 剩余存活时间(毫秒), 0 为永久
+ * @param features          假人特性
+ * @param actions           未结束的行为
+ */
+public record FakeplayerSnapshot(
+
+        @NotNull
+        UUID uuid,
+
+        @NotNull
+        String name,
+
+        @Nullable
+        UUID creatorUUID,
+
+        @NotNull
+        String creatorName,
+
+        float yaw,
+
+        float pitch,
+
+        boolean sneaking,
+
+        boolean sprinting,
+
+        int heldItemSlot,
+
+        long remainingLifespan,
+
+        @NotNull
+        Map<Feature, String> features,
+
+        @NotNull
+        Map<ActionType, ActionSetting> actions
+
+) {
+
+    private final static int MAGIC = 0x46505353; // FPSS
+
+    private final static short VERSION = 1;
+
+    private final static byte FLAG_SNEAKING = 1;
+
+    private final static byte FLAG_SPRINTING = 1 << 1;
+
+    public byte @NotNull [] encode() {
+        var bytes = new ByteArrayOutputStream(256);
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+            writeString(out, name);
+            out.writeBoolean(creatorUUID != null);
+            if (creatorUUID != null) {
+                out.writeLong(creatorUUID.getMostSignificantBits());
+                out.writeLong(creatorUUID.getLeastSignificantBits());
+            }
+            writeString(out, creatorName);
+            out.writeFloat(yaw);
+            out.writeFloat(pitch);
+            out.writeByte((sneaking ? FLAG_SNEAKING : 0) | (sprinting ? FLAG_SPRINTING : 0));
+            out.writeByte(heldItemSlot);
+            out.writeLong(remainingLifespan);
+
+            out.writeByte(features.size());
+            for (var entry : features.entrySet()) {
+                writeString(out, entry.getKey().name());
+                writeString(out, entry.getValue());
+            }
+
+            out.writeByte(actions.size());
+            for (var entry : actions.entrySet()) {
+                var setting = entry.getValue();
+                writeString(out, entry.getKey().name());
+                out.writeInt(setting.maximum);
+                out.writeInt(setting.remains);
+                out.writeInt(setting.interval);
+                out.writeInt(setting.wait);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 从二进制数据中读取快照
+     *
+     * @param in 二进制数据
+     * @return 快照
+     * @throws IllegalArgumentException 数据不是快照或者版本不支持
+     */
+    public static @NotNull FakeplayerSnapshot decode(@NotNull ByteBuffer in) throws IllegalArgumentException {
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a fake player snapshot");
+            }
+            var version = in.getShort();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+            }
+
+            var uuid = new UUID(in.getLong(), in.getLong());
+            var name = readString(in);
+            var creatorUUID = in.get() != 0 ? new UUID(in.getLong(), in.getLong()) : null;
+            var creatorName = readString(in);
+            var yaw = in.getFloat();
+            var pitch = in.getFloat();
+            var flags = in.get();
+            var heldItemSlot = in.get();
+            var remainingLifespan = in.getLong();
+
+            var features = new EnumMap<Feature, String>(Feature.class);
+            for (int i = in.get(); i > 0; i--) {
+                var key = readString(in);
+                var value = readString(in);
+                valueOf(Feature.class, key).ifPresent(feature -> features.put(feature, value));
+            }
+
+            var actions = new EnumMap<ActionType, ActionSetting>(ActionType.class);
+            for (int i = in.get(); i > 0; i--) {
+                var key = readString(in);
+                var setting = new ActionSetting(in.getInt(), 0);
+                setting.remains = in.getInt();
+                setting.interval = in.getInt();
+                setting.wait = in.getInt();
+                valueOf(ActionType.class, key).ifPresent(action -> actions.put(action, setting));
+            }
+
+            return new FakeplayerSnapshot(
+                    uuid,
+                    name,
+                    creatorUUID,
+                    creatorName,
+                    yaw,
+                    pitch,
+                    (flags & FLAG_SNEAKING) != 0,
+                    (flags & FLAG_SPRINTING) != 0,
+                    heldItemSlot,
+                    remainingLifespan,
+                    features,
+                    actions
+            );
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated fake player snapshot", e);
+        }
+    }
+
+    /**
+     * 旧快照中可能包含已经被移除的枚举, 忽略即可
+     */
+    private static <E extends Enum<E>> @NotNull Optional<E> valueOf(@NotNull Class<E> type, @NotNull String name) {
+        try {
+            return Optional.of(Enum.valueOf(type, name));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static @NotNull String readString(@NotNull ByteBuffer in) {
+        var bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
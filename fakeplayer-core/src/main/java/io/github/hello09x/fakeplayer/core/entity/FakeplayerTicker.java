@@ -3,6 +3,8 @@ package io.github.hello09x.fakeplayer.core.entity;
 import io.github.hello09x.fakeplayer.api.spi.NMSServerPlayer;
 import io.github.hello09x.fakeplayer.core.Main;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
+import io.github.hello09x.fakeplayer.core.manager.metrics.FakeplayerMetrics;
+import io.github.hello09x.fakeplayer.core.manager.metrics.FakeplayerTickEvent;
 import org.bukkit.Location;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
@@ -11,6 +13,8 @@ public class FakeplayerTicker extends BukkitRunnable {
 
     public final static long NON_REMOVE_AT = -1;
 
+    private final static FakeplayerMetrics metrics = Main.getInjector().getInstance(FakeplayerMetrics.class);
+
     @NotNull
     private final Fakeplayer player;
 
@@ -34,6 +38,13 @@ public class FakeplayerTicker extends BukkitRunnable {
         this.firstTick = true;
     }
 
+    /**
+     * @return 移除时间, 不需要定时移除时为 {@link #NON_REMOVE_AT}
+     */
+    public long getRemoveAt() {
+        return this.removeAt;
+    }
+
     @Override
     public void run() {
         if (!player.isOnline()) {
@@ -47,15 +58,29 @@ public class FakeplayerTicker extends BukkitRunnable {
             return;
         }
 
+        // 击退动量在收到数据包时只做记录, 统一在这里处理
+        this.player.getNetwork().getServerGamePacketListener().applyPendingMotion();
+
         // 真实的玩家是通过 ServerGamePacketListenerImpl#tick() 进行时刻运算的
         // 这个方法会修复第一次 tick 坐标错误的问题
         // 但是这个方法会导致强制修正坐标为客户端坐标, 然而假人的连接并不会发送任何坐标
         // 因此这里自行修复第一次 tick 的坐标, 并直接调用 ServerPlayer#doTick() 来进行时刻运算
-        if (this.firstTick) {
+        var event = new FakeplayerTickEvent();
+        var firstTick = this.firstTick;
+        var start = System.nanoTime();
+        event.begin();
+        if (firstTick) {
             this.doFirstTick();
         } else {
             this.doTick();
         }
+        event.end();
+        metrics.recordTick(System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.name = this.player.getName();
+            event.firstTick = firstTick;
+            event.commit();
+        }
     }
 
     /**
@@ -5,7 +5,7 @@ import com.google.inject.Singleton;
 import io.github.hello09x.fakeplayer.core.Main;
 import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
-import io.github.hello09x.fakeplayer.core.repository.FakeplayerProfileRepository;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerRespawnWriter;
 import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -23,13 +23,13 @@ public class FakeplayerLifecycleListener implements Listener {
 
     private final FakeplayerManager manager;
     private final FakeplayerConfig config;
-    private final FakeplayerProfileRepository profileRepository;
+    private final FakeplayerRespawnWriter respawnWriter;
 
     @Inject
-    public FakeplayerLifecycleListener(FakeplayerManager manager, FakeplayerConfig config, FakeplayerProfileRepository profileRepository) {
+    public FakeplayerLifecycleListener(FakeplayerManager manager, FakeplayerConfig config, FakeplayerRespawnWriter respawnWriter) {
         this.manager = manager;
         this.config = config;
-        this.profileRepository = profileRepository;
+        this.respawnWriter = respawnWriter;
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.LOWEST)
@@ -53,8 +53,7 @@ public class FakeplayerLifecycleListener implements Listener {
 
         // Save location for auto-respawn on server restart
         if (config.isAutoRespawn()) {
-            profileRepository.saveLastLocation(player.getUniqueId(), player.getLocation());
-            profileRepository.setShouldRespawn(player.getUniqueId(), true);
+            respawnWriter.saveLastLocation(player.getUniqueId(), player.getLocation(), true);
         }
 
         Bukkit.getScheduler().runTaskLater(Main.getInstance(), () -> {
@@ -76,8 +75,7 @@ public class FakeplayerLifecycleListener implements Listener {
 
         // Save location for auto-respawn on server restart
         if (config.isAutoRespawn()) {
-            profileRepository.saveLastLocation(player.getUniqueId(), player.getLocation());
-            profileRepository.setShouldRespawn(player.getUniqueId(), true);
+            respawnWriter.saveLastLocation(player.getUniqueId(), player.getLocation(), true);
         }
 
         manager.dispatchCommands(player, config.getPostQuitCommands());
@@ -11,8 +11,15 @@ import io.github.hello09x.fakeplayer.core.constant.MetadataKeys;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerDeathTracker;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerRespawnManager;
-import io.github.hello09x.fakeplayer.core.repository.FakeplayerProfileRepository;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerRespawnWriter;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerSnapshotManager;
+import io.github.hello09x.fakeplayer.core.manager.PluginMessageForwarder;
+import io.github.hello09x.fakeplayer.core.manager.loadtest.LoadTestManager;
+import io.github.hello09x.fakeplayer.core.manager.metrics.MetricsServer;
+import io.github.hello09x.fakeplayer.core.manager.naming.IdentityIndex;
+import io.github.hello09x.fakeplayer.core.repository.DatabaseExecutor;
 import io.github.hello09x.fakeplayer.core.repository.UsedIdRepository;
+import io.github.hello09x.fakeplayer.core.repository.storage.FakeplayerStorage;
 import org.bukkit.Bukkit;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.attribute.AttributeInstance;
@@ -44,18 +51,32 @@ public class FakeplayerListener implements Listener {
 
     private final FakeplayerManager manager;
     private final UsedIdRepository usedIdRepository;
-    private final FakeplayerProfileRepository profileRepository;
     private final FakeplayerConfig config;
     private final FakeplayerDeathTracker deathTracker;
+    private final PluginMessageForwarder forwarder;
+    private final IdentityIndex identityIndex;
+    private final FakeplayerSnapshotManager snapshotManager;
+    private final FakeplayerRespawnWriter respawnWriter;
+    private final DatabaseExecutor database;
+    private final FakeplayerStorage storage;
+    private final MetricsServer metricsServer;
+    private final LoadTestManager loadTestManager;
     private FakeplayerRespawnManager respawnManager; // Will be injected later
 
     @Inject
-    public FakeplayerListener(FakeplayerManager manager, UsedIdRepository usedIdRepository, FakeplayerProfileRepository profileRepository, FakeplayerConfig config, FakeplayerDeathTracker deathTracker) {
+    public FakeplayerListener(FakeplayerManager manager, UsedIdRepository usedIdRepository, FakeplayerConfig config, FakeplayerDeathTracker deathTracker, PluginMessageForwarder forwarder, IdentityIndex identityIndex, FakeplayerSnapshotManager snapshotManager, FakeplayerRespawnWriter respawnWriter, DatabaseExecutor database, FakeplayerStorage storage, MetricsServer metricsServer, LoadTestManager loadTestManager) {
         this.manager = manager;
         this.usedIdRepository = usedIdRepository;
-        this.profileRepository = profileRepository;
         this.config = config;
         this.deathTracker = deathTracker;
+        this.forwarder = forwarder;
+        this.identityIndex = identityIndex;
+        this.snapshotManager = snapshotManager;
+        this.respawnWriter = respawnWriter;
+        this.database = database;
+        this.storage = storage;
+        this.metricsServer = metricsServer;
+        this.loadTestManager = loadTestManager;
     }
 
     @Inject(optional = true)
@@ -73,7 +94,7 @@ public class FakeplayerListener implements Listener {
             return;
         }
 
-        if (usedIdRepository.contains(player.getUniqueId()) || profileRepository.existsByUUID(player.getUniqueId())) {
+        if (identityIndex.contains(player.getUniqueId())) {
             event.disallow(PlayerLoginEvent.Result.KICK_OTHER, textOfChildren(
                     translatable("fakeplayer.listener.login.deny-used-uuid", RED),
                     newline(),
@@ -133,39 +154,33 @@ public class FakeplayerListener implements Listener {
             return;
         }
 
-        // Save location before death for respawn
-        profileRepository.saveLastLocation(player.getUniqueId(), player.getLocation());
-
         // Analyze death cause
         FakeplayerDeathTracker.DeathReason reason = deathTracker.analyzeDeathReason(event);
         deathTracker.recordDeath(player.getUniqueId(), reason);
-        profileRepository.setDeathReason(player.getUniqueId(), reason);
 
         // Check if should auto-respawn
         boolean shouldAutoRespawn = config.isAutoRespawn() &&
                                    deathTracker.shouldAutoRespawn(player.getUniqueId(), reason);
 
-        // Store respawn eligibility in database
-        profileRepository.setShouldRespawn(player.getUniqueId(), shouldAutoRespawn);
+        // Back off or park the player if it keeps dying right after respawning
+        int respawnDelay = 0;
+        boolean parked = false;
+        if (shouldAutoRespawn && respawnManager != null) {
+            respawnDelay = respawnManager.recordDeath(player);
+            parked = respawnDelay < 0;
+            shouldAutoRespawn = !parked;
+        }
+
+        // Save location before death, death reason and respawn eligibility for respawn
+        respawnWriter.saveDeath(player.getUniqueId(), player.getLocation(), reason, shouldAutoRespawn);
 
         log.info(String.format("Fake player %s died from %s - Auto-respawn: %s",
                 player.getName(), reason, shouldAutoRespawn));
 
-        // If auto-respawn is enabled and appropriate, schedule respawn
+        // If auto-respawn is enabled and appropriate, revive the player in place after the delay
         if (shouldAutoRespawn && respawnManager != null) {
-            // Still remove the player but mark for respawn
-            event.setCancelled(true);
-
-            // Restore health for sync plugins
-            Optional.ofNullable(player.getAttribute(Attribute.MAX_HEALTH))
-                    .map(AttributeInstance::getValue)
-                    .ifPresent(player::setHealth);
-
-            // Remove player but schedule respawn
-            manager.remove(player.getName(), event.deathMessage());
-
-            // Schedule respawn after delay
-            respawnManager.scheduleRespawn(player.getName(), player.getUniqueId(), reason);
+            // Drops and experience follow the keepInventory gamerule of the world, like for a real player
+            respawnManager.scheduleRevive(player, reason, respawnDelay);
 
             // Notify creator about auto-respawn
             var creator = manager.getCreator(player);
@@ -173,12 +188,24 @@ public class FakeplayerListener implements Listener {
                 creator.sendMessage(translatable(
                         "fakeplayer.listener.death.auto-respawn",
                         text(player.getName(), GOLD),
-                        text(config.getRespawnDelaySeconds() + "s", YELLOW)
+                        text(respawnDelay + "s", YELLOW)
                 ).color(GREEN));
             }
             return;
         }
 
+        if (parked) {
+            var creator = manager.getCreator(player);
+            if (creator != null) {
+                creator.sendMessage(translatable(
+                        "fakeplayer.listener.death.auto-respawn-parked",
+                        text(player.getName(), GOLD),
+                        text(config.getCrashLoopMaxDeaths(), YELLOW),
+                        text(config.getCrashLoopWindowSeconds() + "s", YELLOW)
+                ).color(RED));
+            }
+        }
+
         // Original logic for non-auto-respawn cases
         if (!config.isKickOnDead()) {
             var creator = manager.getCreator(player);
@@ -213,8 +240,7 @@ public class FakeplayerListener implements Listener {
 
         // Save new location for auto-respawn
         if (config.isAutoRespawn()) {
-            profileRepository.saveLastLocation(player.getUniqueId(), event.getTo());
-            profileRepository.setShouldRespawn(player.getUniqueId(), true);
+            respawnWriter.saveLastLocation(player.getUniqueId(), event.getTo(), true);
         }
     }
 
@@ -233,6 +259,9 @@ public class FakeplayerListener implements Listener {
                 Bukkit.getScheduler().runTaskLater(Main.getInstance(), creator::updateCommands, 1); // 需要下 1 tick 移除后才正确刷新
             }
         } finally {
+            if (respawnManager != null) {
+                respawnManager.forgetDeaths(target.getUniqueId());
+            }
             manager.cleanup(target);
         }
     }
@@ -240,8 +269,16 @@ public class FakeplayerListener implements Listener {
     @EventHandler
     public void onPluginDisable(@NotNull PluginDisableEvent event) {
         if (event.getPlugin() == Main.getInstance()) {
+            Exceptions.suppress(Main.getInstance(), metricsServer::onDisable);
+            Exceptions.suppress(Main.getInstance(), loadTestManager::onDisable);
+            Exceptions.suppress(Main.getInstance(), snapshotManager::onDisable);
             Exceptions.suppress(Main.getInstance(), manager::onDisable);
+            Exceptions.suppress(Main.getInstance(), respawnWriter::onDisable);
             Exceptions.suppress(Main.getInstance(), usedIdRepository::onDisable);
+            Exceptions.suppress(Main.getInstance(), forwarder::onDisable);
+            Exceptions.suppress(Main.getInstance(), identityIndex::onDisable);
+            Exceptions.suppress(Main.getInstance(), database::onDisable);
+            Exceptions.suppress(Main.getInstance(), storage::close);
         }
     }
 
@@ -7,6 +7,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerToggleSneakEvent;
 import org.jetbrains.annotations.NotNull;
 
@@ -20,6 +21,18 @@ public class PlayerListener implements Listener {
         this.manager = manager;
     }
 
+    /**
+     * 创建者加入时取回由控制台重建的假人
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(@NotNull PlayerJoinEvent event) {
+        var player = event.getPlayer();
+        if (manager.isFake(player)) {
+            return;
+        }
+        manager.adopt(player);
+    }
+
     /**
      * 玩家蹲伏时取消假人骑乘
      */
@@ -0,0 +1,52 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
+
+/**
+ * Timestamps of the latest auto-respawned deaths of a fake player, oldest ones are overwritten
+ * Fork enhancement for detecting respawn loops
+ */
+final class DeathHistory {
+
+    private final long[] times = new long[FakeplayerConfig.DEATH_HISTORY_SIZE];
+    private int next;
+
+    void add(long time) {
+        times[next] = time;
+        next = (next + 1) % times.length;
+    }
+
+    int countSince(long since) {
+        int count = 0;
+        for (long time : times) {
+            if (time != 0 && time >= since) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Work out the respawn delay of a death
+     * <p>The first death within the window waits {@code delaySeconds}, every further one doubles it, up to
+     * {@code maxDelaySeconds}. With a delay of 0 the backoff starts from 1 second</p>
+     *
+     * @param recent          deaths within the window, including this one
+     * @param delaySeconds    {@code auto-respawn.respawn-delay}
+     * @param maxDelaySeconds {@code auto-respawn.crash-loop.max-delay}
+     * @param maxDeaths       {@code auto-respawn.crash-loop.max-deaths}, 0 to never park
+     * @return delay in seconds, or -1 if the player should be parked
+     */
+    static int getDelay(int recent, int delaySeconds, int maxDelaySeconds, int maxDeaths) {
+        if (maxDeaths > 0 && recent >= maxDeaths) {
+            return -1;
+        }
+        if (recent <= 1) {
+            return delaySeconds;
+        }
+
+        long delay = (long) Math.max(delaySeconds, 1) << Math.min(recent - 1, 30);
+        return (int) Math.min(delay, Math.max(delaySeconds, maxDelaySeconds));
+    }
+
+}
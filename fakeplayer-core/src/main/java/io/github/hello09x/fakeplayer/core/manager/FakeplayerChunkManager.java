@@ -0,0 +1,279 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
+import io.github.hello09x.fakeplayer.core.manager.action.ActionManager;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+import java.util.logging.Logger;
+
+/**
+ * 统计假人加载的区块
+ * <p>在主线程中只记录每个假人和真实玩家所在的区块和视距, 计算重叠在异步线程中进行. 每个假人视为加载以所在区块为中心, 视距为半径的正方形区域</p>
+ * <p>找出可以移除的假人时只考虑没有执行任何行为的假人, 并且只把同一创建者的其他假人当作覆盖, 真实玩家随时可能离开, 其他创建者的假人也可能随时被移除.
+ * 按名称顺序依次检查, 移除一个假人后其区块的计数也随之减少, 因此两个互相重叠的假人不会被同时移除</p>
+ */
+@Singleton
+public class FakeplayerChunkManager {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    private final FakeplayerManager manager;
+
+    private final ActionManager actionManager;
+
+    private final FakeplayerConfig config;
+
+    private final FakeplayerSnapshotManager snapshotManager;
+
+    @Inject
+    public FakeplayerChunkManager(FakeplayerManager manager, ActionManager actionManager, FakeplayerConfig config, FakeplayerSnapshotManager snapshotManager) {
+        this.manager = manager;
+        this.actionManager = actionManager;
+        this.config = config;
+        this.snapshotManager = snapshotManager;
+
+        var interval = config.getChunkDedupeInterval();
+        Bukkit.getScheduler().runTaskTimer(Main.getInstance(), this::dedupe, interval, interval);
+    }
+
+    /**
+     * 统计所有假人加载的区块, 必须在主线程中调用
+     *
+     * @return 统计结果
+     */
+    public @NotNull CompletableFuture<ChunkReport> reportAsync() {
+        var bots = new ArrayList<Holder>();
+        var players = new ArrayList<Holder>();
+        for (var player : Bukkit.getOnlinePlayers()) {
+            if (manager.isFake(player)) {
+                bots.add(Holder.of(player, Objects.requireNonNullElse(manager.getCreatorName(player), "CONSOLE"), actionManager.getActiveActions(player).isEmpty()));
+            } else {
+                players.add(Holder.of(player, null, false));
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> compute(bots, players));
+    }
+
+    /**
+     * 移除不加载任何独有区块的空闲假人
+     */
+    private void dedupe() {
+        if (!config.isChunkDedupeEnabled() || manager.getSize() < 2) {
+            return;
+        }
+
+        this.reportAsync().thenAccept(report -> Bukkit.getScheduler().runTask(Main.getInstance(), () -> {
+            var removed = 0;
+            for (var holder : report.redundant()) {
+                var player = manager.get(holder.name());
+                // 统计之后移动到了其他区块
+                if (player == null || !holder.isAt(player)) {
+                    continue;
+                }
+                snapshotManager.delete(player.getUniqueId());
+                if (manager.remove(holder.name(), "redundant chunk loader")) {
+                    removed++;
+                }
+            }
+            if (removed > 0) {
+                log.info("Removed %d fake players that hold no unique chunks".formatted(removed));
+            }
+        }));
+    }
+
+    static @NotNull ChunkReport compute(@NotNull List<Holder> bots, @NotNull List<Holder> players) {
+        // 世界 -> 区块 -> [假人数量, 真实玩家数量]
+        var worlds = new HashMap<String, Map<Long, int[]>>();
+        for (var bot : bots) {
+            var chunks = worlds.computeIfAbsent(bot.world(), key -> new HashMap<>());
+            bot.forEachChunk(key -> chunks.computeIfAbsent(key, k -> new int[2])[0]++);
+        }
+        for (var player : players) {
+            var chunks = worlds.get(player.world());
+            if (chunks == null) {
+                continue;
+            }
+            player.forEachChunk(key -> {
+                var count = chunks.get(key);
+                if (count != null) {
+                    count[1]++;
+                }
+            });
+        }
+
+        var botStats = new ArrayList<BotStats>(bots.size());
+        var creators = new HashMap<String, CreatorStats>();
+        var held = 0;
+        for (var bot : bots) {
+            var chunks = worlds.get(bot.world());
+            var stats = new int[3];
+            bot.forEachChunk(key -> {
+                var count = chunks.get(key);
+                if (count[0] > 1) {
+                    stats[0]++;
+                }
+                if (count[1] > 0) {
+                    stats[1]++;
+                }
+                if (count[0] == 1 && count[1] == 0) {
+                    stats[2]++;
+                }
+            });
+            var total = bot.chunkCount();
+            held += total;
+            botStats.add(new BotStats(bot.name(), bot.creator(), total, stats[0], stats[1], stats[2]));
+            creators.merge(
+                    Objects.requireNonNull(bot.creator()),
+                    new CreatorStats(bot.creator(), 1, total, stats[2]),
+                    (a, b) -> new CreatorStats(a.creator(), a.bots() + b.bots(), a.held() + b.held(), a.unique() + b.unique())
+            );
+        }
+
+        // 创建者 -> 世界 -> 区块 -> 假人数量
+        var coverage = new HashMap<String, Map<String, Map<Long, int[]>>>();
+        for (var bot : bots) {
+            var chunks = coverage
+                    .computeIfAbsent(Objects.requireNonNull(bot.creator()), key -> new HashMap<>())
+                    .computeIfAbsent(bot.world(), key -> new HashMap<>());
+            bot.forEachChunk(key -> chunks.computeIfAbsent(key, k -> new int[1])[0]++);
+        }
+
+        var redundant = new ArrayList<Holder>();
+        var candidates = bots.stream().filter(Holder::idle).sorted(Comparator.comparing(Holder::name)).toList();
+        for (var bot : candidates) {
+            var chunks = coverage.get(bot.creator()).get(bot.world());
+            var covered = new boolean[]{true};
+            bot.forEachChunk(key -> covered[0] &= chunks.get(key)[0] > 1);
+            if (covered[0]) {
+                bot.forEachChunk(key -> chunks.get(key)[0]--);
+                redundant.add(bot);
+            }
+        }
+
+        var distinct = worlds.values().stream().mapToInt(Map::size).sum();
+        botStats.sort(Comparator.comparingInt(BotStats::unique).thenComparing(BotStats::name));
+        var creatorStats = new ArrayList<>(creators.values());
+        creatorStats.sort(Comparator.comparingInt(CreatorStats::held).reversed());
+        return new ChunkReport(botStats, creatorStats, held, distinct, redundant);
+    }
+
+    /**
+     * 某个时刻一名玩家所在的区块和视距
+     *
+     * @param creator 假人的创建者, 真实玩家为 {@code null}
+     * @param idle    是否没有执行任何行为
+     */
+    public record Holder(
+
+            @NotNull
+            String name,
+
+            @Nullable
+            String creator,
+
+            @NotNull
+            String world,
+
+            int x,
+
+            int z,
+
+            int radius,
+
+            boolean idle
+
+    ) {
+
+        private static @NotNull Holder of(@NotNull Player player, @Nullable String creator, boolean idle) {
+            var location = player.getLocation();
+            return new Holder(
+                    player.getName(),
+                    creator,
+                    player.getWorld().getName(),
+                    location.getBlockX() >> 4,
+                    location.getBlockZ() >> 4,
+                    player.getViewDistance(),
+                    idle
+            );
+        }
+
+        private boolean isAt(@NotNull Player player) {
+            var location = player.getLocation();
+            return player.getWorld().getName().equals(this.world)
+                    && location.getBlockX() >> 4 == this.x
+                    && location.getBlockZ() >> 4 == this.z;
+        }
+
+        private int chunkCount() {
+            var side = this.radius * 2 + 1;
+            return side * side;
+        }
+
+        private void forEachChunk(@NotNull LongConsumer action) {
+            for (int cx = this.x - this.radius; cx <= this.x + this.radius; cx++) {
+                for (int cz = this.z - this.radius; cz <= this.z + this.radius; cz++) {
+                    action.accept(((long) cx << 32) | (cz & 0xFFFFFFFFL));
+                }
+            }
+        }
+
+    }
+
+    /**
+     * @param held              加载的区块数量
+     * @param sharedWithBots    同时被其他假人加载的区块数量
+     * @param sharedWithPlayers 同时被真实玩家加载的区块数量
+     * @param unique            只被这个假人加载的区块数量
+     */
+    public record BotStats(
+            @NotNull String name,
+            @NotNull String creator,
+            int held,
+            int sharedWithBots,
+            int sharedWithPlayers,
+            int unique
+    ) {
+
+    }
+
+    /**
+     * @param bots   假人数量
+     * @param held   所有假人加载的区块数量之和
+     * @param unique 所有假人独有的区块数量之和
+     */
+    public record CreatorStats(
+            @NotNull String creator,
+            int bots,
+            int held,
+            int unique
+    ) {
+
+    }
+
+    /**
+     * @param bots      每个假人的统计, 按独有区块数量从少到多排列
+     * @param creators  每个创建者的统计, 按加载的区块数量从多到少排列
+     * @param held      所有假人加载的区块数量之和
+     * @param distinct  去重之后的区块数量
+     * @param redundant 可以移除而不会导致任何区块卸载的空闲假人, 其区块都被同一创建者的其他假人加载
+     */
+    public record ChunkReport(
+            @NotNull List<BotStats> bots,
+            @NotNull List<CreatorStats> creators,
+            int held,
+            int distinct,
+            @NotNull List<Holder> redundant
+    ) {
+
+    }
+
+}
@@ -3,19 +3,28 @@ package io.github.hello09x.fakeplayer.core.manager;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
+import io.github.hello09x.fakeplayer.core.manager.metrics.FakeplayerDeathAnalysisEvent;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.entity.Enemy;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.entity.TNTPrimed;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 /**
  * Smart Auto-Respawn Death Tracker
@@ -26,6 +35,8 @@ public class FakeplayerDeathTracker {
 
     private final static Logger log = Logger.getLogger(FakeplayerDeathTracker.class.getName());
 
+    private final static boolean DAMAGE_SOURCE_SUPPORTED = isDamageSourceSupported();
+
     public enum DeathReason {
         HOSTILE_MOB,     // Killed by hostile mob
         ENVIRONMENT,     // Environmental death (fall, lava, drowning)
@@ -34,6 +45,37 @@ public class FakeplayerDeathTracker {
         UNKNOWN          // Unknown cause
     }
 
+    private final static Set<EntityDamageEvent.DamageCause> ENVIRONMENTAL_CAUSES = EnumSet.of(
+            EntityDamageEvent.DamageCause.FALL,
+            EntityDamageEvent.DamageCause.FIRE,
+            EntityDamageEvent.DamageCause.FIRE_TICK,
+            EntityDamageEvent.DamageCause.LAVA,
+            EntityDamageEvent.DamageCause.DROWNING,
+            EntityDamageEvent.DamageCause.SUFFOCATION,
+            EntityDamageEvent.DamageCause.STARVATION,
+            EntityDamageEvent.DamageCause.VOID,
+            EntityDamageEvent.DamageCause.LIGHTNING,
+            EntityDamageEvent.DamageCause.FREEZE,
+            EntityDamageEvent.DamageCause.FALLING_BLOCK,
+            EntityDamageEvent.DamageCause.FLY_INTO_WALL,
+            EntityDamageEvent.DamageCause.HOT_FLOOR,
+            EntityDamageEvent.DamageCause.CRAMMING,
+            EntityDamageEvent.DamageCause.DRYOUT
+    );
+
+    private final static Pattern HOSTILE_DEATH_MESSAGE = Pattern.compile(
+            "was (?:slain|shot|fireballed|killed) by (?:Zombie|Skeleton|Spider|Cave Spider|Creeper|Enderman|" +
+            "Witch|Pillager|Vindicator|Evoker|Ravager|Phantom|" +
+            "Drowned|Husk|Stray|Wither Skeleton|Blaze|Ghast|Magma Cube|" +
+            "Silverfish|Endermite|Guardian|Elder Guardian|Shulker|Vex|" +
+            "Piglin|Piglin Brute|Hoglin|Zoglin|Warden)"
+    );
+
+    private final static Pattern ENVIRONMENTAL_DEATH_MESSAGE = Pattern.compile(
+            "drowned|fell|burned to death|suffocated|starved|froze to death|lava|hit the ground|" +
+            "withered away|was pricked to death|walked into fire|was struck by lightning"
+    );
+
     // Track death info for each player
     private final Map<UUID, DeathInfo> deathTracker = new ConcurrentHashMap<>();
     private final Map<UUID, Long> cooldowns = new ConcurrentHashMap<>();
@@ -54,10 +96,25 @@ public class FakeplayerDeathTracker {
 
     /**
      * Analyze death event and determine the cause
+     * <p>The cause is taken from the damage source: environmental damage causes first, then the entity that
+     * caused the death. The death message is only parsed as a last resort when
+     * {@code auto-respawn.death-message-fallback} is enabled</p>
      */
     public DeathReason analyzeDeathReason(@NotNull PlayerDeathEvent event) {
+        var jfr = new FakeplayerDeathAnalysisEvent();
+        jfr.begin();
+        var reason = this.classify(event);
+        jfr.end();
+        if (jfr.shouldCommit()) {
+            jfr.name = event.getEntity().getName();
+            jfr.reason = reason.name();
+            jfr.commit();
+        }
+        return reason;
+    }
+
+    private @NotNull DeathReason classify(@NotNull PlayerDeathEvent event) {
         Player player = event.getEntity();
-        Component deathMessage = event.deathMessage();
 
         // Check if already marked as command kill
         DeathInfo existing = deathTracker.get(player.getUniqueId());
@@ -66,105 +123,75 @@ public class FakeplayerDeathTracker {
             return DeathReason.COMMAND;
         }
 
-        // Get death message as plain text
-        String deathText = "";
-        if (deathMessage != null) {
-            deathText = PlainTextComponentSerializer.plainText().serialize(deathMessage);
-        }
-
-        // Check last damage cause
+        // Environmental causes
         EntityDamageEvent lastDamage = player.getLastDamageCause();
-        if (lastDamage != null) {
-            EntityDamageEvent.DamageCause cause = lastDamage.getCause();
-
-            // Environmental causes
-            if (isEnvironmentalCause(cause)) {
-                return DeathReason.ENVIRONMENT;
-            }
-
-            // Entity damage - check if hostile mob
-            if (cause == EntityDamageEvent.DamageCause.ENTITY_ATTACK ||
-                cause == EntityDamageEvent.DamageCause.ENTITY_EXPLOSION ||
-                cause == EntityDamageEvent.DamageCause.ENTITY_SWEEP_ATTACK) {
-
-                if (isHostileMobDeath(deathText)) {
-                    return DeathReason.HOSTILE_MOB;
-                }
-
-                // Check if killed by player
-                if (deathText.contains("was slain by") && !isHostileMobDeath(deathText)) {
-                    return DeathReason.PLAYER;
-                }
-            }
+        if (lastDamage != null && ENVIRONMENTAL_CAUSES.contains(lastDamage.getCause())) {
+            return DeathReason.ENVIRONMENT;
         }
 
-        // Fallback to text analysis
-        if (isHostileMobDeath(deathText)) {
+        // The entity responsible for the death, e.g. the skeleton rather than its arrow
+        Entity killer = getCausingEntity(event);
+        if (killer instanceof Player) {
+            return DeathReason.PLAYER;
+        }
+        if (killer instanceof Enemy) {
             return DeathReason.HOSTILE_MOB;
         }
 
-        if (isEnvironmentalDeath(deathText)) {
-            return DeathReason.ENVIRONMENT;
+        if (config.isRespawnDeathMessageFallback()) {
+            return analyzeDeathMessage(event.deathMessage());
         }
 
         return DeathReason.UNKNOWN;
     }
 
     /**
-     * Check if death was caused by hostile mob based on death message
+     * The entity that caused the death
+     * <p>{@code getDamageSource()} only exists since 1.20.4, older servers resolve it from the last damage event</p>
      */
-    private boolean isHostileMobDeath(@NotNull String deathMessage) {
-        String hostileMobs = "Zombie|Skeleton|Spider|Cave Spider|Creeper|Enderman|" +
-                            "Witch|Pillager|Vindicator|Evoker|Ravager|Phantom|" +
-                            "Drowned|Husk|Stray|Wither Skeleton|Blaze|Ghast|Magma Cube|" +
-                            "Silverfish|Endermite|Guardian|Elder Guardian|Shulker|Vex|" +
-                            "Piglin|Piglin Brute|Hoglin|Zoglin|Warden";
-
-        return deathMessage.matches(".*was slain by (" + hostileMobs + ").*") ||
-               deathMessage.matches(".*was shot by (" + hostileMobs + ").*") ||
-               deathMessage.matches(".*was fireballed by (" + hostileMobs + ").*") ||
-               deathMessage.matches(".*was killed by (" + hostileMobs + ").*");
+    private static @Nullable Entity getCausingEntity(@NotNull PlayerDeathEvent event) {
+        if (DAMAGE_SOURCE_SUPPORTED) {
+            return event.getDamageSource().getCausingEntity();
+        }
+
+        if (!(event.getEntity().getLastDamageCause() instanceof EntityDamageByEntityEvent damage)) {
+            return null;
+        }
+        var damager = damage.getDamager();
+        if (damager instanceof Projectile projectile) {
+            return projectile.getShooter() instanceof Entity shooter ? shooter : null;
+        }
+        if (damager instanceof TNTPrimed tnt) {
+            return tnt.getSource();
+        }
+        return damager;
     }
 
-    /**
-     * Check if death was environmental
-     */
-    private boolean isEnvironmentalDeath(@NotNull String deathMessage) {
-        return deathMessage.contains("drowned") ||
-               deathMessage.contains("fell") ||
-               deathMessage.contains("burned to death") ||
-               deathMessage.contains("suffocated") ||
-               deathMessage.contains("starved") ||
-               deathMessage.contains("froze to death") ||
-               deathMessage.contains("lava") ||
-               deathMessage.contains("hit the ground") ||
-               deathMessage.contains("fell out of the world") ||
-               deathMessage.contains("withered away") ||
-               deathMessage.contains("was pricked to death") ||
-               deathMessage.contains("walked into fire") ||
-               deathMessage.contains("was struck by lightning") ||
-               deathMessage.contains("discovered the floor was lava");
+    private static boolean isDamageSourceSupported() {
+        try {
+            EntityDeathEvent.class.getMethod("getDamageSource");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
     }
 
     /**
-     * Check if damage cause is environmental
+     * Fallback for deaths the damage source can not explain, only works with English death messages
      */
-    private boolean isEnvironmentalCause(@NotNull EntityDamageEvent.DamageCause cause) {
-        return cause == EntityDamageEvent.DamageCause.FALL ||
-               cause == EntityDamageEvent.DamageCause.FIRE ||
-               cause == EntityDamageEvent.DamageCause.FIRE_TICK ||
-               cause == EntityDamageEvent.DamageCause.LAVA ||
-               cause == EntityDamageEvent.DamageCause.DROWNING ||
-               cause == EntityDamageEvent.DamageCause.SUFFOCATION ||
-               cause == EntityDamageEvent.DamageCause.STARVATION ||
-               cause == EntityDamageEvent.DamageCause.VOID ||
-               cause == EntityDamageEvent.DamageCause.LIGHTNING ||
-               cause == EntityDamageEvent.DamageCause.FREEZE ||
-               cause == EntityDamageEvent.DamageCause.FALLING_BLOCK ||
-               cause == EntityDamageEvent.DamageCause.FLY_INTO_WALL ||
-               cause == EntityDamageEvent.DamageCause.HOT_FLOOR ||
-               cause == EntityDamageEvent.DamageCause.CRAMMING ||
-               cause == EntityDamageEvent.DamageCause.DRYOUT;
+    private @NotNull DeathReason analyzeDeathMessage(@Nullable Component deathMessage) {
+        if (deathMessage == null) {
+            return DeathReason.UNKNOWN;
+        }
+
+        String deathText = PlainTextComponentSerializer.plainText().serialize(deathMessage);
+        if (HOSTILE_DEATH_MESSAGE.matcher(deathText).find()) {
+            return DeathReason.HOSTILE_MOB;
+        }
+        if (ENVIRONMENTAL_DEATH_MESSAGE.matcher(deathText).find()) {
+            return DeathReason.ENVIRONMENT;
+        }
+        return DeathReason.UNKNOWN;
     }
 
     /**
@@ -11,10 +11,16 @@ import io.github.hello09x.fakeplayer.api.spi.NMSBridge;
 import io.github.hello09x.fakeplayer.core.Main;
 import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
 import io.github.hello09x.fakeplayer.core.constant.MetadataKeys;
+import io.github.hello09x.fakeplayer.core.entity.BatchSpawnResult;
 import io.github.hello09x.fakeplayer.core.entity.Fakeplayer;
 import io.github.hello09x.fakeplayer.core.entity.SpawnOption;
 import io.github.hello09x.fakeplayer.core.manager.feature.FakeplayerFeatureManager;
+import io.github.hello09x.fakeplayer.core.manager.feature.FeatureInstance;
+import io.github.hello09x.fakeplayer.core.manager.metrics.FakeplayerMetrics;
+import io.github.hello09x.fakeplayer.core.manager.naming.IdentityIndex;
 import io.github.hello09x.fakeplayer.core.manager.naming.NameManager;
+import io.github.hello09x.fakeplayer.core.manager.naming.SequenceName;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerCreator;
 import io.github.hello09x.fakeplayer.core.repository.model.Feature;
 import io.github.hello09x.fakeplayer.core.util.AddressUtils;
 import io.github.hello09x.fakeplayer.core.util.Commands;
@@ -28,11 +34,14 @@ import org.bukkit.metadata.MetadataValue;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -41,6 +50,7 @@ import java.util.logging.Logger;
 
 import static net.kyori.adventure.text.Component.*;
 import static net.kyori.adventure.text.format.NamedTextColor.GRAY;
+import static net.kyori.adventure.text.format.NamedTextColor.WHITE;
 import static net.kyori.adventure.text.format.TextDecoration.ITALIC;
 
 @Singleton
@@ -53,23 +63,33 @@ public class FakeplayerManager {
     private final NameManager nameManager;
     private final FakeplayerList playerList;
     private final FakeplayerFeatureManager featureManager;
+    private final FakeplayerSkinManager skinManager;
     private final NMSBridge nms;
     private final FakeplayerConfig config;
+    private final FakeplayerSpawnPipeline spawnPipeline;
+    private final IdentityIndex identityIndex;
+    private final FakeplayerMetrics metrics;
     private final ScheduledExecutorService lagMonitor;
 
     @Inject
-    public FakeplayerManager(NameManager nameManager, FakeplayerList playerList, FakeplayerFeatureManager featureManager, NMSBridge nms, FakeplayerConfig config) {
+    public FakeplayerManager(NameManager nameManager, FakeplayerList playerList, FakeplayerFeatureManager featureManager, FakeplayerSkinManager skinManager, NMSBridge nms, FakeplayerConfig config, FakeplayerSpawnPipeline spawnPipeline, IdentityIndex identityIndex, FakeplayerMetrics metrics) {
         this.nameManager = nameManager;
         this.playerList = playerList;
         this.featureManager = featureManager;
+        this.skinManager = skinManager;
         this.nms = nms;
         this.config = config;
+        this.spawnPipeline = spawnPipeline;
+        this.identityIndex = identityIndex;
+        this.metrics = metrics;
 
         this.lagMonitor = Executors.newSingleThreadScheduledExecutor();
         this.lagMonitor.scheduleWithFixedDelay(() -> {
                                                    if (Bukkit.getServer().getTPS()[1] < config.getKaleTps()) {
                                                        Bukkit.getScheduler().runTask(Main.getInstance(), () -> {
-                                                           if (this.removeAll("low tps") > 0) {
+                                                           var removed = this.removeAll("low tps");
+                                                           if (removed > 0) {
+                                                               metrics.recordLoadShed(removed);
                                                                Bukkit.broadcast(translatable("fakeplayer.manager.remove-all-on-low-tps", GRAY, ITALIC));
                                                            }
                                                        });
@@ -93,6 +113,63 @@ public class FakeplayerManager {
         this.checkLimit(creator);
 
         var sn = name == null ? nameManager.getRegularName(creator) : nameManager.getSpecifiedName(name);
+        var fp = this.create(creator, sn, lifespan);
+        var target = fp.getPlayer();    // 即使出现异常也不需要处理这个玩家, 最终会被 GC 掉
+        return CompletableFuture
+                .supplyAsync(() -> this.getSpawnOption(creator, spawnAt))
+                .thenCompose(option -> spawnPipeline.spawnAsync(fp, option))
+                .thenApply(ignored -> target);
+    }
+
+    /**
+     * 批量创建假人
+     * <p>名称和 UUID 一次性分配, 登陆前事件并行执行, 放置到世界中的操作按每 tick 的预算分摊</p>
+     *
+     * @param creator  创建者
+     * @param count    数量, 超出限制的部分不会生成
+     * @param spawnAt  生成地点
+     * @param lifespan 存活时间
+     * @return 汇总结果
+     */
+    public @NotNull CompletableFuture<BatchSpawnResult> spawnBatchAsync(
+            @NotNull CommandSender creator,
+            int count,
+            @NotNull Location spawnAt,
+            long lifespan
+    ) {
+        var quota = this.getSpawnQuota(creator, count);
+        var fps = nameManager
+                .getRegularNames(creator, quota)
+                .stream()
+                .map(sn -> this.create(creator, sn, lifespan))
+                .toList();
+
+        return CompletableFuture
+                .supplyAsync(() -> this.getSpawnOption(creator, spawnAt))
+                .thenCompose(option -> {
+                    var spawned = new ConcurrentLinkedQueue<Player>();
+                    var failures = new ConcurrentLinkedQueue<Throwable>();
+                    var futures = fps
+                            .stream()
+                            .map(fp -> spawnPipeline.spawnAsync(fp, option).whenComplete((ignored, e) -> {
+                                if (e == null) {
+                                    spawned.add(fp.getPlayer());
+                                } else {
+                                    failures.add(e);
+                                }
+                            }))
+                            .toArray(CompletableFuture[]::new);
+
+                    return CompletableFuture
+                            .allOf(futures)
+                            .handle((ignored, e) -> new BatchSpawnResult(count, List.copyOf(spawned), List.copyOf(failures)));
+                });
+    }
+
+    /**
+     * 创建假人实例并登记到假人清单, 此时假人尚未登陆
+     */
+    private @NotNull Fakeplayer create(@NotNull CommandSender creator, @NotNull SequenceName sn, long lifespan) {
         log.info("UUID of fake player %s is %s".formatted(sn.name(), sn.uuid()));
 
         var fp = new Fakeplayer(
@@ -102,27 +179,116 @@ public class FakeplayerManager {
                 lifespan
         );
 
-        var target = fp.getPlayer();    // 即使出现异常也不需要处理这个玩家, 最终会被 GC 掉
         this.playerList.add(fp);
-
+        if (creator instanceof Player p) {
+            this.identityIndex.setCreator(sn.uuid(), new FakePlayerCreator(p.getUniqueId(), p.getName()));
+        }
         this.dispatchCommandsEarly(fp, this.config.getPreSpawnCommands());
-        return CompletableFuture
-                .supplyAsync(() -> {
-                    var configs = featureManager.getFeatures(creator);
-                    return new SpawnOption(
-                            spawnAt,
-                            configs.get(Feature.invulnerable).asBoolean(),
-                            configs.get(Feature.collidable).asBoolean(),
-                            configs.get(Feature.look_at_entity).asBoolean(),
-                            configs.get(Feature.pickup_items).asBoolean(),
-                            configs.get(Feature.skin).asBoolean(),
-                            configs.get(Feature.replenish).asBoolean(),
-                            configs.get(Feature.autofish).asBoolean(),
-                            configs.get(Feature.wolverine).asBoolean()
-                    );
-                })
-                .thenComposeAsync(fp::spawnAsync)
-                .thenApply(ignored -> target);
+        return fp;
+    }
+
+    /**
+     * 将创建者不在线时由控制台重建的假人交还给创建者
+     * <p>超出创建者数量上限的假人仍然归属于控制台. 创建者的特性配置在异步读取后回到主线程应用到交还的假人上</p>
+     *
+     * @param creator 创建者
+     * @return 交还的数量
+     */
+    public int adopt(@NotNull Player creator) {
+        var quota = this.getAdoptQuota(creator);
+        var adopted = new ArrayList<Player>();
+        var exceeded = 0;
+        for (var uuid : this.identityIndex.getCreatedBy(creator.getUniqueId())) {
+            var fp = this.playerList.getByUUID(uuid);
+            if (fp == null || fp.getCreator() instanceof Player) {
+                continue;
+            }
+            if (adopted.size() >= quota) {
+                exceeded++;
+                continue;
+            }
+
+            this.playerList.remove(fp);
+            fp.adopt(creator);
+            this.playerList.add(fp);
+            adopted.add(fp.getPlayer());
+        }
+
+        if (exceeded > 0) {
+            creator.sendMessage(translatable(
+                    "fakeplayer.manager.adopt.exceed-limit",
+                    text(exceeded, WHITE)
+            ).color(GRAY));
+        }
+
+        if (!adopted.isEmpty()) {
+            CompletableFuture
+                    .supplyAsync(() -> this.featureManager.getFeatures(creator))
+                    .thenAccept(features -> Bukkit.getScheduler().runTask(Main.getInstance(), () -> {
+                        for (var player : adopted) {
+                            if (player.isOnline()) {
+                                this.applyFeatures(creator, player, features);
+                            }
+                        }
+                    }))
+                    .exceptionally(e -> {
+                        log.warning("Failed to apply features of %s to adopted fake players: %s".formatted(creator.getName(), e.getMessage()));
+                        return null;
+                    });
+        }
+        return adopted.size();
+    }
+
+    /**
+     * 计算创建者还能取回多少个假人
+     *
+     * @param creator 创建者
+     * @return 数量
+     */
+    private int getAdoptQuota(@NotNull Player creator) {
+        if (creator.isOp()) {
+            return Integer.MAX_VALUE;
+        }
+
+        var quota = this.config.getPlayerLimit() - this.playerList.getByCreator(creator.getName()).size();
+        if (this.config.isDetectIp()) {
+            quota = (int) Math.min(quota, this.config.getPlayerLimit() - this.countByAddress(AddressUtils.getAddress(creator)));
+        }
+        return Math.max(0, quota);
+    }
+
+    /**
+     * 将创建者的特性配置应用到已经生成的假人上, 必须在主线程调用
+     *
+     * @param creator  创建者
+     * @param player   假人
+     * @param features 特性配置
+     */
+    private void applyFeatures(@NotNull Player creator, @NotNull Player player, @NotNull Map<Feature, FeatureInstance> features) {
+        for (var feature : features.values()) {
+            var modifier = feature.key().getModifier();
+            if (modifier != null) {
+                modifier.accept(player, feature.value());
+            }
+        }
+        if (features.get(Feature.skin).asBoolean()) {
+            this.skinManager.useDefaultSkin(creator, player);
+        }
+    }
+
+    private @NotNull SpawnOption getSpawnOption(@NotNull CommandSender creator, @NotNull Location spawnAt) {
+        var configs = featureManager.getFeatures(creator);
+        return new SpawnOption(
+                spawnAt,
+                configs.get(Feature.invulnerable).asBoolean(),
+                configs.get(Feature.collidable).asBoolean(),
+                configs.get(Feature.look_at_entity).asBoolean(),
+                configs.get(Feature.pickup_items).asBoolean(),
+                configs.get(Feature.skin).asBoolean(),
+                configs.get(Feature.replenish).asBoolean(),
+                configs.get(Feature.autofish).asBoolean(),
+                configs.get(Feature.wolverine).asBoolean()
+        );
     }
 
     /**
@@ -230,6 +396,21 @@ public class FakeplayerManager {
         return targets.size();
     }
 
+    /**
+     * 移除创建者的所有假人
+     *
+     * @param creator 创建者名称
+     * @param reason  原因
+     * @return 移除的假人数量
+     */
+    public int removeByCreator(@NotNull String creator, @Nullable String reason) {
+        var targets = List.copyOf(this.playerList.getByCreator(creator));
+        for (var target : targets) {
+            target.getPlayer().kick(text(REMOVAL_REASON_PREFIX + (reason == null ? "removed" : reason)));
+        }
+        return targets.size();
+    }
+
     /**
      * @return 获取所有假人
      */
@@ -462,6 +643,28 @@ public class FakeplayerManager {
         }
     }
 
+    /**
+     * 计算本次最多还能创建多少个假人
+     *
+     * @param creator 创建者
+     * @param count   期望的数量
+     * @return 实际可以创建的数量, 至少为 1
+     * @throws CommandException 一个都不能创建时
+     */
+    private int getSpawnQuota(@NotNull CommandSender creator, int count) throws CommandException {
+        this.checkLimit(creator);
+        if (creator.isOp()) {
+            return count;
+        }
+
+        var quota = Math.min(count, this.config.getServerLimit() - this.playerList.getSize());
+        quota = Math.min(quota, this.config.getPlayerLimit() - this.playerList.getByCreator(creator.getName()).size());
+        if (this.config.isDetectIp()) {
+            quota = (int) Math.min(quota, this.config.getPlayerLimit() - this.countByAddress(AddressUtils.getAddress(creator)));
+        }
+        return Math.max(1, quota);
+    }
+
     /**
      * 检测限制, 不满足条件则抛出异常
      *
@@ -486,6 +689,7 @@ public class FakeplayerManager {
     }
 
     public void onDisable() {
+        Exceptions.suppress(Main.getInstance(), spawnPipeline::onDisable);
         Exceptions.suppress(Main.getInstance(), () -> this.removeAll("Plugin disabled"));
         Exceptions.suppress(Main.getInstance(), this.lagMonitor::shutdownNow);
     }
@@ -2,17 +2,35 @@ package io.github.hello09x.fakeplayer.core.manager;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import io.github.hello09x.devtools.core.utils.SchedulerUtils;
+import io.github.hello09x.fakeplayer.api.spi.NMSBridge;
 import io.github.hello09x.fakeplayer.core.Main;
 import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
-import io.github.hello09x.fakeplayer.core.repository.FakeplayerProfileRepository;
+import io.github.hello09x.fakeplayer.core.entity.FakeplayerSnapshot;
+import io.github.hello09x.fakeplayer.core.manager.action.ActionManager;
+import io.github.hello09x.fakeplayer.core.manager.naming.IdentityIndex;
+import io.github.hello09x.fakeplayer.core.repository.DatabaseExecutor;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerCreator;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerRespawnData;
+import io.github.hello09x.fakeplayer.core.repository.storage.FakeplayerStorage;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 import static net.kyori.adventure.text.Component.text;
@@ -28,95 +46,210 @@ public class FakeplayerRespawnManager {
 
     private final static Logger log = Main.getInstance().getLogger();
 
+    /**
+     * How often the restore task checks whether the next wave can start
+     */
+    private final static long RESTORE_INTERVAL_TICKS = 5;
+
     private final FakeplayerManager manager;
-    private final FakeplayerProfileRepository profileRepository;
+    private final FakeplayerStorage storage;
     private final FakeplayerConfig config;
     private final FakeplayerDeathTracker deathTracker;
+    private final FakeplayerSnapshotManager snapshotManager;
+    private final FakeplayerRespawnWriter respawnWriter;
+    private final DatabaseExecutor database;
+    private final NMSBridge bridge;
+    private final FakeplayerTeleporter teleporter;
+    private final ActionManager actionManager;
+    private final IdentityIndex identityIndex;
+
+    /**
+     * Recent auto-respawned deaths per online player, used to detect respawn loops. Dropped when the player quits
+     */
+    private final Map<UUID, DeathHistory> deathHistories = new HashMap<>();
 
     @Inject
     public FakeplayerRespawnManager(
             FakeplayerManager manager,
-            FakeplayerProfileRepository profileRepository,
+            FakeplayerStorage storage,
             FakeplayerConfig config,
-            FakeplayerDeathTracker deathTracker
+            FakeplayerDeathTracker deathTracker,
+            FakeplayerSnapshotManager snapshotManager,
+            FakeplayerRespawnWriter respawnWriter,
+            DatabaseExecutor database,
+            NMSBridge bridge,
+            FakeplayerTeleporter teleporter,
+            ActionManager actionManager,
+            IdentityIndex identityIndex
     ) {
         this.manager = manager;
-        this.profileRepository = profileRepository;
+        this.storage = storage;
         this.config = config;
         this.deathTracker = deathTracker;
+        this.snapshotManager = snapshotManager;
+        this.respawnWriter = respawnWriter;
+        this.database = database;
+        this.bridge = bridge;
+        this.teleporter = teleporter;
+        this.actionManager = actionManager;
+        this.identityIndex = identityIndex;
     }
 
     /**
-     * Schedule a respawn for a fake player after the configured delay
+     * Record a death that is about to be auto-respawned and work out the respawn delay
+     * <p>Every death within {@code auto-respawn.crash-loop.window} doubles the delay, up to
+     * {@code auto-respawn.crash-loop.max-delay}. Once a player has died {@code auto-respawn.crash-loop.max-deaths}
+     * times within the window it is parked: its respawn flag is cleared, so it is not auto-respawned again, not even
+     * after a restart, until it is respawned manually with {@code /fp respawn}</p>
+     *
+     * @return delay in seconds, or -1 if the player should be parked
      */
-    public void scheduleRespawn(@NotNull String playerName, @NotNull UUID playerUuid,
-                                @NotNull FakeplayerDeathTracker.DeathReason reason) {
-        if (!config.isAutoRespawn()) {
-            return;
+    public int recordDeath(@NotNull Player player) {
+        var playerUuid = player.getUniqueId();
+        long now = System.currentTimeMillis();
+        var history = deathHistories.computeIfAbsent(playerUuid, x -> new DeathHistory());
+        history.add(now);
+
+        int recent = history.countSince(now - config.getCrashLoopWindowSeconds() * 1000L);
+        int delay = DeathHistory.getDelay(recent, config.getRespawnDelaySeconds(), config.getCrashLoopMaxDelaySeconds(), config.getCrashLoopMaxDeaths());
+        if (delay < 0) {
+            deathHistories.remove(playerUuid);
+            log.warning(String.format("%s died %d times within %d seconds, parking it instead of respawning",
+                    player.getName(), recent, config.getCrashLoopWindowSeconds()));
         }
+        return delay;
+    }
 
-        int delayTicks = config.getRespawnDelaySeconds() * 20;
+    /**
+     * Forget the deaths of a player that left the server
+     */
+    public void forgetDeaths(@NotNull UUID playerUuid) {
+        deathHistories.remove(playerUuid);
+    }
+
+    /**
+     * Revive a dead fake player in place after a delay
+     * <p>The player never leaves the server: it is respawned like a real player would be, moved back to where it
+     * died and its actions are re-applied. This skips name allocation, login, skin loading and world placement
+     * of a full respawn. If the player was removed in the meantime, it is restored from its respawn data on the
+     * next startup instead</p>
+     *
+     * @param player       the dead fake player
+     * @param reason       why the player died, only logged
+     * @param delaySeconds the delay returned by {@link #recordDeath(Player)}
+     */
+    public void scheduleRevive(@NotNull Player player, @NotNull FakeplayerDeathTracker.DeathReason reason, int delaySeconds) {
+        var playerUuid = player.getUniqueId();
+        var location = player.getLocation();
+        // Actions are dropped by the action manager once the player is dead, keep a copy to re-apply them
+        var actions = actionManager.getActionSettings(player);
 
-        log.info(String.format("Scheduling respawn for %s in %d seconds (reason: %s)",
-                playerName, config.getRespawnDelaySeconds(), reason));
+        log.info(String.format("Scheduling revive for %s in %d seconds (reason: %s)",
+                player.getName(), delaySeconds, reason));
 
         Bukkit.getScheduler().runTaskLater(Main.getInstance(), () -> {
-            respawnPlayer(playerName, playerUuid);
-        }, delayTicks);
+            if (!player.isOnline()) {
+                return;
+            }
+
+            if (player.isDead()) {
+                bridge.fromPlayer(player).respawn();
+            }
+            if (player.isDead()) {
+                log.warning(String.format("Failed to revive %s, falling back to a full respawn", player.getName()));
+                manager.remove(player.getName(), "failed to revive");
+                respawnPlayer(player.getName(), playerUuid);
+                return;
+            }
+
+            teleporter.teleport(player, location).thenAccept(success -> {
+                if (!player.isOnline()) {
+                    return;
+                }
+
+                actions.forEach((action, setting) -> actionManager.setAction(player, action, setting));
+                deathTracker.clearDeathData(playerUuid);
+                respawnWriter.saveLastLocation(playerUuid, player.getLocation(), true);
+                log.info(String.format("Successfully revived %s", player.getName()));
+
+                var creator = manager.getCreator(player);
+                if (creator != null) {
+                    creator.sendMessage(translatable(
+                            "fakeplayer.respawn.success.auto",
+                            text(player.getName(), GOLD)
+                    ).color(GREEN));
+                }
+            });
+        }, delaySeconds * 20L);
     }
 
     /**
      * Immediately respawn a fake player at their last location
      */
     public void respawnPlayer(@NotNull String playerName, @NotNull UUID playerUuid) {
-        try {
-            // Get the last saved location
-            Location lastLocation = profileRepository.getLastLocation(playerUuid);
-
-            // Find the original creator (if online)
-            Player creator = findOriginalCreator(playerName);
-            CommandSender spawner = creator != null ? creator : Bukkit.getConsoleSender();
-
+        // Get the last saved location off the main thread, then spawn on the main thread
+        respawnWriter.getLastLocationAsync(playerUuid).thenCompose(lastLocation -> SchedulerUtils.runTask(Main.getInstance(), () -> {
             log.info(String.format("Respawning %s at %s",
                     playerName, lastLocation != null ? formatLocation(lastLocation) : "spawn"));
 
-            // Determine spawn location
-            Location spawnLocation = lastLocation != null ? lastLocation : spawner.getServer().getWorlds().get(0).getSpawnLocation();
-
-            // Spawn the player with no lifespan limit (0 = permanent)
-            var result = manager.spawnAsync(spawner, playerName, spawnLocation, 0L);
-
-            result.thenAccept(player -> {
-                if (player != null) {
-                    // No need to teleport again since we spawned at the right location
-
-                    // Clear death tracking data
-                    deathTracker.clearDeathData(playerUuid);
-                    profileRepository.clearRespawnData(playerUuid);
+            return respawn(playerName, playerUuid, lastLocation);
+        })).thenCompose(Function.identity()).thenAccept(player -> {
+            log.info(String.format("Successfully respawned %s", playerName));
+        }).exceptionally(ex -> {
+            log.warning(String.format("Failed to respawn %s: %s", playerName, ex.getMessage()));
+            return null;
+        });
+    }
 
-                    // Notify creator if online
-                    if (creator != null) {
-                        creator.sendMessage(translatable(
-                                "fakeplayer.respawn.success.auto",
-                                text(playerName, GOLD)
-                        ).color(GREEN));
-                    }
+    /**
+     * Spawn a fake player through the batch spawn pipeline and clear its respawn data once it is back
+     * <p>If a snapshot was saved for this player, its remaining lifespan, features and actions are restored as well</p>
+     * <p>The creator comes from the identity index. If they are offline the player is spawned by the console and
+     * handed back to them when they join</p>
+     *
+     * @param location where to spawn, or {@code null} for the spawn location of the default world
+     */
+    private @NotNull CompletableFuture<Player> respawn(@NotNull String playerName, @NotNull UUID playerUuid, @Nullable Location location) {
+        var snapshot = snapshotManager.read(playerUuid).orElse(null);
+
+        // Find the original creator (if online)
+        Player creator = Optional.ofNullable(identityIndex.getCreator(playerUuid))
+                                 .map(FakePlayerCreator::uuid)
+                                 .or(() -> Optional.ofNullable(snapshot).map(FakeplayerSnapshot::creatorUUID))
+                                 .map(Bukkit::getPlayer)
+                                 .orElse(null);
+        CommandSender spawner = creator != null ? creator : Bukkit.getConsoleSender();
+
+        // Determine spawn location
+        Location spawnLocation = location != null ? location : spawner.getServer().getWorlds().get(0).getSpawnLocation();
+
+        // Spawn the player with the remaining lifespan from the snapshot, or no lifespan limit (0 = permanent)
+        long lifespan = snapshot != null ? snapshot.remainingLifespan() : 0L;
+        return manager.spawnAsync(spawner, playerName, spawnLocation, lifespan).thenApply(player -> {
+            if (snapshot != null) {
+                snapshotManager.apply(player, snapshot);
+            }
 
-                    log.info(String.format("Successfully respawned %s", playerName));
-                }
-            }).exceptionally(ex -> {
-                log.warning(String.format("Failed to respawn %s: %s", playerName, ex.getMessage()));
-                return null;
-            });
+            // Clear death tracking data
+            deathTracker.clearDeathData(playerUuid);
+            respawnWriter.clear(playerUuid);
 
-        } catch (Exception e) {
-            log.severe(String.format("Error respawning %s: %s", playerName, e.getMessage()));
-            e.printStackTrace();
-        }
+            // Notify creator if online
+            if (creator != null) {
+                creator.sendMessage(translatable(
+                        "fakeplayer.respawn.success.auto",
+                        text(playerName, GOLD)
+                ).color(GREEN));
+            }
+            return player;
+        });
     }
 
     /**
      * Respawn all eligible offline players on server startup
+     * <p>All respawn rows are loaded with a single query, then restored in waves. Each wave is sized by the
+     * MSPT headroom left below {@code auto-respawn.restore.target-mspt}, and the next wave only starts once the
+     * previous one is in the world</p>
      */
     public void respawnOfflinePlayers() {
         if (!config.isAutoRespawn()) {
@@ -125,51 +258,113 @@ public class FakeplayerRespawnManager {
 
         log.info("Checking for fake players to auto-respawn...");
 
-        var playersToRespawn = profileRepository.getAllPlayersWithRespawnData();
+        database.read(storage::getAllPlayersWithRespawnData).thenCompose(playersToRespawn -> SchedulerUtils.runTask(Main.getInstance(), () -> {
+            if (playersToRespawn.isEmpty()) {
+                log.info("No fake players need respawning");
+                return false;
+            }
 
-        if (playersToRespawn.isEmpty()) {
-            log.info("No fake players need respawning");
-            return;
+            log.info(String.format("Found %d fake players to respawn", playersToRespawn.size()));
+            new RestoreTask(playersToRespawn).runTaskTimer(Main.getInstance(), 0, RESTORE_INTERVAL_TICKS);
+            return true;
+        })).exceptionally(ex -> {
+            log.severe(String.format("Failed to load fake players to respawn: %s", ex.getMessage()));
+            return false;
+        });
+    }
+
+    /**
+     * How many fake players the next wave may restore
+     *
+     * @return 0 if the server has no headroom left
+     */
+    private int getWaveSize() {
+        double mspt = Bukkit.getServer().getAverageTickTime();
+        double target = config.getRestoreTargetMspt();
+        if (mspt >= target) {
+            return 0;
+        }
+        return Math.max(1, (int) (config.getRestoreMaxWaveSize() * (target - mspt) / target));
+    }
+
+    /**
+     * Restores fake players wave by wave
+     */
+    private final class RestoreTask extends BukkitRunnable {
+
+        private final Queue<FakePlayerRespawnData> remaining;
+        private final int total;
+        private final long startedAt = System.currentTimeMillis();
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger restored = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private int skipped;
+
+        private RestoreTask(@NotNull List<FakePlayerRespawnData> rows) {
+            this.remaining = new ArrayDeque<>(rows);
+            this.total = rows.size();
         }
 
-        log.info(String.format("Found %d fake players to respawn", playersToRespawn.size()));
+        @Override
+        public void run() {
+            if (inFlight.get() > 0) {
+                // Wait for the current wave
+                return;
+            }
+
+            if (remaining.isEmpty()) {
+                this.cancel();
+                log.info(String.format("Auto-respawn finished in %.1fs: %d restored, %d failed, %d already online",
+                        (System.currentTimeMillis() - startedAt) / 1000D, restored.get(), failed.get(), skipped));
+                return;
+            }
+
+            int size = getWaveSize();
+            if (size == 0) {
+                return;
+            }
 
-        // Respawn each player with a small delay between each
-        int delay = 0;
-        for (var data : playersToRespawn) {
-            final var playerData = data;
+            int started = 0;
+            while (started < size && !remaining.isEmpty()) {
+                var data = remaining.poll();
 
-            Bukkit.getScheduler().runTaskLater(Main.getInstance(), () -> {
                 // Check if player is already online
-                if (Bukkit.getPlayer(playerData.name) != null) {
-                    log.info(String.format("%s is already online, skipping", playerData.name));
-                    return;
+                if (Bukkit.getPlayerExact(data.name) != null) {
+                    skipped++;
+                    continue;
                 }
 
-                // Check if should still respawn
-                if (profileRepository.shouldRespawn(playerData.uuid)) {
-                    respawnPlayer(playerData.name, playerData.uuid);
+                inFlight.incrementAndGet();
+                started++;
+                try {
+                    respawn(data.name, data.uuid, toLocation(data)).whenComplete((player, ex) -> {
+                        if (ex == null) {
+                            restored.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                            log.warning(String.format("Failed to respawn %s: %s", data.name, ex.getMessage()));
+                        }
+                        inFlight.decrementAndGet();
+                    });
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    inFlight.decrementAndGet();
+                    log.warning(String.format("Failed to respawn %s: %s", data.name, e.getMessage()));
                 }
-            }, delay);
+            }
 
-            delay += 40; // 2 seconds between each respawn
+            log.info(String.format("Auto-respawn progress: %d/%d done, restoring %d more (MSPT %.1f)",
+                    restored.get() + failed.get() + skipped, total, started, Bukkit.getServer().getAverageTickTime()));
         }
-    }
 
-    /**
-     * Find the original creator of a fake player if they're online
-     */
-    @Nullable
-    private Player findOriginalCreator(@NotNull String fakeName) {
-        // Try to find by name pattern (if using default naming)
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (fakeName.startsWith(player.getName())) {
-                return player;
+        private @Nullable Location toLocation(@NotNull FakePlayerRespawnData data) {
+            var world = data.worldName != null ? Bukkit.getWorld(data.worldName) : null;
+            if (world == null) {
+                return null;
             }
+            return new Location(world, data.x, data.y, data.z, data.yaw, data.pitch);
         }
-
-        // TODO: Could enhance this by storing creator UUID in database
-        return null;
     }
 
     /**
@@ -0,0 +1,219 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import com.google.common.base.Throwables;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.repository.DatabaseExecutor;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerRespawnLocation;
+import io.github.hello09x.fakeplayer.core.repository.storage.FakeplayerStorage;
+import org.bukkit.Location;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * 假人重生数据的延迟写入
+ * <p>假人每次传送、加入和退出都会更新最后所在的位置. 这些修改先按 UUID 合并在内存中, 同一个假人只保留最新的值, 再由数据库写线程定期批量写入数据库</p>
+ */
+@Singleton
+public class FakeplayerRespawnWriter {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    /**
+     * 批量写入的间隔(毫秒)
+     */
+    private final static long FLUSH_INTERVAL = 3000;
+
+    private final FakeplayerStorage storage;
+
+    private final DatabaseExecutor database;
+
+    private final Map<UUID, PendingWrite> pending = new ConcurrentHashMap<>();
+
+    @Inject
+    public FakeplayerRespawnWriter(@NotNull FakeplayerStorage storage, @NotNull DatabaseExecutor database) {
+        this.storage = storage;
+        this.database = database;
+        database.scheduleWrite(this::flush, FLUSH_INTERVAL);
+    }
+
+    /**
+     * 保存最后所在的位置
+     *
+     * @param playerUuid    假人 UUID
+     * @param location      位置
+     * @param shouldRespawn 是否需要重生
+     */
+    public void saveLastLocation(@NotNull UUID playerUuid, @NotNull Location location, boolean shouldRespawn) {
+        this.merge(playerUuid, new PendingWrite(false, FakePlayerRespawnLocation.of(location), shouldRespawn, null));
+    }
+
+    /**
+     * 保存死亡时的位置和原因
+     *
+     * @param playerUuid    假人 UUID
+     * @param location      死亡位置
+     * @param reason        死亡原因
+     * @param shouldRespawn 是否需要重生
+     */
+    public void saveDeath(@NotNull UUID playerUuid, @NotNull Location location, @NotNull FakeplayerDeathTracker.DeathReason reason, boolean shouldRespawn) {
+        this.merge(playerUuid, new PendingWrite(false, FakePlayerRespawnLocation.of(location), shouldRespawn, reason));
+    }
+
+    /**
+     * 更新已有记录的重生标记和死亡原因, 不修改位置
+     *
+     * @param playerUuid    假人 UUID
+     * @param reason        死亡原因
+     * @param shouldRespawn 是否需要重生
+     */
+    public void update(@NotNull UUID playerUuid, @NotNull FakeplayerDeathTracker.DeathReason reason, boolean shouldRespawn) {
+        this.merge(playerUuid, new PendingWrite(false, null, shouldRespawn, reason));
+    }
+
+    /**
+     * 删除重生数据
+     *
+     * @param playerUuid 假人 UUID
+     */
+    public void clear(@NotNull UUID playerUuid) {
+        this.merge(playerUuid, new PendingWrite(true, null, null, null));
+    }
+
+    /**
+     * 获取最后所在的位置, 优先使用尚未写入数据库的值
+     *
+     * @param playerUuid 假人 UUID
+     * @return 位置
+     */
+    public @NotNull CompletableFuture<@Nullable Location> getLastLocationAsync(@NotNull UUID playerUuid) {
+        var write = this.pending.get(playerUuid);
+        if (write != null) {
+            if (write.location != null) {
+                return CompletableFuture.completedFuture(write.location.toLocation());
+            }
+            if (write.clear) {
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+        return this.database.read(() -> this.storage.getLastLocation(playerUuid));
+    }
+
+    private void merge(@NotNull UUID playerUuid, @NotNull PendingWrite write) {
+        this.pending.merge(playerUuid, write, PendingWrite::then);
+    }
+
+    /**
+     * 将合并后的修改批量写入数据库
+     */
+    private synchronized void flush() {
+        if (this.pending.isEmpty()) {
+            return;
+        }
+
+        var clears = new ArrayList<UUID>();
+        var locations = new HashMap<UUID, FakePlayerRespawnLocation>();
+        var shouldRespawn = new HashMap<UUID, Boolean>();
+        var reasons = new HashMap<UUID, FakeplayerDeathTracker.DeathReason>();
+        var updates = new HashMap<UUID, PendingWrite>();
+        var writes = new HashMap<UUID, PendingWrite>();
+        for (var playerUuid : this.pending.keySet()) {
+            var write = this.pending.remove(playerUuid);
+            if (write == null) {
+                continue;
+            }
+            writes.put(playerUuid, write);
+
+            if (write.clear) {
+                clears.add(playerUuid);
+            }
+            if (write.location != null) {
+                locations.put(playerUuid, write.location);
+                if (write.shouldRespawn != null) {
+                    shouldRespawn.put(playerUuid, write.shouldRespawn);
+                }
+                if (write.reason != null) {
+                    reasons.put(playerUuid, write.reason);
+                }
+            } else if (write.shouldRespawn != null || write.reason != null) {
+                updates.put(playerUuid, write);
+            }
+        }
+
+        try {
+            if (!clears.isEmpty()) {
+                this.storage.clearRespawnData(clears);
+            }
+            if (!locations.isEmpty()) {
+                this.storage.saveLastLocations(locations, shouldRespawn, reasons);
+            }
+            updates.forEach((playerUuid, write) -> {
+                if (write.shouldRespawn != null) {
+                    this.storage.setShouldRespawn(playerUuid, write.shouldRespawn);
+                }
+                if (write.reason != null) {
+                    this.storage.setDeathReason(playerUuid, write.reason);
+                }
+            });
+        } catch (Throwable e) {
+            log.severe("Failed to save respawn data of %d fake players, will retry later: %s".formatted(
+                    writes.size(),
+                    Throwables.getStackTraceAsString(e)
+            ));
+            // 放回等待下次写入, 期间产生的新修改优先
+            writes.forEach((playerUuid, write) -> this.pending.merge(playerUuid, write, (newer, failed) -> failed.then(newer)));
+        }
+    }
+
+    public void onDisable() {
+        this.database.write(this::flush).join();
+    }
+
+    /**
+     * 尚未写入的修改, 为 {@code null} 的字段表示不修改
+     *
+     * @param clear 写入前是否先删除原有记录
+     */
+    private record PendingWrite(
+
+            boolean clear,
+
+            @Nullable
+            FakePlayerRespawnLocation location,
+
+            @Nullable
+            Boolean shouldRespawn,
+
+            @Nullable
+            FakeplayerDeathTracker.DeathReason reason
+
+    ) {
+
+        /**
+         * 合并之后的修改
+         */
+        private @NotNull PendingWrite then(@NotNull PendingWrite next) {
+            if (next.clear) {
+                return next;
+            }
+
+            return new PendingWrite(
+                    this.clear,
+                    next.location != null ? next.location : this.location,
+                    next.shouldRespawn != null ? next.shouldRespawn : this.shouldRespawn,
+                    next.reason != null ? next.reason : this.reason
+            );
+        }
+
+    }
+
+}
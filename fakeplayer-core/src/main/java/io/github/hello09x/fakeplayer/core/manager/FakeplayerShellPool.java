@@ -0,0 +1,108 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.api.spi.NMSBridge;
+import io.github.hello09x.fakeplayer.api.spi.NMSServerPlayer;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * 预先创建好的假人实例池
+ * <p>创建 ServerPlayer 需要初始化背包、统计、配方书和成就等数据, 在集中生成假人时开销很大</p>
+ * <p>开启后会在服务器空闲的 tick 中预先创建一些未绑定身份的实例, 生成假人时再绑定名称和 UUID, 只剩下登陆和放置到世界中的开销</p>
+ */
+@Singleton
+public class FakeplayerShellPool {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    /**
+     * 预创建实例使用的占位 UUID, 所有实例共用一个可以避免服务器为每个实例缓存一份统计数据
+     */
+    private final static UUID PLACEHOLDER_UUID = new UUID(0, 0);
+
+    /**
+     * 预创建实例使用的占位名称
+     */
+    private final static String PLACEHOLDER_NAME = "~fakeplayer";
+
+    /**
+     * 平均每 tick 耗时低于这个值才认为服务器空闲
+     */
+    private final static double IDLE_MSPT = 40D;
+
+    private final NMSBridge bridge;
+
+    private final FakeplayerConfig config;
+
+    private final Deque<NMSServerPlayer> shells = new ArrayDeque<>();
+
+    /**
+     * 当前版本是否支持重新绑定身份, 不支持时不再预创建
+     */
+    private boolean supported = true;
+
+    @Inject
+    public FakeplayerShellPool(@NotNull NMSBridge bridge, @NotNull FakeplayerConfig config) {
+        this.bridge = bridge;
+        this.config = config;
+        Bukkit.getScheduler().runTaskTimer(Main.getInstance(), this::refill, 20, 1);
+    }
+
+    /**
+     * 获取一个绑定了指定身份的实例, 池中没有可用实例时直接创建
+     *
+     * @param uuid UUID
+     * @param name 名称
+     * @return 实例
+     */
+    public @NotNull NMSServerPlayer acquire(@NotNull UUID uuid, @NotNull String name) {
+        var shell = this.shells.poll();
+        if (shell != null) {
+            if (shell.rebind(uuid, name)) {
+                return shell;
+            }
+
+            log.warning("This server version does not support pre-built fake players, the shell pool will be disabled");
+            this.supported = false;
+            this.shells.clear();
+        }
+
+        return this.create(uuid, name);
+    }
+
+    /**
+     * 在空闲的 tick 中补充实例, 每 tick 最多创建一个
+     */
+    private void refill() {
+        var size = this.supported ? config.getShellPoolSize() : 0;
+        while (this.shells.size() > size) {
+            this.shells.poll();
+        }
+        if (this.shells.size() == size) {
+            return;
+        }
+
+        if (Bukkit.getServer().getAverageTickTime() > IDLE_MSPT) {
+            return;
+        }
+
+        this.shells.offer(this.create(PLACEHOLDER_UUID, PLACEHOLDER_NAME));
+    }
+
+    private @NotNull NMSServerPlayer create(@NotNull UUID uuid, @NotNull String name) {
+        var handle = bridge.fromServer(Bukkit.getServer()).newPlayer(uuid, name);
+        handle.setPlayBefore(); // 可避免一些插件的第一次入服欢迎信息
+        handle.disableAdvancements(Main.getInstance()); // 不提示成就信息
+        return handle;
+    }
+
+}
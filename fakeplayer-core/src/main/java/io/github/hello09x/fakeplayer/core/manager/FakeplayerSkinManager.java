@@ -10,8 +10,9 @@ import com.google.inject.Singleton;
 import io.github.hello09x.devtools.core.utils.SchedulerUtils;
 import io.github.hello09x.fakeplayer.core.Main;
 import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
-import io.github.hello09x.fakeplayer.core.repository.FakeplayerSkinRepository;
+import io.github.hello09x.fakeplayer.core.repository.DatabaseExecutor;
 import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerSkin;
+import io.github.hello09x.fakeplayer.core.repository.storage.FakeplayerStorage;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
@@ -32,17 +33,19 @@ import java.util.logging.Logger;
 public class FakeplayerSkinManager {
 
     private final static Logger log = Main.getInstance().getLogger();
-    private final FakeplayerSkinRepository repository;
+    private final FakeplayerStorage storage;
     private final FakeplayerConfig config;
+    private final DatabaseExecutor database;
     private final Cache<UUID, PlayerProfile> profileCache = CacheBuilder
             .newBuilder()
             .expireAfterWrite(Duration.ofHours(1))
             .build();
 
     @Inject
-    public FakeplayerSkinManager(FakeplayerSkinRepository repository, FakeplayerConfig config) {
-        this.repository = repository;
+    public FakeplayerSkinManager(FakeplayerStorage storage, FakeplayerConfig config, DatabaseExecutor database) {
+        this.storage = storage;
         this.config = config;
+        this.database = database;
     }
 
     @CanIgnoreReturnValue
@@ -51,11 +54,15 @@ public class FakeplayerSkinManager {
             return false;
         }
 
-        repository.insertOrUpdate(new FakePlayerSkin(
+        var skin = new FakePlayerSkin(
                 to.getUniqueId(),
                 p.getUniqueId(),
                 from.getUniqueId()
-        ));
+        );
+        database.write(() -> storage.saveSkin(skin)).exceptionally(e -> {
+            log.warning("Failed to save skin of fake player %s: %s".formatted(to.getName(), e.getMessage()));
+            return null;
+        });
         return true;
     }
 
@@ -70,19 +77,30 @@ public class FakeplayerSkinManager {
         }
 
         // 使用以前配置过的
-        var skin = repository.selectByCreatorIdAndPlayerId(p.getUniqueId(), to.getUniqueId());
-        if (skin != null) {
-            this.useOnlineSkinAsync(to, Bukkit.getOfflinePlayer(skin.targetId()));
-            return;
-        }
+        var creatorId = p.getUniqueId();
+        var playerId = to.getUniqueId();
+        database
+                .read(() -> storage.selectSkin(creatorId, playerId))
+                .thenComposeAsync(skin -> SchedulerUtils.runTask(Main.getInstance(), () -> {
+                    if (!to.isOnline()) {
+                        return false;
+                    }
 
-        if (config.isDefaultOnlineSkin()) {
-            // 使用真实皮肤
-            this.useOnlineSkinAsync(to, Bukkit.getOfflinePlayer(to.getName()));
-        } else {
-            // 使用召唤者皮肤
-            this.useSkin(to, p);
-        }
+                    if (skin != null) {
+                        this.useOnlineSkinAsync(to, Bukkit.getOfflinePlayer(skin.targetId()));
+                    } else if (config.isDefaultOnlineSkin()) {
+                        // 使用真实皮肤
+                        this.useOnlineSkinAsync(to, Bukkit.getOfflinePlayer(to.getName()));
+                    } else {
+                        // 使用召唤者皮肤
+                        this.useSkin(to, p);
+                    }
+                    return true;
+                }))
+                .exceptionally(e -> {
+                    log.warning("Failed to load skin of fake player %s: %s".formatted(to.getName(), e.getMessage()));
+                    return false;
+                });
     }
 
     @CanIgnoreReturnValue
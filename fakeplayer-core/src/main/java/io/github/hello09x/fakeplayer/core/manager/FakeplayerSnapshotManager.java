@@ -0,0 +1,207 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.entity.Fakeplayer;
+import io.github.hello09x.fakeplayer.core.entity.FakeplayerSnapshot;
+import io.github.hello09x.fakeplayer.core.manager.action.ActionManager;
+import io.github.hello09x.fakeplayer.core.repository.model.Feature;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * 假人状态快照
+ * <p>定期在主线程中采集所有假人的状态, 只有发生变化的假人才会由后台线程写入 {@code snapshots/<uuid>.bin}. 关闭服务器时采集一次所有假人并等待写入完成</p>
+ * <p>自动重生恢复假人时读取快照, 还原创建者、剩余存活时间、特性和行为等. 假人被命令或插件主动移除时删除快照, 避免之后使用相同 UUID 的假人恢复到旧的状态</p>
+ */
+@Singleton
+public class FakeplayerSnapshotManager {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    /**
+     * 采集间隔(ticks)
+     */
+    private final static long CAPTURE_INTERVAL = 100;
+
+    private final FakeplayerList playerList;
+
+    private final ActionManager actionManager;
+
+    private final Path folder;
+
+    /**
+     * 每个假人最后一次写入的内容, 内容不变时不再写入
+     */
+    private final Map<UUID, byte[]> written = new HashMap<>();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("fakeplayer-snapshot-writer").setDaemon(true).build()
+    );
+
+    @Inject
+    public FakeplayerSnapshotManager(@NotNull FakeplayerList playerList, @NotNull ActionManager actionManager) {
+        this.playerList = playerList;
+        this.actionManager = actionManager;
+        this.folder = Main.getInstance().getDataFolder().toPath().resolve("snapshots");
+        Bukkit.getScheduler().runTaskTimer(Main.getInstance(), this::captureAll, CAPTURE_INTERVAL, CAPTURE_INTERVAL);
+    }
+
+    /**
+     * 读取假人的快照
+     *
+     * @param uuid 假人 UUID
+     * @return 快照, 不存在或者无法读取时为空
+     */
+    public @NotNull Optional<FakeplayerSnapshot> read(@NotNull UUID uuid) {
+        try {
+            return Optional.of(FakeplayerSnapshot.decode(ByteBuffer.wrap(Files.readAllBytes(this.getFile(uuid)))));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | IllegalArgumentException e) {
+            log.warning("Failed to read snapshot of %s: %s".formatted(uuid, e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 删除假人的快照, 在假人被主动移除之前调用
+     *
+     * @param uuid 假人 UUID
+     */
+    public void delete(@NotNull UUID uuid) {
+        this.written.remove(uuid);
+        // 与写入在同一个线程中执行, 排在之前的写入之后
+        this.writer.execute(() -> {
+            try {
+                Files.deleteIfExists(this.getFile(uuid));
+            } catch (IOException e) {
+                log.warning("Failed to delete snapshot of %s: %s".formatted(uuid, e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * 将快照中的状态还原到已经生成的假人上, 必须在主线程调用
+     *
+     * @param player   假人
+     * @param snapshot 快照
+     */
+    public void apply(@NotNull Player player, @NotNull FakeplayerSnapshot snapshot) {
+        player.setRotation(snapshot.yaw(), snapshot.pitch());
+        player.setSneaking(snapshot.sneaking());
+        player.setSprinting(snapshot.sprinting());
+        player.getInventory().setHeldItemSlot(snapshot.heldItemSlot());
+        snapshot.features().forEach((feature, value) -> {
+            if (feature.getModifier() != null) {
+                feature.getModifier().accept(player, value);
+            }
+        });
+        snapshot.actions().forEach((action, setting) -> actionManager.setAction(player, action, setting));
+    }
+
+    /**
+     * 采集所有假人的状态, 将发生变化的写入磁盘
+     */
+    private void captureAll() {
+        var online = new HashSet<UUID>();
+        for (var fp : this.playerList.getAll()) {
+            if (!fp.isOnline()) {
+                continue;
+            }
+
+            online.add(fp.getUUID());
+            byte[] bytes;
+            try {
+                bytes = this.capture(fp).encode();
+            } catch (Throwable e) {
+                log.warning("Failed to capture snapshot of %s: %s".formatted(fp.getName(), Throwables.getStackTraceAsString(e)));
+                continue;
+            }
+
+            if (!Arrays.equals(bytes, this.written.put(fp.getUUID(), bytes))) {
+                var uuid = fp.getUUID();
+                this.writer.execute(() -> this.write(uuid, bytes));
+            }
+        }
+
+        // 已下线的假人保留快照文件, 下次生成时重新采集
+        this.written.keySet().retainAll(online);
+    }
+
+    private @NotNull FakeplayerSnapshot capture(@NotNull Fakeplayer fp) {
+        var player = fp.getPlayer();
+        var location = player.getLocation();
+        var creator = fp.getCreator();
+
+        var features = new EnumMap<Feature, String>(Feature.class);
+        for (var feature : Feature.values()) {
+            if (feature.getDetector() != null && feature.getModifier() != null) {
+                features.put(feature, feature.getDetector().apply(player));
+            }
+        }
+
+        return new FakeplayerSnapshot(
+                fp.getUUID(),
+                fp.getName(),
+                creator instanceof Player p ? p.getUniqueId() : null,
+                creator.getName(),
+                location.getYaw(),
+                location.getPitch(),
+                player.isSneaking(),
+                player.isSprinting(),
+                player.getInventory().getHeldItemSlot(),
+                fp.getRemainingLifespan(),
+                features,
+                actionManager.getActionSettings(player)
+        );
+    }
+
+    private void write(@NotNull UUID uuid, byte @NotNull [] bytes) {
+        try {
+            Files.createDirectories(this.folder);
+            var file = this.getFile(uuid);
+            var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warning("Failed to write snapshot of %s: %s".formatted(uuid, e.getMessage()));
+        }
+    }
+
+    private @NotNull Path getFile(@NotNull UUID uuid) {
+        return this.folder.resolve(uuid + ".bin");
+    }
+
+    /**
+     * 必须在移除所有假人之前调用
+     */
+    public void onDisable() {
+        this.captureAll();
+        this.writer.shutdown();
+        try {
+            if (!this.writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warning("Timed out while writing fake player snapshots");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
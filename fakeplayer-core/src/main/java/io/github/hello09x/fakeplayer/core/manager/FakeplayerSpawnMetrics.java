@@ -0,0 +1,106 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
+import io.github.hello09x.fakeplayer.core.manager.metrics.FakeplayerMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * 假人生成耗时统计
+ * <p>从开始登陆到传送到生成点为止, 按获取刷怪能力的方式分别统计, 用于比较直接登记和跨维度传送的差异</p>
+ */
+@Singleton
+public class FakeplayerSpawnMetrics {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    private final FakeplayerConfig config;
+
+    private final FakeplayerMetrics metrics;
+
+    private final Map<SpawningStatePath, Recorder> recorders = new EnumMap<>(SpawningStatePath.class);
+
+    @Inject
+    public FakeplayerSpawnMetrics(@NotNull FakeplayerConfig config, @NotNull FakeplayerMetrics metrics) {
+        this.config = config;
+        this.metrics = metrics;
+        for (var path : SpawningStatePath.values()) {
+            this.recorders.put(path, new Recorder());
+        }
+    }
+
+    /**
+     * 记录一次生成
+     *
+     * @param name   假人名称
+     * @param path   获取刷怪能力的方式
+     * @param millis 耗时(毫秒)
+     */
+    public void record(@NotNull String name, @NotNull SpawningStatePath path, long millis) {
+        var recorder = this.recorders.get(path);
+        recorder.count.increment();
+        recorder.millis.add(millis);
+        metrics.recordSpawn(millis * 1_000_000);
+        if (config.isDebug()) {
+            log.info("Fake player %s ready in %d ms (%s)".formatted(name, millis, path));
+        }
+    }
+
+    /**
+     * @return 每种方式的生成次数和平均耗时
+     */
+    public @NotNull Map<SpawningStatePath, Summary> summarize() {
+        var summaries = new EnumMap<SpawningStatePath, Summary>(SpawningStatePath.class);
+        this.recorders.forEach((path, recorder) -> {
+            var count = recorder.count.sum();
+            summaries.put(path, new Summary(count, count == 0 ? 0D : (double) recorder.millis.sum() / count));
+        });
+        return summaries;
+    }
+
+    /**
+     * 获取刷怪能力的方式
+     */
+    public enum SpawningStatePath {
+
+        /**
+         * 由版本模块在当前世界中直接重新登记
+         */
+        DIRECT,
+
+        /**
+         * 传送到其他世界再传送回来
+         */
+        TELEPORT,
+
+        /**
+         * 生成点在其他世界, 传送本身就会获取刷怪能力
+         */
+        NONE
+
+    }
+
+    /**
+     * @param count         生成次数
+     * @param averageMillis 平均耗时(毫秒)
+     */
+    public record Summary(long count, double averageMillis) {
+
+    }
+
+    private final static class Recorder {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder millis = new LongAdder();
+
+    }
+
+}
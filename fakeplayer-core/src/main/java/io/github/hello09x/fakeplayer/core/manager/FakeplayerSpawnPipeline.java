@@ -0,0 +1,138 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
+import io.github.hello09x.fakeplayer.core.entity.Fakeplayer;
+import io.github.hello09x.fakeplayer.core.entity.SpawnOption;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetAddress;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.logging.Logger;
+
+/**
+ * 批量生成假人的流水线
+ * <p>登陆前事件在一个有界线程池中并行执行, 完成后的假人进入登陆队列, 每 tick 最多只放置 {@link FakeplayerConfig#getSpawnLoginsPerTick()} 个假人到世界中, 避免一次性放置大量假人导致卡顿</p>
+ */
+@Singleton
+public class FakeplayerSpawnPipeline {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    private final FakeplayerConfig config;
+
+    private final ExecutorService preLoginExecutor;
+
+    private final Queue<PendingLogin> logins = new ConcurrentLinkedQueue<>();
+
+    @Nullable
+    private BukkitTask task;
+
+    @Inject
+    public FakeplayerSpawnPipeline(@NotNull FakeplayerConfig config) {
+        this.config = config;
+        this.preLoginExecutor = Executors.newFixedThreadPool(
+                Math.max(1, config.getSpawnPreLoginThreads()),
+                new ThreadFactoryBuilder().setNameFormat("fakeplayer-pre-login-%d").setDaemon(true).build()
+        );
+    }
+
+    /**
+     * 将假人加入流水线
+     *
+     * @param fp     假人
+     * @param option 生成配置
+     * @return 假人被放置到世界中后完成
+     */
+    public @NotNull CompletableFuture<Void> spawnAsync(@NotNull Fakeplayer fp, @NotNull SpawnOption option) {
+        var future = new CompletableFuture<Void>();
+        fp.preLoginAsync(this.preLoginExecutor).whenComplete((address, e) -> {
+            if (e != null) {
+                future.completeExceptionally(e);
+                return;
+            }
+
+            this.logins.offer(new PendingLogin(fp, address, option, future));
+            this.ensureRunning();
+        });
+        return future;
+    }
+
+    private synchronized void ensureRunning() {
+        if (this.task == null) {
+            this.task = Bukkit.getScheduler().runTaskTimer(Main.getInstance(), this::tick, 0, 1);
+        }
+    }
+
+    /**
+     * 每 tick 按预算从登陆队列中取出假人放置到世界中
+     */
+    private void tick() {
+        var budget = Math.max(1, config.getSpawnLoginsPerTick());
+        for (int i = 0; i < budget; i++) {
+            var pending = this.logins.poll();
+            if (pending == null) {
+                break;
+            }
+
+            try {
+                pending.fp().login(pending.address(), pending.option());
+                pending.future().complete(null);
+            } catch (Throwable e) {
+                pending.future().completeExceptionally(e);
+            }
+        }
+
+        synchronized (this) {
+            if (this.logins.isEmpty() && this.task != null) {
+                this.task.cancel();
+                this.task = null;
+            }
+        }
+    }
+
+    public void onDisable() {
+        this.preLoginExecutor.shutdownNow();
+        synchronized (this) {
+            if (this.task != null) {
+                this.task.cancel();
+                this.task = null;
+            }
+        }
+
+        PendingLogin pending;
+        int canceled = 0;
+        while ((pending = this.logins.poll()) != null) {
+            pending.future().cancel(false);
+            canceled++;
+        }
+        if (canceled > 0) {
+            log.info("Canceled %d pending fake player logins".formatted(canceled));
+        }
+    }
+
+    private record PendingLogin(
+
+            @NotNull
+            Fakeplayer fp,
+
+            @NotNull
+            InetAddress address,
+
+            @NotNull
+            SpawnOption option,
+
+            @NotNull
+            CompletableFuture<Void> future
+
+    ) {
+    }
+
+}
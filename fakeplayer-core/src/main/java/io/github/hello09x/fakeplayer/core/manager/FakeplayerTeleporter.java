@@ -0,0 +1,123 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.devtools.core.utils.EntityUtils;
+import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 假人传送
+ * <p>目标区块未加载时直接传送会在主线程中同步加载区块. 这里先异步加载目标区块, 加载完成后再在主线程中传送</p>
+ * <p>所有传送共用一个队列, 同时加载的区块数量不超过配置的上限</p>
+ * <p>所有方法都必须在主线程调用</p>
+ */
+@Singleton
+public class FakeplayerTeleporter {
+
+    private final FakeplayerConfig config;
+
+    private final Queue<PendingTeleport> queue = new ArrayDeque<>();
+
+    /**
+     * 正在加载区块的传送数量
+     */
+    private int loading;
+
+    @Inject
+    public FakeplayerTeleporter(@NotNull FakeplayerConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 传送并播放传送音效
+     *
+     * @param player 玩家
+     * @param to     目标位置
+     * @return 是否传送成功
+     */
+    public @NotNull CompletableFuture<Boolean> teleportAndSound(@NotNull Player player, @NotNull Location to) {
+        return this.submit(new PendingTeleport(player, to.clone(), true, new CompletableFuture<>()));
+    }
+
+    /**
+     * 传送
+     *
+     * @param player 玩家
+     * @param to     目标位置
+     * @return 是否传送成功
+     */
+    public @NotNull CompletableFuture<Boolean> teleport(@NotNull Player player, @NotNull Location to) {
+        return this.submit(new PendingTeleport(player, to.clone(), false, new CompletableFuture<>()));
+    }
+
+    private @NotNull CompletableFuture<Boolean> submit(@NotNull PendingTeleport teleport) {
+        var world = teleport.to.getWorld();
+        if (world.isChunkLoaded(teleport.to.getBlockX() >> 4, teleport.to.getBlockZ() >> 4)) {
+            this.commit(teleport);
+        } else {
+            this.queue.offer(teleport);
+            this.drain();
+        }
+        return teleport.future;
+    }
+
+    private void drain() {
+        PendingTeleport teleport;
+        while (this.loading < config.getMaxConcurrentChunkLoads() && (teleport = this.queue.poll()) != null) {
+            this.loading++;
+            var next = teleport;
+            // Paper 会在主线程中完成这个 future
+            next.to.getWorld()
+                   .getChunkAtAsync(next.to.getBlockX() >> 4, next.to.getBlockZ() >> 4, true)
+                   .whenComplete((chunk, error) -> {
+                       this.loading--;
+                       if (error != null) {
+                           next.future.completeExceptionally(error);
+                       } else {
+                           this.commit(next);
+                       }
+                       this.drain();
+                   });
+        }
+    }
+
+    private void commit(@NotNull PendingTeleport teleport) {
+        if (!teleport.player.isOnline()) {
+            teleport.future.complete(false);
+            return;
+        }
+
+        try {
+            teleport.future.complete(teleport.sound
+                    ? EntityUtils.teleportAndSound(teleport.player, teleport.to)
+                    : teleport.player.teleport(teleport.to));
+        } catch (Throwable e) {
+            teleport.future.completeExceptionally(e);
+        }
+    }
+
+    private record PendingTeleport(
+
+            @NotNull
+            Player player,
+
+            @NotNull
+            Location to,
+
+            boolean sound,
+
+            @NotNull
+            CompletableFuture<Boolean> future
+
+    ) {
+
+    }
+
+}
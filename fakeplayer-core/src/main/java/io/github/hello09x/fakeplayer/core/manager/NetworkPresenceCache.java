@@ -0,0 +1,175 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import com.google.inject.Singleton;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * BungeeCord 网络中关注的玩家是否在线
+ * <p>只关注拥有假人的创建者. 解析 {@code PlayerList ALL} 的回复时直接在消息的字节上逐个比对玩家名称, 不会为整个列表或者每个名称创建字符串,
+ * 并与上一次的回复比较, 得出上线和下线的玩家</p>
+ * <p>关注的玩家通常很少, 因此逐个比对哈希值而不是建立哈希表</p>
+ */
+@Singleton
+public class NetworkPresenceCache {
+
+    private final static byte[] SUB_CHANNEL = "PlayerList".getBytes(StandardCharsets.UTF_8);
+
+    private final static byte[] SERVER_ALL = "ALL".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 关注的玩家, {@code true} 表示上一次回复中在线, {@code null} 表示关注之后还没有收到过回复
+     */
+    private final Map<String, Boolean> presence = new HashMap<>();
+
+    private String[] names = new String[0];
+
+    private int[] hashes = new int[0];
+
+    /**
+     * 关注一名玩家
+     *
+     * @param name 玩家名称
+     */
+    public void track(@NotNull String name) {
+        if (!this.presence.containsKey(name)) {
+            this.presence.put(name, null);
+            this.rebuild();
+        }
+    }
+
+    /**
+     * 取消关注一名玩家
+     *
+     * @param name 玩家名称
+     */
+    public void untrack(@NotNull String name) {
+        if (this.presence.containsKey(name)) {
+            this.presence.remove(name);
+            this.rebuild();
+        }
+    }
+
+    /**
+     * 查询关注的玩家在上一次回复中是否在线
+     *
+     * @param name 玩家名称
+     * @return 是否在线, 没有关注该玩家或者关注之后还没有收到过回复时为 {@code null}
+     */
+    public @Nullable Boolean isOnline(@NotNull String name) {
+        return this.presence.get(name);
+    }
+
+    /**
+     * 使用 {@code PlayerList ALL} 的回复更新关注的玩家是否在线
+     *
+     * @param message 插件消息
+     * @return 与上一次回复相比上线和下线的玩家, 消息不是 {@code PlayerList ALL} 的回复时为 {@code null}
+     */
+    public @Nullable Diff update(byte @NotNull [] message) {
+        var offset = expect(message, 0, SUB_CHANNEL);
+        if (offset < 0 || (offset = expect(message, offset, SERVER_ALL)) < 0 || offset + 2 > message.length) {
+            return null;
+        }
+
+        var end = Math.min(message.length, offset + 2 + readUnsignedShort(message, offset));
+        var seen = new boolean[this.names.length];
+        var start = offset + 2;
+        while (start < end) {
+            var stop = start;
+            var hash = 0;
+            while (stop < end && message[stop] != ',') {
+                hash = 31 * hash + message[stop];
+                stop++;
+            }
+            this.mark(message, start, stop - start, hash, seen);
+
+            // 分隔符为 ", "
+            start = stop + 1;
+            if (start < end && message[start] == ' ') {
+                start++;
+            }
+        }
+
+        var joined = new ArrayList<String>();
+        var left = new ArrayList<String>();
+        for (int i = 0; i < this.names.length; i++) {
+            var previous = this.presence.put(this.names[i], seen[i]);
+            if (previous == null || previous != seen[i]) {
+                (seen[i] ? joined : left).add(this.names[i]);
+            }
+        }
+        return new Diff(joined, left);
+    }
+
+    private void mark(byte @NotNull [] message, int offset, int length, int hash, boolean @NotNull [] seen) {
+        for (int i = 0; i < this.names.length; i++) {
+            if (this.hashes[i] == hash && matches(message, offset, length, this.names[i])) {
+                seen[i] = true;
+                return;
+            }
+        }
+    }
+
+    private void rebuild() {
+        this.names = this.presence.keySet().toArray(String[]::new);
+        this.hashes = new int[this.names.length];
+        for (int i = 0; i < this.names.length; i++) {
+            this.hashes[i] = this.names[i].hashCode();
+        }
+    }
+
+    /**
+     * 玩家名称只包含 ASCII 字符, 编码后每个字节对应一个字符
+     */
+    private static boolean matches(byte @NotNull [] message, int offset, int length, @NotNull String name) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (message[offset + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 比对一个 {@link java.io.DataOutput#writeUTF(String)} 写入的字符串
+     *
+     * @return 字符串之后的位置, 不相同时为 {@code -1}
+     */
+    private static int expect(byte @NotNull [] message, int offset, byte @NotNull [] expected) {
+        if (offset + 2 + expected.length > message.length || readUnsignedShort(message, offset) != expected.length) {
+            return -1;
+        }
+        if (!Arrays.equals(message, offset + 2, offset + 2 + expected.length, expected, 0, expected.length)) {
+            return -1;
+        }
+        return offset + 2 + expected.length;
+    }
+
+    private static int readUnsignedShort(byte @NotNull [] message, int offset) {
+        return ((message[offset] & 0xFF) << 8) | (message[offset + 1] & 0xFF);
+    }
+
+    /**
+     * @param joined 上线的玩家
+     * @param left   下线的玩家
+     */
+    public record Diff(
+
+            @NotNull
+            List<String> joined,
+
+            @NotNull
+            List<String> left
+
+    ) {
+
+    }
+
+}
@@ -0,0 +1,204 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.api.spi.NMSServerGamePacketListener;
+import io.github.hello09x.fakeplayer.core.Main;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Logger;
+
+/**
+ * BungeeCord 插件消息转发
+ * <p>假人没有真实的连接, 发往 Proxy 的插件消息需要借助一名真实玩家的连接发送</p>
+ * <p>这里缓存一名真实玩家作为载体, 载体退出时才重新选择; 没有载体时消息会暂存在一个有界队列中, 等到真实玩家加入后分批发出</p>
+ */
+@Singleton
+public class PluginMessageForwarder implements Listener {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    /**
+     * 没有载体时最多暂存多少条消息
+     */
+    private final static int QUEUE_CAPACITY = 256;
+
+    /**
+     * 每 tick 最多发送多少条暂存的消息
+     */
+    private final static int FLUSH_BATCH_SIZE = 32;
+
+    /**
+     * 真实玩家加入后等待多少 tick 再发送暂存的消息, 等待 Proxy 为其注册好 BungeeCord 频道
+     */
+    private final static int FLUSH_DELAY = 20;
+
+    private final FakeplayerManager manager;
+
+    private final Deque<byte[]> pending = new ArrayDeque<>();
+
+    @Nullable
+    private Player carrier;
+
+    /**
+     * 是否已经查找过载体, 查找过且没有载体时等待真实玩家加入而不是每次都遍历在线玩家
+     */
+    private boolean carrierResolved;
+
+    @Nullable
+    private BukkitTask flushTask;
+
+    /**
+     * 是否已经提示过队列已满, 避免刷屏
+     */
+    private boolean overflowWarned;
+
+    @Inject
+    public PluginMessageForwarder(FakeplayerManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * 转发一条 BungeeCord 插件消息
+     *
+     * @param message 消息内容
+     */
+    public synchronized void forward(byte @NotNull [] message) {
+        var carrier = this.getCarrier();
+        if (carrier != null && this.pending.isEmpty()) {
+            carrier.sendPluginMessage(Main.getInstance(), NMSServerGamePacketListener.BUNGEE_CORD_CHANNEL, message);
+            return;
+        }
+
+        // 仍有暂存的消息时也排队, 保证发送顺序
+        this.enqueue(message);
+        if (carrier != null) {
+            this.scheduleFlush(1);
+        }
+    }
+
+    /**
+     * 获取当前的载体, 仅在缓存的载体失效时才遍历在线玩家
+     *
+     * @return 载体, 没有真实玩家在线时为 {@code null}
+     */
+    public synchronized @Nullable Player getCarrier() {
+        if (this.carrier != null && this.carrier.isOnline()) {
+            return this.carrier;
+        }
+        if (this.carrier == null && this.carrierResolved) {
+            return null;
+        }
+
+        this.carrier = this.findCarrier(null);
+        this.carrierResolved = true;
+        return this.carrier;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public synchronized void onJoin(@NotNull PlayerJoinEvent event) {
+        var player = event.getPlayer();
+        if (manager.isFake(player)) {
+            return;
+        }
+
+        if (this.carrier == null || !this.carrier.isOnline()) {
+            this.carrier = player;
+        }
+
+        if (!this.pending.isEmpty()) {
+            this.scheduleFlush(FLUSH_DELAY);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public synchronized void onQuit(@NotNull PlayerQuitEvent event) {
+        var player = event.getPlayer();
+        if (this.carrier == null || !this.carrier.getUniqueId().equals(player.getUniqueId())) {
+            return;
+        }
+
+        // 退出事件中该玩家仍然在线, 因此需要排除掉
+        this.carrier = this.findCarrier(player);
+        this.carrierResolved = true;
+    }
+
+    /**
+     * 分批发送暂存的消息
+     */
+    private synchronized void flush() {
+        var carrier = this.getCarrier();
+        if (carrier == null || this.pending.isEmpty()) {
+            this.cancelFlushTask();
+            return;
+        }
+
+        for (int i = 0; i < FLUSH_BATCH_SIZE; i++) {
+            var message = this.pending.poll();
+            if (message == null) {
+                break;
+            }
+            carrier.sendPluginMessage(Main.getInstance(), NMSServerGamePacketListener.BUNGEE_CORD_CHANNEL, message);
+        }
+
+        if (this.pending.isEmpty()) {
+            this.overflowWarned = false;
+            this.cancelFlushTask();
+        }
+    }
+
+    private void enqueue(byte @NotNull [] message) {
+        if (this.pending.size() >= QUEUE_CAPACITY) {
+            this.pending.poll();
+            if (!this.overflowWarned) {
+                log.warning("No real player to forward plugin messages, the oldest queued messages will be discarded");
+                this.overflowWarned = true;
+            }
+        }
+        this.pending.offer(message);
+    }
+
+    private void scheduleFlush(long delay) {
+        if (this.flushTask == null) {
+            this.flushTask = Bukkit.getScheduler().runTaskTimer(Main.getInstance(), this::flush, delay, 1);
+        }
+    }
+
+    private void cancelFlushTask() {
+        if (this.flushTask != null) {
+            this.flushTask.cancel();
+            this.flushTask = null;
+        }
+    }
+
+    private @Nullable Player findCarrier(@Nullable Player excluded) {
+        for (var player : Bukkit.getOnlinePlayers()) {
+            if (excluded != null && player.getUniqueId().equals(excluded.getUniqueId())) {
+                continue;
+            }
+            if (manager.isNotFake(player)) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    public synchronized void onDisable() {
+        this.cancelFlushTask();
+        this.pending.clear();
+        this.carrier = null;
+        this.carrierResolved = false;
+    }
+
+}
@@ -7,16 +7,28 @@ import io.github.hello09x.fakeplayer.core.Main;
 import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
+/**
+ * 清理创建者已经下线的假人
+ * <p>创建者退出时为其启动一个宽限计时, 时长为 {@code follow-quiting-delay}, 宽限期内重新加入则取消. 宽限期结束后非 BungeeCord 服务器直接清理</p>
+ * <p>BungeeCord 服务器上玩家可能只是切换到了其他服务器, 宽限期结束的创建者会合并到同一个 {@code PlayerList} 请求中确认.
+ * 确认仍在其他服务器在线的创建者每隔 {@link #RECHECK_PERIOD} tick 再确认一次, 直到其下线或回到本服务器.
+ * 回复由 {@link NetworkPresenceCache} 解析, 为其他创建者发出的请求同样会更新这些创建者的状态</p>
+ */
 @Singleton
-public class WildFakeplayerManager implements PluginMessageListener {
+public class WildFakeplayerManager implements PluginMessageListener, Listener {
 
     private final static Logger log = Main.getInstance().getLogger();
     private final static boolean IS_BUNGEECORD = Bukkit
@@ -28,22 +40,71 @@ public class WildFakeplayerManager implements PluginMessageListener {
     private final static String SUB_CHANNEL = "PlayerList";
 
     /**
-     * 定义探测到连续 n 次不在线时进行清理
+     * 再次确认在其他服务器在线的创建者的间隔(tick)
      * <br>
      * 仅在 {@link #IS_BUNGEECORD} 为 {@code true} 时生效
      */
-    private final static int CLEANUP_THRESHOLD = 2;
-    private final static int CLEANUP_PERIOD = 6000;
+    private final static int RECHECK_PERIOD = 6000;
 
     private final FakeplayerManager manager;
     private final FakeplayerConfig config;
-    private final Map<String, AtomicInteger> offline = new HashMap<>();
+    private final PluginMessageForwarder forwarder;
+    private final NetworkPresenceCache presence;
+
+    /**
+     * 宽限期中的创建者
+     */
+    private final Map<String, BukkitTask> graceTasks = new HashMap<>();
+
+    /**
+     * 等待在线列表确认的创建者
+     */
+    private final Set<String> awaiting = new HashSet<>();
+
+    /**
+     * 在其他服务器在线的创建者
+     */
+    private final Set<String> remote = new HashSet<>();
+
+    /**
+     * 同一 tick 内结束宽限期的创建者共用一个请求
+     */
+    @Nullable
+    private BukkitTask requestTask;
 
     @Inject
-    public WildFakeplayerManager(FakeplayerManager manager, FakeplayerConfig config) {
+    public WildFakeplayerManager(FakeplayerManager manager, FakeplayerConfig config, PluginMessageForwarder forwarder, NetworkPresenceCache presence) {
         this.manager = manager;
         this.config = config;
-        Bukkit.getScheduler().runTaskTimer(Main.getInstance(), this::cleanup, 0, CLEANUP_PERIOD);
+        this.forwarder = forwarder;
+        this.presence = presence;
+        if (IS_BUNGEECORD) {
+            Bukkit.getScheduler().runTaskTimer(Main.getInstance(), this::recheck, RECHECK_PERIOD, RECHECK_PERIOD);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(@NotNull PlayerQuitEvent event) {
+        var player = event.getPlayer();
+        if (!config.isFollowQuiting() || manager.isFake(player) || manager.countByCreator(player) == 0) {
+            return;
+        }
+
+        var creator = player.getName();
+        Optional.ofNullable(this.graceTasks.remove(creator)).ifPresent(BukkitTask::cancel);
+        this.graceTasks.put(creator, Bukkit.getScheduler().runTaskLater(Main.getInstance(), () -> {
+            this.graceTasks.remove(creator);
+            this.onGraceExpired(creator);
+        }, config.getFollowQuitingDelay()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(@NotNull PlayerJoinEvent event) {
+        var creator = event.getPlayer().getName();
+        Optional.ofNullable(this.graceTasks.remove(creator)).ifPresent(BukkitTask::cancel);
+        this.awaiting.remove(creator);
+        this.remote.remove(creator);
+        this.presence.untrack(creator);
     }
 
     @Override
@@ -56,100 +117,98 @@ public class WildFakeplayerManager implements PluginMessageListener {
             return;
         }
 
-        @SuppressWarnings("UnstableApiUsage")
-        var in = ByteStreams.newDataInput(message);
-        if (!in.readUTF().equals(SUB_CHANNEL)) {
+        var diff = this.presence.update(message);
+        if (diff == null) {
             return;
         }
 
-        if (!in.readUTF().equals("ALL")) {
-            return;
+        for (var creator : diff.left()) {
+            if (this.remote.remove(creator)) {
+                this.cleanup(creator);
+            }
         }
-
-        var players = new HashSet<String>();
-        players.addAll(Arrays.asList(in.readUTF().split(", ")));
-        players.addAll(Bukkit.getOnlinePlayers().stream().map(Player::getName).toList());
-        this.cleanup0(players);
+        this.confirm(diff.left());
     }
 
     /**
-     * 清除所有不在 {@code online} 列表中的玩家的假人
+     * 清理等待确认的创建者中已经不在线的玩家的假人
+     * <p>等待确认的创建者都已经被关注, 刚关注的玩家不在线时一定出现在下线列表中, 不在下线列表中即为在线</p>
      *
-     * @param online 在线玩家
+     * @param left 本次回复中下线的玩家
      */
-    public void cleanup0(@NotNull Set<String> online) {
-        @SuppressWarnings("all")
-        var group = manager.getAll()
-                           .stream()
-                           .collect(Collectors.groupingBy(manager::getCreatorName));
-
-        for (var entry : group.entrySet()) {
-            var creator = entry.getKey();
-            if (creator.equals("CONSOLE")) {
-                continue;
-            }
-
-            var targets = entry.getValue();
-            if (targets.isEmpty() || online.contains(creator)) {
-                continue;
-            }
-
-            if (offline.computeIfAbsent(creator, x -> new AtomicInteger()).incrementAndGet() < CLEANUP_THRESHOLD) {
-                continue;
+    private void confirm(@NotNull List<String> left) {
+        for (var creator : this.awaiting) {
+            if (!left.contains(creator) || Bukkit.getPlayerExact(creator) != null) {
+                this.remote.add(creator);
+            } else {
+                this.cleanup(creator);
             }
+        }
+        this.awaiting.clear();
+    }
 
-            for (var target : targets) {
-                manager.remove(target.getName(), "Creator offline");
-            }
-            log.info("%s is offline more than %d ticks, removing %d fake players".formatted(
-                    creator,
-                    CLEANUP_PERIOD * CLEANUP_THRESHOLD,
-                    targets.size())
-            );
+    private void onGraceExpired(@NotNull String creator) {
+        if (Bukkit.getPlayerExact(creator) != null) {
+            return;
         }
 
-        for (var player : online) {
-            offline.remove(player);
+        // 非 bungeeCord 服务器立即清理
+        if (!IS_BUNGEECORD) {
+            this.cleanup(creator);
+            return;
         }
+
+        this.presence.track(creator);
+        this.awaiting.add(creator);
+        this.scheduleRequest();
     }
 
     /**
-     * 清理召唤者下线的假人
+     * 再次确认在其他服务器在线的创建者
      */
-    public void cleanup() {
-        if (!config.isFollowQuiting()) {
+    private void recheck() {
+        if (this.remote.isEmpty()) {
             return;
         }
 
-        // 非 bungeeCord 服务器立即清理
-        if (!IS_BUNGEECORD) {
-            this.cleanup0(Bukkit.getOnlinePlayers().stream().map(Player::getName).collect(Collectors.toSet()));
+        this.awaiting.addAll(this.remote);
+        this.remote.clear();
+        this.scheduleRequest();
+    }
+
+    private void scheduleRequest() {
+        if (this.requestTask != null) {
             return;
         }
 
-        // BungeeCord 服务器请求获取所有服务器在线玩家后
-        // 在接收到在线列表后再进行清理
-        var recipient = Bukkit
-                .getServer()
-                .getOnlinePlayers()
-                .stream()
-                .filter(manager::isNotFake)
-                .findAny()
-                .orElse(null);
-
-        if (recipient == null) {
+        this.requestTask = Bukkit.getScheduler().runTask(Main.getInstance(), () -> {
+            this.requestTask = null;
+
+            // 没有真实玩家时无法询问 Proxy, 留到下一次再确认
+            if (forwarder.getCarrier() == null) {
+                this.remote.addAll(this.awaiting);
+                this.awaiting.clear();
+                return;
+            }
+
+            @SuppressWarnings("UnstableApiUsage")
+            var out = ByteStreams.newDataOutput();
+            out.writeUTF(SUB_CHANNEL);
+            out.writeUTF("ALL");
+            forwarder.forward(out.toByteArray());
+        });
+    }
+
+    private void cleanup(@NotNull String creator) {
+        this.presence.untrack(creator);
+        if (!config.isFollowQuiting()) {
             return;
         }
 
-        @SuppressWarnings("UnstableApiUsage")
-        var out = ByteStreams.newDataOutput();
-        out.writeUTF(SUB_CHANNEL);
-        out.writeUTF("ALL");
-        recipient.sendPluginMessage(
-                Main.getInstance(),
-                CHANNEL,
-                out.toByteArray()
-        );
+        var count = manager.removeByCreator(creator, "Creator offline");
+        if (count > 0) {
+            log.info("%s is offline, removed %d fake players".formatted(creator, count));
+        }
     }
 
 }
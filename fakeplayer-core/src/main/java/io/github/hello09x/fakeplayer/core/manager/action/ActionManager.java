@@ -8,6 +8,8 @@ import io.github.hello09x.fakeplayer.api.spi.ActionTicker;
 import io.github.hello09x.fakeplayer.api.spi.ActionType;
 import io.github.hello09x.fakeplayer.api.spi.NMSBridge;
 import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.manager.metrics.FakeplayerActionEvent;
+import io.github.hello09x.fakeplayer.core.manager.metrics.FakeplayerMetrics;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -26,10 +28,13 @@ public class ActionManager {
 
     private final NMSBridge bridge;
 
+    private final FakeplayerMetrics metrics;
+
 
     @Inject
-    public ActionManager(NMSBridge bridge) {
+    public ActionManager(NMSBridge bridge, FakeplayerMetrics metrics) {
         this.bridge = bridge;
+        this.metrics = metrics;
         Bukkit.getScheduler().runTaskTimer(Main.getInstance(), this::tick, 0, 1);
     }
 
@@ -56,6 +61,28 @@ public class ActionManager {
                       .collect(Collectors.toSet());
     }
 
+    /**
+     * 获取所有未结束的行为及其设置
+     *
+     * @param player 假人
+     * @return 行为设置的副本
+     */
+    public @NotNull Map<ActionType, ActionSetting> getActionSettings(@NotNull Player player) {
+        var manager = this.managers.get(player.getUniqueId());
+        if (manager == null || manager.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        var settings = new EnumMap<ActionType, ActionSetting>(ActionType.class);
+        for (var entry : manager.entrySet()) {
+            var setting = entry.getValue().getSetting();
+            if (setting.remains != 0) {
+                settings.put(entry.getKey(), setting.clone());
+            }
+        }
+        return settings;
+    }
+
     public void setAction(
             @NotNull Player player,
             @NotNull ActionType action,
@@ -94,9 +121,20 @@ public class ActionManager {
             }
 
             // do tick
-            entry.getValue().values().removeIf(ticker -> {
+            entry.getValue().entrySet().removeIf(action -> {
                 try {
-                    return ticker.tick();
+                    metrics.recordAction(action.getKey());
+                    var event = new FakeplayerActionEvent();
+                    event.begin();
+                    var finished = action.getValue().tick();
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.name = player.getName();
+                        event.action = action.getKey().name();
+                        event.finished = finished;
+                        event.commit();
+                    }
+                    return finished;
                 } catch (Throwable e) {
                     log.warning(Throwables.getStackTraceAsString(e));
                     return false;
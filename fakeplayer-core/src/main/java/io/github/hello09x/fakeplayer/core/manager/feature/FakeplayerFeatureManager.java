@@ -1,32 +1,65 @@
 package io.github.hello09x.fakeplayer.core.manager.feature;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.core.Main;
 import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
-import io.github.hello09x.fakeplayer.core.repository.UserConfigRepository;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerList;
+import io.github.hello09x.fakeplayer.core.repository.DatabaseExecutor;
 import io.github.hello09x.fakeplayer.core.repository.model.Feature;
 import io.github.hello09x.fakeplayer.core.repository.model.UserConfig;
+import io.github.hello09x.fakeplayer.core.repository.storage.FakeplayerStorage;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Logger;
 
+/**
+ * 假人特性配置
+ * <p>玩家保存过的配置会缓存在内存中, 玩家加入时异步加载, 退出或长时间未访问时移除. 修改配置时先更新缓存, 再由数据库写线程按顺序写入数据库</p>
+ */
 @Singleton
-public class FakeplayerFeatureManager {
+public class FakeplayerFeatureManager implements Listener {
 
-    private final UserConfigRepository repository;
+    private final static Logger log = Main.getInstance().getLogger();
+
+    private final FakeplayerStorage storage;
     private final FakeplayerConfig config;
+    private final DatabaseExecutor database;
+    private final FakeplayerList playerList;
+
+    /**
+     * 玩家保存过的配置
+     */
+    private final Cache<UUID, Map<Feature, String>> userConfigs = CacheBuilder
+            .newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+
+    /**
+     * 尚未写入数据库的配置, 加载时需要覆盖数据库中的值
+     */
+    private final Map<UUID, Map<Feature, String>> pendingWrites = new ConcurrentHashMap<>();
 
     @Inject
-    public FakeplayerFeatureManager(UserConfigRepository repository, FakeplayerConfig config) {
-        this.repository = repository;
+    public FakeplayerFeatureManager(FakeplayerStorage storage, FakeplayerConfig config, DatabaseExecutor database, FakeplayerList playerList) {
+        this.storage = storage;
         this.config = config;
+        this.database = database;
+        this.playerList = playerList;
     }
 
     private @NotNull String getDefaultOption(@NotNull Feature key) {
@@ -38,17 +71,16 @@ public class FakeplayerFeatureManager {
             return new FeatureInstance(key, this.getDefaultOption(key));
         }
 
-        String value = Optional.ofNullable(repository.selectByPlayerIdAndKey(player.getUniqueId(), key))
-                               .map(UserConfig::value)
+        String value = Optional.ofNullable(this.getUserConfigs(player.getUniqueId()).get(key))
                                .orElseGet(() -> this.getDefaultOption(key));
 
         return new FeatureInstance(key, value);
     }
 
     public @NotNull Map<Feature, FeatureInstance> getFeatures(@NotNull CommandSender sender) {
-        Map<Feature, UserConfig> userConfigs;
+        Map<Feature, String> userConfigs;
         if (sender instanceof Player player) {
-            userConfigs = repository.selectByPlayerId(player.getUniqueId()).stream().collect(Collectors.toMap(UserConfig::key, Function.identity()));
+            userConfigs = this.getUserConfigs(player.getUniqueId());
         } else {
             userConfigs = Collections.emptyMap();
         }
@@ -59,7 +91,7 @@ public class FakeplayerFeatureManager {
             if (!key.testPermissions(sender)) {
                 value = this.getDefaultOption(key);
             } else {
-                value = Optional.ofNullable(userConfigs.get(key)).map(UserConfig::value).orElseGet(() -> this.getDefaultOption(key));
+                value = Optional.ofNullable(userConfigs.get(key)).orElseGet(() -> this.getDefaultOption(key));
             }
             configs.put(key, new FeatureInstance(key, value));
         }
@@ -68,12 +100,68 @@ public class FakeplayerFeatureManager {
     }
 
     public void setFeature(@NotNull Player player, @NotNull Feature key, @NotNull String value) {
-        this.repository.saveOrUpdate(new UserConfig(
-                null,
-                player.getUniqueId(),
-                key,
-                value
-        ));
+        var playerId = player.getUniqueId();
+        this.pendingWrites.computeIfAbsent(playerId, x -> new ConcurrentHashMap<>()).put(key, value);
+        this.getUserConfigs(playerId).put(key, value);
+
+        this.database.write(() -> {
+            try {
+                this.storage.saveUserConfig(new UserConfig(
+                        null,
+                        playerId,
+                        key,
+                        value
+                ));
+            } catch (Throwable e) {
+                log.severe("Failed to save feature %s for %s: %s".formatted(key, playerId, Throwables.getStackTraceAsString(e)));
+            } finally {
+                this.pendingWrites.computeIfPresent(playerId, (k, pending) -> {
+                    pending.remove(key, value);
+                    return pending.isEmpty() ? null : pending;
+                });
+            }
+        });
+    }
+
+    /**
+     * 获取玩家保存过的配置, 缓存中没有时同步加载
+     */
+    private @NotNull Map<Feature, String> getUserConfigs(@NotNull UUID playerId) {
+        try {
+            return this.userConfigs.get(playerId, () -> this.load(playerId));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private @NotNull Map<Feature, String> load(@NotNull UUID playerId) {
+        var values = new ConcurrentHashMap<Feature, String>();
+        for (var userConfig : storage.selectUserConfigs(playerId)) {
+            values.put(userConfig.key(), userConfig.value());
+        }
+        Optional.ofNullable(this.pendingWrites.get(playerId)).ifPresent(values::putAll);
+        return values;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(@NotNull PlayerJoinEvent event) {
+        var playerId = event.getPlayer().getUniqueId();
+        // 假人不会保存配置, 不需要预先加载. FakeplayerManager 依赖这个类, 因此直接查询假人清单
+        if (this.playerList.getByUUID(playerId) != null) {
+            return;
+        }
+        this.database
+                .read(() -> this.load(playerId))
+                .thenAccept(values -> this.userConfigs.asMap().putIfAbsent(playerId, values))
+                .exceptionally(e -> {
+                    log.warning("Failed to load features for %s: %s".formatted(playerId, e.getMessage()));
+                    return null;
+                });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(@NotNull PlayerQuitEvent event) {
+        this.userConfigs.invalidate(event.getPlayer().getUniqueId());
     }
 
 }
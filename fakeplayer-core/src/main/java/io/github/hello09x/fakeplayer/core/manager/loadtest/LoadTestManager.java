@@ -0,0 +1,423 @@
+package io.github.hello09x.fakeplayer.core.manager.loadtest;
+
+import com.google.common.base.Throwables;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.api.spi.ActionSetting;
+import io.github.hello09x.fakeplayer.api.spi.ActionType;
+import io.github.hello09x.fakeplayer.api.spi.NMSBridge;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerSnapshotManager;
+import io.github.hello09x.fakeplayer.core.manager.action.ActionManager;
+import io.github.hello09x.fakeplayer.core.manager.metrics.FakeplayerMetrics;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * 按场景生成假人给服务器施加负载
+ * <p>生成位置、生成请求的顺序和每个假人在每个时刻的行为都由场景的随机种子决定, 同一个场景可以在修改前后重复运行并对比结果.
+ * 运行期间按固定间隔记录服务器 MSPT、内存、GC 以及假人 tick、行为和数据库的耗时, 结束后写入 {@code plugins/fakeplayer/loadtest} 下的 CSV 文件</p>
+ * <p>同一时间只能运行一个场景, 结束时会移除这个场景生成的所有假人</p>
+ */
+@Singleton
+public class LoadTestManager {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    private final static String CSV_HEADER = "tick,elapsed_ms,bots,mspt,tps,heap_used_mb,heap_committed_mb,gc_count,gc_ms,bot_tick_ms,action_ticks,storage_ms,spawns";
+
+    private final static DateTimeFormatter FILE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final FakeplayerManager manager;
+
+    private final ActionManager actionManager;
+
+    private final NMSBridge bridge;
+
+    private final FakeplayerMetrics metrics;
+
+    private final FakeplayerSnapshotManager snapshotManager;
+
+    private final Path scenarioFolder;
+
+    private final Path reportFolder;
+
+    private @Nullable Run running;
+
+    @Inject
+    public LoadTestManager(FakeplayerManager manager, ActionManager actionManager, NMSBridge bridge, FakeplayerMetrics metrics, FakeplayerSnapshotManager snapshotManager) {
+        this.manager = manager;
+        this.actionManager = actionManager;
+        this.bridge = bridge;
+        this.metrics = metrics;
+        this.snapshotManager = snapshotManager;
+        this.scenarioFolder = Main.getInstance().getDataFolder().toPath().resolve("scenarios");
+        this.reportFolder = Main.getInstance().getDataFolder().toPath().resolve("loadtest");
+
+        if (!Files.exists(this.scenarioFolder.resolve("example.yml"))) {
+            Main.getInstance().saveResource("scenarios/example.yml", false);
+        }
+    }
+
+    /**
+     * @return 所有场景的名称
+     */
+    public @NotNull List<String> getScenarioNames() {
+        try (var files = Files.list(this.scenarioFolder)) {
+            return files
+                    .map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(".yml"))
+                    .map(name -> name.substring(0, name.length() - ".yml".length()))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 开始运行场景, 必须在主线程中调用
+     *
+     * @param name 场景名称
+     * @return 场景
+     * @throws IllegalStateException    已经有场景在运行时
+     * @throws IllegalArgumentException 场景不存在或者不正确时
+     */
+    public @NotNull LoadTestScenario start(@NotNull String name) {
+        if (this.running != null) {
+            throw new IllegalStateException("Scenario " + this.running.scenario.name() + " is already running");
+        }
+
+        var file = this.scenarioFolder.resolve(name + ".yml").normalize();
+        if (!file.startsWith(this.scenarioFolder) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Scenario not found: " + name);
+        }
+
+        var scenario = LoadTestScenario.load(file.toFile());
+        this.running = new Run(scenario);
+        this.running.sample(this);
+        this.running.task = Bukkit.getScheduler().runTaskTimer(Main.getInstance(), this::tick, 1, 1);
+        log.info("Load test %s started: %d bots in %d ticks, then %d ticks".formatted(
+                scenario.name(),
+                scenario.bots(),
+                scenario.rampUpTicks(),
+                scenario.durationTicks()
+        ));
+        return scenario;
+    }
+
+    /**
+     * 停止正在运行的场景, 移除生成的假人并写入报告
+     *
+     * @return 报告文件, 没有场景在运行时为 {@code null}
+     */
+    public @Nullable File stop() {
+        var run = this.running;
+        if (run == null) {
+            return null;
+        }
+
+        var file = this.finish(run);
+        CompletableFuture.runAsync(() -> this.write(file, run.samples));
+        return file;
+    }
+
+    /**
+     * @return 正在运行的场景
+     */
+    public @Nullable LoadTestScenario getRunning() {
+        return this.running == null ? null : this.running.scenario;
+    }
+
+    private @NotNull File finish(@NotNull Run run) {
+        this.running = null;
+        if (run.task != null) {
+            run.task.cancel();
+        }
+        run.sample(this);
+
+        var removed = 0;
+        for (var bot : run.bots) {
+            if (bot.player != null && bot.player.isOnline() && this.remove(bot.player)) {
+                removed++;
+            }
+        }
+        log.info("Load test %s finished after %d ticks, removed %d bots".formatted(run.scenario.name(), run.tick, removed));
+
+        return this.reportFolder.resolve("%s-%s.csv".formatted(
+                run.scenario.name(),
+                LocalDateTime.now().format(FILE_TIME_FORMATTER)
+        )).toFile();
+    }
+
+    private void write(@NotNull File file, @NotNull List<String> samples) {
+        try {
+            Files.createDirectories(file.toPath().getParent());
+            var lines = new ArrayList<String>(samples.size() + 1);
+            lines.add(CSV_HEADER);
+            lines.addAll(samples);
+            Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warning("Failed to write load test report %s: %s".formatted(file, Throwables.getStackTraceAsString(e)));
+        }
+    }
+
+    private void tick() {
+        var run = this.running;
+        if (run == null) {
+            return;
+        }
+
+        run.tick++;
+        while (run.next < run.bots.size() && run.bots.get(run.next).spawnTick <= run.tick) {
+            this.spawn(run, run.bots.get(run.next++));
+        }
+
+        for (var bot : run.bots) {
+            if (bot.player == null || run.tick < bot.nextActionTick) {
+                continue;
+            }
+            if (!bot.player.isOnline()) {
+                bot.player = null;
+                continue;
+            }
+
+            // 行为按计划的时间表选择, 生成较慢的假人跳过错过的行为, 使每个时刻的行为只取决于种子
+            // 每个时间槽都抽取朝向, 不论行为是否需要, 否则跳过的行为会改变后续的随机数序列
+            LoadTestScenario.Behavior behavior;
+            float yaw;
+            do {
+                behavior = run.scenario.nextBehavior(bot.random);
+                yaw = (float) bot.random.nextDouble(-180, 180);
+                bot.nextActionTick += run.scenario.actionInterval();
+            } while (bot.nextActionTick <= run.tick);
+            this.act(bot, behavior, yaw);
+        }
+
+        if (run.tick % run.scenario.sampleInterval() == 0) {
+            run.sample(this);
+        }
+
+        if (run.tick >= run.scenario.rampUpTicks() + run.scenario.durationTicks()) {
+            this.stop();
+        }
+    }
+
+    private void spawn(@NotNull Run run, @NotNull Bot bot) {
+        var world = Bukkit.getWorld(bot.region.world());
+        if (world == null) {
+            log.warning("Load test %s: world %s does not exist".formatted(run.scenario.name(), bot.region.world()));
+            return;
+        }
+
+        world.getChunkAtAsync(bot.x >> 4, bot.z >> 4).thenCompose(chunk -> {
+            if (this.running != run) {
+                return CompletableFuture.completedFuture(null);
+            }
+            var location = new Location(world, bot.x + 0.5, world.getHighestBlockYAt(bot.x, bot.z) + 1, bot.z + 0.5);
+            return manager.spawnAsync(Bukkit.getConsoleSender(), null, location, 0);
+        }).whenComplete((player, e) -> Bukkit.getScheduler().runTask(Main.getInstance(), () -> {
+            if (e != null) {
+                log.warning("Load test %s: failed to spawn bot #%d: %s".formatted(run.scenario.name(), bot.index, Throwables.getRootCause(e).getMessage()));
+                return;
+            }
+            if (player == null) {
+                return;
+            }
+            if (this.running != run) {
+                // 场景在生成期间已经结束
+                this.remove(player);
+                return;
+            }
+            bot.player = player;
+        }));
+    }
+
+    private boolean remove(@NotNull Player player) {
+        snapshotManager.delete(player.getUniqueId());
+        return manager.remove(player.getName(), "load test finished");
+    }
+
+    private void act(@NotNull Bot bot, @NotNull LoadTestScenario.Behavior behavior, float yaw) {
+        var player = Objects.requireNonNull(bot.player);
+        var handle = bridge.fromPlayer(player);
+        actionManager.stop(player);
+        handle.setZza(0);
+        handle.setXxa(0);
+
+        switch (behavior) {
+            case WALK -> {
+                player.setRotation(yaw, 0);
+                handle.setZza(1);
+            }
+            case MINE -> actionManager.setAction(player, ActionType.MINE, ActionSetting.continuous());
+            case ATTACK -> actionManager.setAction(player, ActionType.ATTACK, ActionSetting.interval(10));
+            case USE -> actionManager.setAction(player, ActionType.USE, ActionSetting.interval(10));
+            case JUMP -> actionManager.setAction(player, ActionType.JUMP, ActionSetting.interval(10));
+            case IDLE -> {
+            }
+        }
+    }
+
+    public void onDisable() {
+        var run = this.running;
+        if (run == null) {
+            return;
+        }
+        this.write(this.finish(run), run.samples);
+    }
+
+    /**
+     * 一个假人的生成计划和状态
+     * <p>每个假人使用独立的随机数, 从计划的生成时间开始每隔 {@code action-interval} 选择一次行为. 生成请求按计划的顺序发出,
+     * 但区块加载和登录是异步的, 实际出现在世界中的时间和顺序仍受服务器负载影响</p>
+     */
+    private static final class Bot {
+
+        final int index;
+
+        final int spawnTick;
+
+        final LoadTestScenario.Region region;
+
+        final int x;
+
+        final int z;
+
+        final SplittableRandom random;
+
+        @Nullable Player player;
+
+        int nextActionTick;
+
+        Bot(int index, int spawnTick, LoadTestScenario.Region region, int x, int z, SplittableRandom random) {
+            this.index = index;
+            this.spawnTick = spawnTick;
+            this.nextActionTick = spawnTick;
+            this.region = region;
+            this.x = x;
+            this.z = z;
+            this.random = random;
+        }
+
+    }
+
+    /**
+     * 一次运行
+     */
+    private static final class Run {
+
+        final LoadTestScenario scenario;
+
+        final List<Bot> bots;
+
+        final List<String> samples = new ArrayList<>();
+
+        final long startAt = System.nanoTime();
+
+        @Nullable BukkitTask task;
+
+        int tick;
+
+        int next;
+
+        /**
+         * 上一行记录时的累计值
+         */
+        long gcCount, gcMillis, tickNanos, actionTicks, storageNanos, spawns;
+
+        Run(@NotNull LoadTestScenario scenario) {
+            this.scenario = scenario;
+
+            // 生成计划在开始时一次性确定, 不受生成耗时和服务器负载影响
+            var random = new SplittableRandom(scenario.seed());
+            var bots = new ArrayList<Bot>(scenario.bots());
+            for (int i = 0; i < scenario.bots(); i++) {
+                var region = scenario.regions().get(random.nextInt(scenario.regions().size()));
+                bots.add(new Bot(
+                        i,
+                        (int) ((long) i * scenario.rampUpTicks() / scenario.bots()),
+                        region,
+                        random.nextInt(region.minX(), region.maxX() + 1),
+                        random.nextInt(region.minZ(), region.maxZ() + 1),
+                        random.split()
+                ));
+            }
+            this.bots = bots;
+        }
+
+        /**
+         * 记录一行, 累计值记录与上一行的差, 第一行作为基准
+         */
+        void sample(@NotNull LoadTestManager manager) {
+            var heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            long gcCount = 0, gcMillis = 0;
+            for (var gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, gc.getCollectionCount());
+                gcMillis += Math.max(0, gc.getCollectionTime());
+            }
+            var tickNanos = manager.metrics.getTickNanos();
+            var actionTicks = manager.metrics.getActionTicks();
+            var storageNanos = manager.metrics.getStorageNanos();
+            var spawns = manager.metrics.getSpawnCount();
+
+            if (this.samples.isEmpty()) {
+                this.gcCount = gcCount;
+                this.gcMillis = gcMillis;
+                this.tickNanos = tickNanos;
+                this.actionTicks = actionTicks;
+                this.storageNanos = storageNanos;
+                this.spawns = spawns;
+            }
+
+            var bots = 0;
+            for (var bot : this.bots) {
+                if (bot.player != null && bot.player.isOnline()) {
+                    bots++;
+                }
+            }
+
+            this.samples.add(String.format(Locale.ROOT, "%d,%d,%d,%.2f,%.2f,%d,%d,%d,%d,%.2f,%d,%.2f,%d",
+                    this.tick,
+                    (System.nanoTime() - this.startAt) / 1_000_000,
+                    bots,
+                    Bukkit.getAverageTickTime(),
+                    Bukkit.getTPS()[0],
+                    heap.getUsed() >> 20,
+                    heap.getCommitted() >> 20,
+                    gcCount - this.gcCount,
+                    gcMillis - this.gcMillis,
+                    (tickNanos - this.tickNanos) / 1e6,
+                    actionTicks - this.actionTicks,
+                    (storageNanos - this.storageNanos) / 1e6,
+                    spawns - this.spawns
+            ));
+
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+            this.tickNanos = tickNanos;
+            this.actionTicks = actionTicks;
+            this.storageNanos = storageNanos;
+            this.spawns = spawns;
+        }
+
+    }
+
+}
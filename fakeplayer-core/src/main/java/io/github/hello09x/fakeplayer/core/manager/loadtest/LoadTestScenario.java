@@ -0,0 +1,177 @@
+package io.github.hello09x.fakeplayer.core.manager.loadtest;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * 压力测试场景, 从 {@code plugins/fakeplayer/scenarios/<name>.yml} 读取
+ *
+ * @param name           场景名称
+ * @param seed           随机种子, 相同的种子得到相同的生成位置、生成顺序和行为序列
+ * @param bots           假人数量
+ * @param rampUpTicks    在这段时间内均匀地生成所有假人
+ * @param durationTicks  全部生成之后继续运行的时间
+ * @param actionInterval 每个假人每隔多少 tick 重新选择一次行为
+ * @param sampleInterval 每隔多少 tick 记录一次服务器状态
+ * @param regions        生成区域, 每个假人随机选择一个
+ * @param actions        每种行为的权重
+ */
+public record LoadTestScenario(
+
+        @NotNull
+        String name,
+
+        long seed,
+
+        int bots,
+
+        int rampUpTicks,
+
+        int durationTicks,
+
+        int actionInterval,
+
+        int sampleInterval,
+
+        @NotNull
+        List<Region> regions,
+
+        @NotNull
+        Map<Behavior, Integer> actions
+
+) {
+
+    /**
+     * 读取场景文件
+     *
+     * @param file 场景文件
+     * @return 场景
+     * @throws IllegalArgumentException 场景文件不正确时
+     */
+    public static @NotNull LoadTestScenario load(@NotNull File file) {
+        var yaml = YamlConfiguration.loadConfiguration(file);
+        var name = file.getName().replaceFirst("\\.yml$", "");
+
+        var regions = new ArrayList<Region>();
+        for (var map : yaml.getMapList("regions")) {
+            var world = map.get("world");
+            if (!(world instanceof String w)) {
+                throw new IllegalArgumentException("Every region requires a world");
+            }
+            var region = new Region(w, getInt(map, "min-x"), getInt(map, "max-x"), getInt(map, "min-z"), getInt(map, "max-z"));
+            if (region.minX > region.maxX || region.minZ > region.maxZ) {
+                throw new IllegalArgumentException("Invalid region in world " + w);
+            }
+            regions.add(region);
+        }
+        if (regions.isEmpty()) {
+            throw new IllegalArgumentException("At least one region is required");
+        }
+
+        var actions = new EnumMap<Behavior, Integer>(Behavior.class);
+        var section = yaml.getConfigurationSection("actions");
+        if (section != null) {
+            for (var key : section.getKeys(false)) {
+                Behavior behavior;
+                try {
+                    behavior = Behavior.valueOf(key.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown action: " + key);
+                }
+                var weight = section.getInt(key);
+                if (weight > 0) {
+                    actions.put(behavior, weight);
+                }
+            }
+        }
+        if (actions.isEmpty()) {
+            actions.put(Behavior.IDLE, 1);
+        }
+
+        return new LoadTestScenario(
+                name,
+                yaml.getLong("seed", 0L),
+                Math.max(1, yaml.getInt("bots", 10)),
+                Math.max(1, yaml.getInt("ramp-up", 60)) * 20,
+                Math.max(0, yaml.getInt("duration", 300)) * 20,
+                Math.max(1, yaml.getInt("action-interval", 100)),
+                Math.max(1, yaml.getInt("sample-interval", 20)),
+                List.copyOf(regions),
+                Collections.unmodifiableMap(actions)
+        );
+    }
+
+    private static int getInt(@NotNull Map<?, ?> map, @NotNull String key) {
+        if (!(map.get(key) instanceof Number n)) {
+            throw new IllegalArgumentException("Every region requires " + key);
+        }
+        return n.intValue();
+    }
+
+    /**
+     * 根据权重选择一种行为
+     *
+     * @param random 随机数
+     * @return 行为
+     */
+    public @NotNull Behavior nextBehavior(@NotNull SplittableRandom random) {
+        var total = this.actions.values().stream().mapToInt(Integer::intValue).sum();
+        var n = random.nextInt(total);
+        for (var entry : this.actions.entrySet()) {
+            n -= entry.getValue();
+            if (n < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * 生成区域, 坐标为方块坐标, 包含边界
+     */
+    public record Region(
+
+            @NotNull
+            String world,
+
+            int minX,
+
+            int maxX,
+
+            int minZ,
+
+            int maxZ
+
+    ) {
+
+    }
+
+    /**
+     * 假人的行为
+     */
+    public enum Behavior {
+
+        /**
+         * 朝随机方向行走
+         */
+        WALK,
+
+        MINE,
+
+        ATTACK,
+
+        USE,
+
+        JUMP,
+
+        /**
+         * 什么都不做
+         */
+        IDLE
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package io.github.hello09x.fakeplayer.core.manager.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR 事件: 一个假人的一个行为的一次 tick
+ * <p>数量很多, 默认只记录耗时超过 1 毫秒的</p>
+ */
+@Name("fakeplayer.Action")
+@Label("Fake Player Action")
+@Category({"Fakeplayer"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class FakeplayerActionEvent extends Event {
+
+    @Label("Name")
+    public String name;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Finished")
+    public boolean finished;
+
+}
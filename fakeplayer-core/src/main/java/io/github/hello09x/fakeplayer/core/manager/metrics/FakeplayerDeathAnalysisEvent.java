@@ -0,0 +1,20 @@
+package io.github.hello09x.fakeplayer.core.manager.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR 事件: 分析一次假人死亡的原因
+ */
+@Name("fakeplayer.DeathAnalysis")
+@Label("Fake Player Death Analysis")
+@Category({"Fakeplayer"})
+@StackTrace(false)
+public class FakeplayerDeathAnalysisEvent extends Event {
+
+    @Label("Name")
+    public String name;
+
+    @Label("Reason")
+    public String reason;
+
+}
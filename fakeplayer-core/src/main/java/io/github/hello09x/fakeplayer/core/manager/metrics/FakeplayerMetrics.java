@@ -0,0 +1,144 @@
+package io.github.hello09x.fakeplayer.core.manager.metrics;
+
+import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.api.spi.ActionType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 假人运行指标
+ * <p>所有计数都使用 {@link LongAdder}, 可以在主线程和数据库线程中直接记录而不需要加锁. 由 {@link MetricsServer} 以 Prometheus 文本格式输出</p>
+ * <p>每秒生成次数可以通过 {@code rate(fakeplayer_spawn_duration_seconds_count[1m])} 得到</p>
+ */
+@Singleton
+public class FakeplayerMetrics {
+
+    /**
+     * 从开始登陆到传送到生成点为止的耗时
+     */
+    private final Histogram spawnDuration = new Histogram(0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10);
+
+    /**
+     * 每个假人每 tick 的耗时
+     */
+    private final Histogram tickDuration = new Histogram(0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025);
+
+    private final Histogram databaseRead = new Histogram(0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 1);
+
+    private final Histogram databaseWrite = new Histogram(0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 1);
+
+    /**
+     * 每种行为执行的 tick 次数, 创建后不再修改, 可以并发读取
+     */
+    private final Map<ActionType, LongAdder> actionTicks = new EnumMap<>(ActionType.class);
+
+    /**
+     * 因为 TPS 过低而移除所有假人的次数
+     */
+    private final LongAdder loadSheds = new LongAdder();
+
+    /**
+     * 因为 TPS 过低而移除的假人数量
+     */
+    private final LongAdder loadShedPlayers = new LongAdder();
+
+    public FakeplayerMetrics() {
+        for (var action : ActionType.values()) {
+            this.actionTicks.put(action, new LongAdder());
+        }
+    }
+
+    public void recordSpawn(long nanos) {
+        this.spawnDuration.observe(nanos);
+    }
+
+    public void recordTick(long nanos) {
+        this.tickDuration.observe(nanos);
+    }
+
+    public void recordAction(@NotNull ActionType action) {
+        this.actionTicks.get(action).increment();
+    }
+
+    public void recordDatabaseRead(long nanos) {
+        this.databaseRead.observe(nanos);
+    }
+
+    public void recordDatabaseWrite(long nanos) {
+        this.databaseWrite.observe(nanos);
+    }
+
+    /**
+     * @param removed 移除的假人数量
+     */
+    public void recordLoadShed(int removed) {
+        this.loadSheds.increment();
+        this.loadShedPlayers.add(removed);
+    }
+
+    /**
+     * @return 生成的假人数量
+     */
+    public long getSpawnCount() {
+        return this.spawnDuration.count();
+    }
+
+    /**
+     * @return 所有假人 tick 耗时之和(纳秒)
+     */
+    public long getTickNanos() {
+        return this.tickDuration.sumNanos();
+    }
+
+    /**
+     * @return 所有行为执行的 tick 次数之和
+     */
+    public long getActionTicks() {
+        return this.actionTicks.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * @return 数据库读取和写入耗时之和(纳秒)
+     */
+    public long getStorageNanos() {
+        return this.databaseRead.sumNanos() + this.databaseWrite.sumNanos();
+    }
+
+    /**
+     * 以 Prometheus 文本格式输出
+     *
+     * @param out 输出
+     */
+    public void write(@NotNull StringBuilder out) {
+        out.append("# HELP fakeplayer_spawn_duration_seconds Time from login to arriving at the spawn location\n");
+        out.append("# TYPE fakeplayer_spawn_duration_seconds histogram\n");
+        this.spawnDuration.write(out, "fakeplayer_spawn_duration_seconds", "");
+
+        out.append("# HELP fakeplayer_tick_duration_seconds Time spent ticking a single fake player\n");
+        out.append("# TYPE fakeplayer_tick_duration_seconds histogram\n");
+        this.tickDuration.write(out, "fakeplayer_tick_duration_seconds", "");
+
+        out.append("# HELP fakeplayer_action_ticks_total Action ticks executed by action type\n");
+        out.append("# TYPE fakeplayer_action_ticks_total counter\n");
+        this.actionTicks.forEach((action, count) -> out
+                .append("fakeplayer_action_ticks_total{action=\"").append(action.name()).append("\"} ")
+                .append(count.sum()).append('\n'));
+
+        out.append("# HELP fakeplayer_storage_operation_seconds Time spent on storage operations\n");
+        out.append("# TYPE fakeplayer_storage_operation_seconds histogram\n");
+        this.databaseRead.write(out, "fakeplayer_storage_operation_seconds", "op=\"read\"");
+        this.databaseWrite.write(out, "fakeplayer_storage_operation_seconds", "op=\"write\"");
+
+        out.append("# HELP fakeplayer_load_shed_total Times all fake players were removed because of low TPS\n");
+        out.append("# TYPE fakeplayer_load_shed_total counter\n");
+        out.append("fakeplayer_load_shed_total ").append(this.loadSheds.sum()).append('\n');
+
+        out.append("# HELP fakeplayer_load_shed_players_total Fake players removed because of low TPS\n");
+        out.append("# TYPE fakeplayer_load_shed_players_total counter\n");
+        out.append("fakeplayer_load_shed_players_total ").append(this.loadShedPlayers.sum()).append('\n');
+    }
+
+}
@@ -0,0 +1,24 @@
+package io.github.hello09x.fakeplayer.core.manager.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR 事件: 假人从开始登陆到传送到生成点为止
+ */
+@Name("fakeplayer.Spawn")
+@Label("Fake Player Spawn")
+@Category({"Fakeplayer"})
+@StackTrace(false)
+public class FakeplayerSpawnEvent extends Event {
+
+    @Label("Name")
+    public String name;
+
+    @Label("Spawning State Path")
+    @Description("How the fake player acquired the mob spawning ability")
+    public String path;
+
+    @Label("Success")
+    public boolean success;
+
+}
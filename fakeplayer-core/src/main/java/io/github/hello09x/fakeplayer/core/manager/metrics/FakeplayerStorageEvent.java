@@ -0,0 +1,21 @@
+package io.github.hello09x.fakeplayer.core.manager.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR 事件: 数据库线程中执行的一次读取或者写入
+ */
+@Name("fakeplayer.Storage")
+@Label("Fake Player Storage Operation")
+@Category({"Fakeplayer"})
+@StackTrace(false)
+public class FakeplayerStorageEvent extends Event {
+
+    @Label("Operation")
+    @Description("read, write or flush")
+    public String operation;
+
+    @Label("Success")
+    public boolean success;
+
+}
@@ -0,0 +1,22 @@
+package io.github.hello09x.fakeplayer.core.manager.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * JFR 事件: 一个假人的一次 tick
+ * <p>数量很多, 默认只记录耗时超过 1 毫秒的</p>
+ */
+@Name("fakeplayer.Tick")
+@Label("Fake Player Tick")
+@Category({"Fakeplayer"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class FakeplayerTickEvent extends Event {
+
+    @Label("Name")
+    public String name;
+
+    @Label("First Tick")
+    public boolean firstTick;
+
+}
@@ -0,0 +1,92 @@
+package io.github.hello09x.fakeplayer.core.manager.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定分桶的直方图, 记录时不加锁
+ * <p>每个桶只记录落在自己区间内的次数, 输出时再累加成 Prometheus 需要的累计值</p>
+ */
+public class Histogram {
+
+    /**
+     * 每个桶的上限(纳秒)
+     */
+    private final long[] bounds;
+
+    /**
+     * 最后一个桶对应 {@code +Inf}
+     */
+    private final LongAdder[] buckets;
+
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * @param boundsSeconds 每个桶的上限(秒), 从小到大
+     */
+    public Histogram(double @NotNull ... boundsSeconds) {
+        this.bounds = new long[boundsSeconds.length];
+        for (int i = 0; i < boundsSeconds.length; i++) {
+            this.bounds[i] = (long) (boundsSeconds[i] * 1_000_000_000D);
+        }
+        this.buckets = new LongAdder[boundsSeconds.length + 1];
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时(纳秒)
+     */
+    public void observe(long nanos) {
+        var i = 0;
+        while (i < this.bounds.length && nanos > this.bounds[i]) {
+            i++;
+        }
+        this.buckets[i].increment();
+        this.sum.add(nanos);
+    }
+
+    /**
+     * @return 记录的次数
+     */
+    public long count() {
+        var count = 0L;
+        for (var bucket : this.buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return 所有耗时之和(纳秒)
+     */
+    public long sumNanos() {
+        return this.sum.sum();
+    }
+
+    /**
+     * 以 Prometheus 文本格式输出
+     *
+     * @param out    输出
+     * @param name   指标名称
+     * @param labels 标签, 如 {@code op="read"}, 没有时为空字符串
+     */
+    public void write(@NotNull StringBuilder out, @NotNull String name, @NotNull String labels) {
+        var prefix = labels.isEmpty() ? "" : labels + ",";
+        var count = 0L;
+        for (int i = 0; i < this.buckets.length; i++) {
+            count += this.buckets[i].sum();
+            var le = i < this.bounds.length ? Double.toString(this.bounds[i] / 1_000_000_000D) : "+Inf";
+            out.append(name).append("_bucket{").append(prefix).append("le=\"").append(le).append("\"} ").append(count).append('\n');
+        }
+
+        var braces = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(braces).append(' ').append(this.sum.sum() / 1_000_000_000D).append('\n');
+        out.append(name).append("_count").append(braces).append(' ').append(count).append('\n');
+    }
+
+}
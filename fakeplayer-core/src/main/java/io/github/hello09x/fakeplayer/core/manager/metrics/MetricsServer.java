@@ -0,0 +1,152 @@
+package io.github.hello09x.fakeplayer.core.manager.metrics;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * 以 Prometheus 文本格式提供假人运行指标
+ * <p>使用 JDK 自带的 HTTP 服务器, 默认只监听本机地址. 按世界和创建者统计的在线假人数量需要在主线程中读取, 每次请求时回到主线程统计一次</p>
+ */
+@Singleton
+public class MetricsServer {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    private final static String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * 等待主线程统计在线假人的最长时间(毫秒)
+     */
+    private final static long GAUGE_TIMEOUT = 2000;
+
+    private final FakeplayerMetrics metrics;
+
+    private final FakeplayerManager manager;
+
+    private final FakeplayerConfig config;
+
+    @Nullable
+    private HttpServer server;
+
+    @Nullable
+    private ExecutorService executor;
+
+    @Inject
+    public MetricsServer(@NotNull FakeplayerMetrics metrics, @NotNull FakeplayerManager manager, @NotNull FakeplayerConfig config) {
+        this.metrics = metrics;
+        this.manager = manager;
+        this.config = config;
+    }
+
+    public void start() {
+        if (!config.isMetricsEnabled() || this.server != null) {
+            return;
+        }
+
+        try {
+            var server = HttpServer.create(new InetSocketAddress(config.getMetricsHost(), config.getMetricsPort()), 0);
+            var executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("fakeplayer-metrics").setDaemon(true).build());
+            server.createContext("/metrics", this::handle);
+            server.setExecutor(executor);
+            server.start();
+            this.server = server;
+            this.executor = executor;
+            log.info("Serving metrics on http://%s:%d/metrics".formatted(config.getMetricsHost(), config.getMetricsPort()));
+        } catch (IOException e) {
+            log.warning("Failed to start metrics server: " + e.getMessage());
+        }
+    }
+
+    private void handle(@NotNull HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            var out = new StringBuilder(4096);
+            this.metrics.write(out);
+            this.writeGauges(out);
+
+            var body = out.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    /**
+     * 输出按世界和创建者统计的在线假人数量, 主线程繁忙导致超时时不输出
+     */
+    private void writeGauges(@NotNull StringBuilder out) {
+        Gauges gauges;
+        try {
+            gauges = Bukkit.getScheduler().callSyncMethod(Main.getInstance(), this::collectGauges).get(GAUGE_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            return;
+        }
+
+        out.append("# HELP fakeplayer_alive Fake players alive by world\n");
+        out.append("# TYPE fakeplayer_alive gauge\n");
+        gauges.byWorld.forEach((world, count) -> out
+                .append("fakeplayer_alive{world=\"").append(escape(world)).append("\"} ")
+                .append(count).append('\n'));
+
+        out.append("# HELP fakeplayer_alive_by_creator Fake players alive by creator\n");
+        out.append("# TYPE fakeplayer_alive_by_creator gauge\n");
+        gauges.byCreator.forEach((creator, count) -> out
+                .append("fakeplayer_alive_by_creator{creator=\"").append(escape(creator)).append("\"} ")
+                .append(count).append('\n'));
+    }
+
+    private @NotNull Gauges collectGauges() {
+        var byWorld = new HashMap<String, Integer>();
+        var byCreator = new HashMap<String, Integer>();
+        for (Player player : manager.getAll()) {
+            byWorld.merge(player.getWorld().getName(), 1, Integer::sum);
+            byCreator.merge(Objects.requireNonNullElse(manager.getCreatorName(player), "CONSOLE"), 1, Integer::sum);
+        }
+        return new Gauges(byWorld, byCreator);
+    }
+
+    private static @NotNull String escape(@NotNull String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    public void onDisable() {
+        if (this.server != null) {
+            this.server.stop(0);
+            this.server = null;
+        }
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+    }
+
+    private record Gauges(@NotNull Map<String, Integer> byWorld, @NotNull Map<String, Integer> byCreator) {
+
+    }
+
+}
@@ -0,0 +1,281 @@
+package io.github.hello09x.fakeplayer.core.manager.naming;
+
+import com.google.common.base.Throwables;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.repository.DatabaseExecutor;
+import io.github.hello09x.fakeplayer.core.repository.UsedIdRepository;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerCreator;
+import io.github.hello09x.fakeplayer.core.repository.storage.FakeplayerStorage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Logger;
+
+/**
+ * 假人身份索引
+ * <p>启动时将所有登记过的名称和 UUID 加载到内存中, 分配身份时不再查询数据库. 新登记的身份会由数据库写线程定期批量写入数据库</p>
+ * <p>同时记录每个身份的创建者, 以及每个创建者创建过的身份, 重建假人时可以直接找到原来的创建者</p>
+ * <p>判断 UUID 是否被使用过时先经过布隆过滤器, 绝大部分真实玩家的 UUID 在这一步就能确定未被使用, 只有可能命中时才查询精确的集合</p>
+ */
+@Singleton
+public class IdentityIndex {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    /**
+     * 批量写入的间隔(毫秒)
+     */
+    private final static long FLUSH_INTERVAL = 1000;
+
+    /**
+     * 布隆过滤器的误判率
+     */
+    private final static double BLOOM_FPP = 0.001;
+
+    /**
+     * 布隆过滤器的最小容量
+     */
+    private final static int BLOOM_MIN_CAPACITY = 1024;
+
+    @SuppressWarnings("UnstableApiUsage")
+    private final static Funnel<UUID> UUID_FUNNEL = (uuid, into) -> into
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits());
+
+    private final FakeplayerStorage storage;
+
+    private final DatabaseExecutor database;
+
+    private final Map<String, UUID> uuidsByName = new ConcurrentHashMap<>();
+
+    private final Map<UUID, String> namesByUUID = new ConcurrentHashMap<>();
+
+    /**
+     * 假人 UUID -> 创建者
+     */
+    private final Map<UUID, FakePlayerCreator> creators = new ConcurrentHashMap<>();
+
+    /**
+     * 创建者 UUID -> 创建过的假人 UUID
+     */
+    private final Map<UUID, Set<UUID>> createdBy = new ConcurrentHashMap<>();
+
+    /**
+     * 旧版 {@code used-uuids.txt} 中记录的 UUID
+     */
+    private final Set<UUID> legacyUUIDs;
+
+    /**
+     * 所有被使用过的 UUID 的布隆过滤器, 登记的数量超过容量时会重建
+     */
+    private volatile BloomFilter<UUID> filter;
+
+    private volatile int filterCapacity;
+
+    /**
+     * 修改布隆过滤器时持有, 不使用 {@code this} 是为了不与 {@link #flush()} 的数据库写入互相等待
+     */
+    private final Object filterLock = new Object();
+
+    /**
+     * 尚未写入数据库的身份
+     */
+    private final Queue<Map.Entry<String, UUID>> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 尚未写入数据库的创建者
+     */
+    private final Map<UUID, FakePlayerCreator> pendingCreators = new ConcurrentHashMap<>();
+
+    @Inject
+    public IdentityIndex(@NotNull FakeplayerStorage storage, @NotNull DatabaseExecutor database, @NotNull UsedIdRepository legacyRepository) {
+        this.storage = storage;
+        this.database = database;
+        this.legacyUUIDs = Set.copyOf(legacyRepository.getAll());
+
+        var start = System.currentTimeMillis();
+        for (var profile : storage.selectAllProfiles()) {
+            var uuid = UUID.fromString(profile.uuid());
+            this.uuidsByName.put(profile.name(), uuid);
+            this.namesByUUID.put(uuid, profile.name());
+            var creator = profile.creator();
+            if (creator != null) {
+                this.putCreator(uuid, creator);
+            }
+        }
+        this.rebuildFilter();
+        log.info("Loaded %d fake player identities in %d ms".formatted(this.uuidsByName.size(), System.currentTimeMillis() - start));
+
+        database.scheduleWrite(this::flush, FLUSH_INTERVAL);
+    }
+
+    /**
+     * 根据名称获取 UUID
+     *
+     * @param name 名称
+     * @return UUID, 未登记时为 {@code null}
+     */
+    public @Nullable UUID getUUID(@NotNull String name) {
+        return this.uuidsByName.get(name);
+    }
+
+    /**
+     * 判断 UUID 是否被假人使用过, 包括旧版 {@code used-uuids.txt} 中记录的 UUID
+     *
+     * @param uuid UUID
+     * @return 是否被使用过
+     */
+    public boolean contains(@NotNull UUID uuid) {
+        if (!this.filter.mightContain(uuid)) {
+            return false;
+        }
+        return this.namesByUUID.containsKey(uuid) || this.legacyUUIDs.contains(uuid);
+    }
+
+    /**
+     * 登记一个新的身份, 稍后会批量写入数据库
+     *
+     * @param name 名称
+     * @param uuid UUID
+     */
+    public void register(@NotNull String name, @NotNull UUID uuid) {
+        this.uuidsByName.put(name, uuid);
+        this.namesByUUID.put(uuid, name);
+        this.pending.offer(Map.entry(name, uuid));
+
+        // 与重建互斥, 否则可能写入即将被替换的旧过滤器, 之后 contains 会误判为未使用
+        synchronized (this.filterLock) {
+            if (this.namesByUUID.size() + this.legacyUUIDs.size() > this.filterCapacity) {
+                this.rebuildFilter();
+            } else {
+                this.filter.put(uuid);
+            }
+        }
+    }
+
+    /**
+     * 获取假人的创建者
+     *
+     * @param uuid 假人 UUID
+     * @return 创建者, 由控制台等非玩家创建或者未记录时为 {@code null}
+     */
+    public @Nullable FakePlayerCreator getCreator(@NotNull UUID uuid) {
+        return this.creators.get(uuid);
+    }
+
+    /**
+     * 获取创建者创建过的所有假人
+     *
+     * @param creatorId 创建者 UUID
+     * @return 假人 UUID
+     */
+    public @NotNull Set<UUID> getCreatedBy(@NotNull UUID creatorId) {
+        return Collections.unmodifiableSet(this.createdBy.getOrDefault(creatorId, Collections.emptySet()));
+    }
+
+    /**
+     * 记录假人的创建者, 稍后会批量写入数据库
+     *
+     * @param uuid    假人 UUID
+     * @param creator 创建者
+     */
+    public void setCreator(@NotNull UUID uuid, @NotNull FakePlayerCreator creator) {
+        if (creator.equals(this.putCreator(uuid, creator))) {
+            return;
+        }
+        this.pendingCreators.put(uuid, creator);
+    }
+
+    private @Nullable FakePlayerCreator putCreator(@NotNull UUID uuid, @NotNull FakePlayerCreator creator) {
+        var previous = this.creators.put(uuid, creator);
+        if (previous != null && !previous.uuid().equals(creator.uuid())) {
+            this.createdBy.computeIfPresent(previous.uuid(), (key, uuids) -> {
+                uuids.remove(uuid);
+                return uuids.isEmpty() ? null : uuids;
+            });
+        }
+        this.createdBy.computeIfAbsent(creator.uuid(), key -> ConcurrentHashMap.newKeySet()).add(uuid);
+        return previous;
+    }
+
+    /**
+     * 按当前数量的两倍重新创建布隆过滤器, 布隆过滤器无法扩容, 超过容量后误判率会上升
+     */
+    private void rebuildFilter() {
+        synchronized (this.filterLock) {
+            var capacity = Math.max(BLOOM_MIN_CAPACITY, (this.namesByUUID.size() + this.legacyUUIDs.size()) * 2);
+            var filter = BloomFilter.create(UUID_FUNNEL, capacity, BLOOM_FPP);
+            this.namesByUUID.keySet().forEach(filter::put);
+            this.legacyUUIDs.forEach(filter::put);
+            this.filter = filter;
+            this.filterCapacity = capacity;
+        }
+    }
+
+    /**
+     * 将尚未写入的身份批量写入数据库
+     */
+    private synchronized void flush() {
+        if (this.pending.isEmpty() && this.pendingCreators.isEmpty()) {
+            return;
+        }
+
+        var batch = new LinkedHashMap<String, UUID>();
+        Map.Entry<String, UUID> entry;
+        while ((entry = this.pending.poll()) != null) {
+            batch.put(entry.getKey(), entry.getValue());
+        }
+
+        // 身份必须先于创建者写入, 更新创建者时需要身份已经存在
+        var creators = new HashMap<UUID, FakePlayerCreator>();
+        for (var uuid : this.pendingCreators.keySet()) {
+            var creator = this.pendingCreators.remove(uuid);
+            if (creator != null) {
+                creators.put(uuid, creator);
+            }
+        }
+
+        try {
+            if (!batch.isEmpty()) {
+                this.storage.insertProfiles(batch);
+            }
+        } catch (Throwable e) {
+            log.severe("Failed to save %d fake player identities, will retry later: %s".formatted(batch.size(), Throwables.getStackTraceAsString(e)));
+            this.requeue(batch, creators);
+            return;
+        }
+
+        try {
+            if (!creators.isEmpty()) {
+                this.storage.updateCreators(creators);
+            }
+        } catch (Throwable e) {
+            log.severe("Failed to save creators of %d fake players, will retry later: %s".formatted(creators.size(), Throwables.getStackTraceAsString(e)));
+            this.requeue(Collections.emptyMap(), creators);
+        }
+    }
+
+    /**
+     * 将写入失败的身份和创建者放回队列, 下次再写入. 期间被重新登记或者修改过的以新的值为准
+     */
+    private void requeue(@NotNull Map<String, UUID> batch, @NotNull Map<UUID, FakePlayerCreator> creators) {
+        batch.forEach((name, uuid) -> {
+            if (uuid.equals(this.uuidsByName.get(name))) {
+                this.pending.offer(Map.entry(name, uuid));
+            }
+        });
+        creators.forEach(this.pendingCreators::putIfAbsent);
+    }
+
+    public void onDisable() {
+        this.database.write(this::flush).join();
+    }
+
+}
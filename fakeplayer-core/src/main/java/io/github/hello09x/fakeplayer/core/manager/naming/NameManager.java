@@ -5,7 +5,6 @@ import com.google.inject.Singleton;
 import io.github.hello09x.fakeplayer.core.Main;
 import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
 import io.github.hello09x.fakeplayer.core.manager.naming.exception.IllegalCustomNameException;
-import io.github.hello09x.fakeplayer.core.repository.FakeplayerProfileRepository;
 import io.github.hello09x.fakeplayer.core.repository.UsedIdRepository;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -17,10 +16,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 import java.util.logging.Logger;
 
 import static net.kyori.adventure.text.Component.text;
@@ -35,16 +31,16 @@ public class NameManager {
     private final static int MIN_LENGTH = 3; // mojang required
 
     private final UsedIdRepository legacyUsedIdRepository;
-    private final FakeplayerProfileRepository profileRepository;
+    private final IdentityIndex identityIndex;
     private final FakeplayerConfig config;
     private final Map<String, NameSource> nameSources = new HashMap<>();
 
     private final String serverId;
 
     @Inject
-    public NameManager(UsedIdRepository legacyUsedIdRepository, FakeplayerProfileRepository profileRepository, FakeplayerConfig config) {
+    public NameManager(UsedIdRepository legacyUsedIdRepository, IdentityIndex identityIndex, FakeplayerConfig config) {
         this.legacyUsedIdRepository = legacyUsedIdRepository;
-        this.profileRepository = profileRepository;
+        this.identityIndex = identityIndex;
         this.config = config;
 
         var file = new File(Main.getInstance().getDataFolder(), "serverid");
@@ -82,7 +78,7 @@ public class NameManager {
      */
     private @NotNull UUID getUUIDFromName(@NotNull String name) {
         {
-            var uuid = profileRepository.selectUUIDByName(name);
+            var uuid = identityIndex.getUUID(name);
             if (uuid != null) {
                 return uuid;
             }
@@ -93,19 +89,20 @@ public class NameManager {
             var base = serverId + ":" + name;
             var legacyUUID = UUID.nameUUIDFromBytes(base.getBytes(StandardCharsets.UTF_8));
             if (legacyUsedIdRepository.contains(legacyUUID)) {
-                profileRepository.insert(name, legacyUUID);
+                identityIndex.register(name, legacyUUID);
                 legacyUsedIdRepository.remove(legacyUUID);
                 return legacyUUID;
             }
         }
 
         // 新逻辑
+        // 随机 UUID 与真实玩家碰撞的概率可以忽略, 因此不再读取玩家存档判断是否玩过
         for (int i = 0; i < 10; i++) {
             var uuid = UUID.randomUUID();
-            if (legacyUsedIdRepository.contains(uuid) || profileRepository.existsByUUID(uuid) || Bukkit.getOfflinePlayer(uuid).hasPlayedBefore()) {
+            if (identityIndex.contains(uuid)) {
                 continue;
             }
-            profileRepository.insert(name, uuid);
+            identityIndex.register(name, uuid);
             return uuid;
         }
 
@@ -160,7 +157,7 @@ public class NameManager {
 
         var player = Bukkit.getOfflinePlayer(name);
         var uuid = player.getUniqueId();
-        if (player.hasPlayedBefore() && !legacyUsedIdRepository.contains(uuid) && !profileRepository.existsByUUID(uuid)) {
+        if (player.hasPlayedBefore() && !identityIndex.contains(uuid)) {
             throw new IllegalCustomNameException(translatable(
                     "fakeplayer.spawn.error.name.used",
                     text(name, GOLD),
@@ -183,6 +180,36 @@ public class NameManager {
      * @return 序列名
      */
     public @NotNull SequenceName getRegularName(@NotNull CommandSender creator) {
+        var reserved = this.reserveRegularName(creator);
+        return new SequenceName(reserved.group(), reserved.sequence(), this.getUUIDFromName(reserved.name()), reserved.name());
+    }
+
+    /**
+     * 批量获取序列名
+     *
+     * @param creator 创建者
+     * @param count   数量
+     * @return 序列名
+     */
+    public @NotNull List<SequenceName> getRegularNames(@NotNull CommandSender creator, int count) {
+        var reserved = new ArrayList<ReservedName>(count);
+        for (int i = 0; i < count; i++) {
+            reserved.add(this.reserveRegularName(creator));
+        }
+
+        return reserved
+                .stream()
+                .map(r -> new SequenceName(r.group(), r.sequence(), this.getUUIDFromName(r.name()), r.name()))
+                .toList();
+    }
+
+    /**
+     * 占用一个序列名, 此时尚未分配 UUID
+     *
+     * @param creator 创建者
+     * @return 被占用的名称
+     */
+    private @NotNull ReservedName reserveRegularName(@NotNull CommandSender creator) {
         var source = config.getNameTemplate();
         if (source.isBlank()) {
             source = creator.getName();
@@ -193,7 +220,7 @@ public class NameManager {
         }
 
         for (int i = 0; i < 10; i++) {
-            var seq = nameSources.computeIfAbsent(source, ignored -> new NameSource(config.getPlayerLimit())).pop();
+            var seq = nameSources.computeIfAbsent(source, ignored -> new NameSource()).pop();
             var suffix = "_" + (seq + 1);
 
             String name;
@@ -207,7 +234,7 @@ public class NameManager {
                 continue;
             }
 
-            return new SequenceName(source, seq, this.getUUIDFromName(name), name);
+            return new ReservedName(source, seq, name);
         }
 
         String name;
@@ -217,7 +244,7 @@ public class NameManager {
                 continue;
             }
             log.warning("Failed to generate a regular name for fake player after 10 attempts, using a random name as fallback: " + name);
-            return new SequenceName("random", 0, this.getUUIDFromName(name), name);
+            return new ReservedName("random", 0, name);
         }
 
         throw new IllegalStateException("Failed to generate a name for fake player based on creator '%s'".formatted(creator.getName()));
@@ -242,5 +269,7 @@ public class NameManager {
         this.unregister(sn.group(), sn.sequence());
     }
 
+    private record ReservedName(@NotNull String group, int sequence, @NotNull String name) {
+    }
 
 }
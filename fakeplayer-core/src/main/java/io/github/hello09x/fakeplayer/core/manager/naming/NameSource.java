@@ -1,46 +1,23 @@
 package io.github.hello09x.fakeplayer.core.manager.naming;
 
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.BitSet;
 
 public class NameSource {
 
     /**
-     * 接下来可以使用的名称序号
+     * 已被使用的名称序号
      */
-    private final LinkedList<Integer> names;
+    private final BitSet used = new BitSet();
 
     /**
-     * 容量
-     */
-    private int capacity;
-
-    public NameSource(int initializeCapacity) {
-        this.capacity = initializeCapacity;
-        this.names = new LinkedList<>();
-        for (int i = 0; i < initializeCapacity; i++) {
-            names.add(i);
-        }
-    }
-
-    public NameSource() {
-        this(0);
-    }
-
-    /**
-     * 获取一个可使用的名称序号
+     * 获取一个可使用的名称序号, 总是返回最小的未使用序号
      *
      * @return 名称序号
      */
     public int pop() {
-        if (names.isEmpty()) {
-            var newCapacity = capacity * 2;
-            for (int i = capacity; i < newCapacity; i++) {
-                names.add(i);
-            }
-            this.capacity = newCapacity;
-        }
-        return names.pop();
+        var i = this.used.nextClearBit(0);
+        this.used.set(i);
+        return i;
     }
 
     /**
@@ -49,21 +26,11 @@ public class NameSource {
      * @param i 名称序号
      */
     public void push(int i) {
-        if (i >= capacity) {
-            return;
-        }
-
-        if (names.contains(i)) {
+        if (i < 0) {
             return;
         }
 
-        names.push(i);
-        this.sort();
+        this.used.clear(i);
     }
 
-    public void sort() {
-        Collections.sort(this.names);
-    }
-
-
 }
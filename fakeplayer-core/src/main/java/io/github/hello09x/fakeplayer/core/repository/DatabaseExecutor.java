@@ -0,0 +1,155 @@
+package io.github.hello09x.fakeplayer.core.repository;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.devtools.database.jdbc.JdbcTemplate;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.manager.metrics.FakeplayerMetrics;
+import io.github.hello09x.fakeplayer.core.manager.metrics.FakeplayerStorageEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * 数据库访问线程
+ * <p>SQLite 同一时间只允许一个写入, 所有写入都交给同一个线程按顺序执行, 避免互相等待锁; 读取由几个读线程执行. 开启 WAL 后读取不会被写入阻塞</p>
+ * <p>主线程不应该直接调用仓库, 而是通过这里拿到 {@link CompletableFuture} 再回到主线程处理结果</p>
+ */
+@Singleton
+public class DatabaseExecutor {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    private final static int READ_THREADS = 2;
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("fakeplayer-db-writer").setDaemon(true).build()
+    );
+
+    private final ExecutorService readers = Executors.newFixedThreadPool(
+            READ_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("fakeplayer-db-reader-%d").setDaemon(true).build()
+    );
+
+    private final FakeplayerMetrics metrics;
+
+    @Inject
+    public DatabaseExecutor(@NotNull JdbcTemplate jdbc, @NotNull FakeplayerMetrics metrics) {
+        this.metrics = metrics;
+        try {
+            jdbc.execute("PRAGMA journal_mode = WAL");
+            jdbc.execute("PRAGMA synchronous = NORMAL");
+        } catch (Throwable e) {
+            log.warning("Failed to enable WAL journal mode: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 在读线程中执行查询
+     *
+     * @param query 查询
+     * @return 查询结果
+     */
+    public <T> @NotNull CompletableFuture<T> read(@NotNull Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            var event = new FakeplayerStorageEvent();
+            var start = System.nanoTime();
+            event.begin();
+            var success = false;
+            try {
+                var result = query.get();
+                success = true;
+                return result;
+            } finally {
+                this.metrics.recordDatabaseRead(System.nanoTime() - start);
+                commit(event, "read", success);
+            }
+        }, this.readers);
+    }
+
+    /**
+     * 在写线程中执行修改
+     *
+     * @param update 修改
+     * @return 修改结果
+     */
+    public <T> @NotNull CompletableFuture<T> write(@NotNull Supplier<T> update) {
+        return CompletableFuture.supplyAsync(() -> {
+            var event = new FakeplayerStorageEvent();
+            var start = System.nanoTime();
+            event.begin();
+            var success = false;
+            try {
+                var result = update.get();
+                success = true;
+                return result;
+            } finally {
+                this.metrics.recordDatabaseWrite(System.nanoTime() - start);
+                commit(event, "write", success);
+            }
+        }, this.writer);
+    }
+
+    /**
+     * 在写线程中执行修改
+     *
+     * @param update 修改
+     */
+    public @NotNull CompletableFuture<Void> write(@NotNull Runnable update) {
+        return CompletableFuture.runAsync(this.timed(update, "write"), this.writer);
+    }
+
+    /**
+     * 在写线程中定期执行批量写入
+     *
+     * @param flush    批量写入
+     * @param interval 间隔(毫秒)
+     */
+    public void scheduleWrite(@NotNull Runnable flush, long interval) {
+        this.writer.scheduleWithFixedDelay(this.timed(flush, "flush"), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private @NotNull Runnable timed(@NotNull Runnable update, @NotNull String operation) {
+        return () -> {
+            var event = new FakeplayerStorageEvent();
+            var start = System.nanoTime();
+            event.begin();
+            var success = false;
+            try {
+                update.run();
+                success = true;
+            } finally {
+                this.metrics.recordDatabaseWrite(System.nanoTime() - start);
+                commit(event, operation, success);
+            }
+        };
+    }
+
+    private static void commit(@NotNull FakeplayerStorageEvent event, @NotNull String operation, boolean success) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    /**
+     * 必须在其他依赖这里写入的组件关闭之后调用
+     */
+    public void onDisable() {
+        this.readers.shutdown();
+        this.writer.shutdown();
+        try {
+            if (!this.writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warning("Timed out while waiting for pending database writes");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
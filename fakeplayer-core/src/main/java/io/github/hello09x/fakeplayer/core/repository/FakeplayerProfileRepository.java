@@ -5,7 +5,11 @@ import com.google.inject.Singleton;
 import io.github.hello09x.devtools.database.jdbc.JdbcTemplate;
 import io.github.hello09x.devtools.database.jdbc.rowmapper.BooleanRowMapper;
 import io.github.hello09x.fakeplayer.core.manager.FakeplayerDeathTracker;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerCreator;
 import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerProfile;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerRespawn;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerRespawnData;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerRespawnLocation;
 import org.bukkit.Location;
 import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
@@ -13,10 +17,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * @author tanyaofei
@@ -25,6 +26,16 @@ import java.util.UUID;
 @Singleton
 public class FakeplayerProfileRepository {
 
+    /**
+     * 单条语句最多包含多少行, SQLite 默认最多允许 999 个参数
+     */
+    private final static int MAX_ROWS_PER_STATEMENT = 400;
+
+    /**
+     * 批量保存位置时每行有 10 个参数
+     */
+    private final static int MAX_RESPAWN_ROWS_PER_STATEMENT = 90;
+
     private final JdbcTemplate jdbc;
 
     @Inject
@@ -38,6 +49,38 @@ public class FakeplayerProfileRepository {
         jdbc.update(sql, name, uuid.toString());
     }
 
+    /**
+     * 批量插入, 同一个分片内只有一条语句, SQLite 会在同一个隐式事务中完成. 已存在的名称或 UUID 会被忽略
+     *
+     * @param profiles 名称与 UUID
+     */
+    public void insertAll(@NotNull Map<String, UUID> profiles) {
+        var entries = new ArrayList<>(profiles.entrySet());
+        for (int from = 0; from < entries.size(); from += MAX_ROWS_PER_STATEMENT) {
+            var chunk = entries.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, entries.size()));
+            var sql = "INSERT OR IGNORE INTO fake_player_profile (name, uuid) VALUES " + String.join(", ", Collections.nCopies(chunk.size(), "(?, ?)"));
+            var args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i * 2] = chunk.get(i).getKey();
+                args[i * 2 + 1] = chunk.get(i).getValue().toString();
+            }
+            jdbc.update(sql, args);
+        }
+    }
+
+    /**
+     * 更新假人的创建者
+     *
+     * @param creators 假人 UUID 与创建者
+     */
+    public void updateCreators(@NotNull Map<UUID, FakePlayerCreator> creators) {
+        var sql = "UPDATE fake_player_profile SET creator_uuid = ?, creator_name = ? WHERE uuid = ?";
+        for (var entry : creators.entrySet()) {
+            var creator = entry.getValue();
+            jdbc.update(sql, creator.uuid().toString(), creator.name(), entry.getKey().toString());
+        }
+    }
+
     public boolean existsByUUID(@NotNull UUID uuid) {
         var sql = "SELECT EXISTS(SELECT 1 FROM fake_player_profile WHERE uuid = ?)";
         return Boolean.TRUE.equals(jdbc.queryForObject(sql, new BooleanRowMapper(), uuid.toString()));
@@ -47,6 +90,11 @@ public class FakeplayerProfileRepository {
         return Optional.ofNullable(this.selectByName(name)).map(FakePlayerProfile::uuid).map(UUID::fromString).orElse(null);
     }
 
+    public @NotNull List<FakePlayerProfile> selectAll() {
+        var sql = "SELECT * FROM fake_player_profile";
+        return jdbc.query(sql, FakePlayerProfile.FakePlayerProfileRowMapper.instance);
+    }
+
     public @Nullable FakePlayerProfile selectByName(@NotNull String name) {
         var sql = "SELECT * FROM fake_player_profile WHERE name = ?";
         return jdbc.queryForObject(sql, FakePlayerProfile.FakePlayerProfileRowMapper.instance, name);
@@ -74,6 +122,106 @@ public class FakeplayerProfileRepository {
         );
     }
 
+    /**
+     * 批量保存最后所在的位置, 已存在的记录只更新位置和重生标记, 死亡原因为 {@code null} 时保留原来的值
+     *
+     * @param locations     位置
+     * @param shouldRespawn 是否需要重生
+     * @param deathReasons  死亡原因
+     */
+    public void saveLastLocations(
+            @NotNull Map<UUID, FakePlayerRespawnLocation> locations,
+            @NotNull Map<UUID, Boolean> shouldRespawn,
+            @NotNull Map<UUID, FakeplayerDeathTracker.DeathReason> deathReasons
+    ) {
+        var entries = new ArrayList<>(locations.entrySet());
+        var now = System.currentTimeMillis();
+        for (int from = 0; from < entries.size(); from += MAX_RESPAWN_ROWS_PER_STATEMENT) {
+            var chunk = entries.subList(from, Math.min(from + MAX_RESPAWN_ROWS_PER_STATEMENT, entries.size()));
+            var sql = """
+                    INSERT INTO fake_player_respawn
+                    (player_uuid, last_world, last_x, last_y, last_z, last_yaw, last_pitch, death_reason, death_time, should_respawn)
+                    VALUES %s
+                    ON CONFLICT (player_uuid) DO UPDATE SET
+                        last_world = excluded.last_world,
+                        last_x = excluded.last_x,
+                        last_y = excluded.last_y,
+                        last_z = excluded.last_z,
+                        last_yaw = excluded.last_yaw,
+                        last_pitch = excluded.last_pitch,
+                        death_reason = coalesce(excluded.death_reason, fake_player_respawn.death_reason),
+                        death_time = excluded.death_time,
+                        should_respawn = excluded.should_respawn
+                    """.formatted(String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")));
+
+            var args = new ArrayList<>(chunk.size() * 10);
+            for (var entry : chunk) {
+                var uuid = entry.getKey();
+                var location = entry.getValue();
+                var reason = deathReasons.get(uuid);
+                args.add(uuid.toString());
+                args.add(location.world());
+                args.add(location.x());
+                args.add(location.y());
+                args.add(location.z());
+                args.add(location.yaw());
+                args.add(location.pitch());
+                args.add(reason != null ? reason.name() : null);
+                args.add(now);
+                args.add(shouldRespawn.getOrDefault(uuid, true) ? 1 : 0);
+            }
+            jdbc.update(sql, args.toArray());
+        }
+    }
+
+    /**
+     * 批量写入完整的重生数据, 已存在的记录会被覆盖, 死亡时间使用数据中的值
+     *
+     * @param respawns 重生数据
+     */
+    public void importRespawns(@NotNull Collection<FakePlayerRespawn> respawns) {
+        var rows = new ArrayList<>(respawns);
+        for (int from = 0; from < rows.size(); from += MAX_RESPAWN_ROWS_PER_STATEMENT) {
+            var chunk = rows.subList(from, Math.min(from + MAX_RESPAWN_ROWS_PER_STATEMENT, rows.size()));
+            var sql = """
+                    INSERT OR REPLACE INTO fake_player_respawn
+                    (player_uuid, last_world, last_x, last_y, last_z, last_yaw, last_pitch, death_reason, death_time, should_respawn)
+                    VALUES %s
+                    """.formatted(String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")));
+
+            var args = new ArrayList<>(chunk.size() * 10);
+            for (var respawn : chunk) {
+                var location = respawn.location();
+                var reason = respawn.deathReason();
+                args.add(respawn.playerUuid().toString());
+                args.add(location.world());
+                args.add(location.x());
+                args.add(location.y());
+                args.add(location.z());
+                args.add(location.yaw());
+                args.add(location.pitch());
+                args.add(reason != null ? reason.name() : null);
+                args.add(respawn.deathTime());
+                args.add(respawn.shouldRespawn() ? 1 : 0);
+            }
+            jdbc.update(sql, args.toArray());
+        }
+    }
+
+    /**
+     * 批量删除重生数据
+     *
+     * @param playerUuids 假人 UUID
+     */
+    public void clearRespawnData(@NotNull Collection<UUID> playerUuids) {
+        var uuids = new ArrayList<>(playerUuids);
+        for (int from = 0; from < uuids.size(); from += MAX_ROWS_PER_STATEMENT) {
+            var chunk = uuids.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, uuids.size()));
+            var sql = "DELETE FROM fake_player_respawn WHERE player_uuid IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            jdbc.update(sql, chunk.stream().map(UUID::toString).toArray());
+        }
+    }
+
     /**
      * Get the last saved location for a fake player
      */
@@ -172,14 +320,27 @@ public class FakeplayerProfileRepository {
     }
 
     /**
-     * Simple data class for respawn information
+     * 查询所有重生数据, 包括不需要重生的
      */
-    public static class FakePlayerRespawnData {
-        public String name;
-        public UUID uuid;
-        public String worldName;
-        public double x, y, z;
-        public float yaw, pitch;
+    public @NotNull List<FakePlayerRespawn> selectAllRespawns() {
+        var sql = "SELECT * FROM fake_player_respawn WHERE last_world IS NOT NULL";
+        return jdbc.query(sql, (rs, rowNum) -> {
+            var reason = rs.getString("death_reason");
+            return new FakePlayerRespawn(
+                    UUID.fromString(rs.getString("player_uuid")),
+                    new FakePlayerRespawnLocation(
+                            rs.getString("last_world"),
+                            rs.getDouble("last_x"),
+                            rs.getDouble("last_y"),
+                            rs.getDouble("last_z"),
+                            rs.getFloat("last_yaw"),
+                            rs.getFloat("last_pitch")
+                    ),
+                    reason != null ? FakeplayerDeathTracker.DeathReason.valueOf(reason) : null,
+                    rs.getLong("death_time"),
+                    rs.getInt("should_respawn") == 1
+            );
+        });
     }
 
     private void initTables() {
@@ -202,6 +363,17 @@ public class FakeplayerProfileRepository {
                                         on fake_player_profile (uuid);
                              """);
 
+        var columns = jdbc.query("pragma table_info(fake_player_profile)", (rs, rowNum) -> rs.getString("name"));
+        if (!columns.contains("creator_uuid")) {
+            jdbc.execute("alter table fake_player_profile add column creator_uuid text(36)");
+            jdbc.execute("alter table fake_player_profile add column creator_name text(32)");
+        }
+
+        jdbc.execute("""
+                             create index if not exists fake_player_profile_creator_uuid
+                                        on fake_player_profile (creator_uuid);
+                             """);
+
         // Smart Auto-Respawn table for tracking death/respawn data
         jdbc.execute("""
                              create table if not exists fake_player_respawn
@@ -9,6 +9,7 @@ import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerSkinRowMapp
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -45,6 +46,10 @@ public class FakeplayerSkinRepository {
         );
     }
 
+    public @NotNull List<FakePlayerSkin> selectAll() {
+        return jdbc.query("select * from fakeplayer_skin", FakePlayerSkinRowMapper.instance);
+    }
+
     public void initTables() {
         this.jdbc.update("""
                          create table if not exists fakeplayer_skin
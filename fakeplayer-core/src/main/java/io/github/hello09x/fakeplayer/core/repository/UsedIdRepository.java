@@ -12,6 +12,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -47,6 +48,10 @@ public class UsedIdRepository {
         return UUIDS.contains(uuid);
     }
 
+    public @NotNull Set<UUID> getAll() {
+        return Collections.unmodifiableSet(UUIDS);
+    }
+
     /**
      * 从文件里读取使用过的 UUIDs
      */
@@ -48,6 +48,11 @@ public class UserConfigRepository {
         return jdbc.query(sql, UserConfigRowMapper.instance, playerId.toString());
     }
 
+    public @NotNull List<UserConfig> selectAll() {
+        var sql = "select * from user_config";
+        return jdbc.query(sql, UserConfigRowMapper.instance);
+    }
+
     protected void initTables() {
         jdbc.execute("""
                              create table if not exists user_config
@@ -0,0 +1,23 @@
+package io.github.hello09x.fakeplayer.core.repository.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * 假人的创建者
+ *
+ * @param uuid 创建者 UUID
+ * @param name 创建者名称
+ */
+public record FakePlayerCreator(
+
+        @NotNull
+        UUID uuid,
+
+        @NotNull
+        String name
+
+) {
+
+}
@@ -6,6 +6,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.UUID;
 
 /**
  * @author tanyaofei
@@ -19,10 +20,26 @@ public record FakePlayerProfile(
         String name,
 
         @NotNull
-        String uuid
+        String uuid,
+
+        @Nullable
+        String creatorUuid,
+
+        @Nullable
+        String creatorName
 
 ) {
 
+    /**
+     * @return 创建者, 由控制台等非玩家创建时为 {@code null}
+     */
+    public @Nullable FakePlayerCreator creator() {
+        if (creatorUuid == null || creatorName == null) {
+            return null;
+        }
+        return new FakePlayerCreator(UUID.fromString(creatorUuid), creatorName);
+    }
+
     public static class FakePlayerProfileRowMapper implements RowMapper<FakePlayerProfile> {
 
         public final static FakePlayerProfileRowMapper instance = new FakePlayerProfileRowMapper();
@@ -32,7 +49,9 @@ public record FakePlayerProfile(
             return new FakePlayerProfile(
                     rs.getInt("id"),
                     rs.getString("name"),
-                    rs.getString("uuid")
+                    rs.getString("uuid"),
+                    rs.getString("creator_uuid"),
+                    rs.getString("creator_name")
             );
         }
 
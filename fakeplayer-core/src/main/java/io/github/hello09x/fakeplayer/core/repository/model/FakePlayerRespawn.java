@@ -0,0 +1,35 @@
+package io.github.hello09x.fakeplayer.core.repository.model;
+
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerDeathTracker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * 一条完整的重生数据, 用于在不同的存储之间迁移
+ *
+ * @param playerUuid    假人 UUID
+ * @param location      最后所在的位置
+ * @param deathReason   死亡原因
+ * @param deathTime     最后一次更新的时间
+ * @param shouldRespawn 是否需要重生
+ */
+public record FakePlayerRespawn(
+
+        @NotNull
+        UUID playerUuid,
+
+        @NotNull
+        FakePlayerRespawnLocation location,
+
+        @Nullable
+        FakeplayerDeathTracker.DeathReason deathReason,
+
+        long deathTime,
+
+        boolean shouldRespawn
+
+) {
+
+}
@@ -0,0 +1,14 @@
+package io.github.hello09x.fakeplayer.core.repository.model;
+
+import java.util.UUID;
+
+/**
+ * Simple data class for respawn information
+ */
+public class FakePlayerRespawnData {
+    public String name;
+    public UUID uuid;
+    public String worldName;
+    public double x, y, z;
+    public float yaw, pitch;
+}
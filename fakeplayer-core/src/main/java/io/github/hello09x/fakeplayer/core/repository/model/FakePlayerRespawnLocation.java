@@ -0,0 +1,52 @@
+package io.github.hello09x.fakeplayer.core.repository.model;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 假人最后所在的位置, 与 {@link Location} 不同, 这是一个不可变的值, 可以安全地交给其他线程写入数据库
+ *
+ * @param world 世界名称
+ */
+public record FakePlayerRespawnLocation(
+
+        @NotNull
+        String world,
+
+        double x,
+
+        double y,
+
+        double z,
+
+        float yaw,
+
+        float pitch
+
+) {
+
+    public static @NotNull FakePlayerRespawnLocation of(@NotNull Location location) {
+        return new FakePlayerRespawnLocation(
+                location.getWorld() != null ? location.getWorld().getName() : "world",
+                location.getX(),
+                location.getY(),
+                location.getZ(),
+                location.getYaw(),
+                location.getPitch()
+        );
+    }
+
+    /**
+     * @return 位置, 世界不存在时为 {@code null}
+     */
+    public @Nullable Location toLocation() {
+        var world = Bukkit.getWorld(this.world);
+        if (world == null) {
+            return null;
+        }
+        return new Location(world, x, y, z, yaw, pitch);
+    }
+
+}
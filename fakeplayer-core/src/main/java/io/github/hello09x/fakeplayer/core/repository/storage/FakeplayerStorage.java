@@ -0,0 +1,128 @@
+package io.github.hello09x.fakeplayer.core.repository.storage;
+
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerDeathTracker;
+import io.github.hello09x.fakeplayer.core.repository.model.*;
+import org.bukkit.Location;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * 假人数据存储
+ * <p>保存假人身份、重生数据、玩家的特性配置和皮肤. 通过 {@code storage.type} 选择实现. 大部分方法由 {@link io.github.hello09x.fakeplayer.core.repository.DatabaseExecutor} 的线程调用, 实现需要保证线程安全</p>
+ */
+public interface FakeplayerStorage {
+
+    /**
+     * @return 所有登记过的身份
+     */
+    @NotNull List<FakePlayerProfile> selectAllProfiles();
+
+    /**
+     * 批量登记身份, 已存在的名称或 UUID 会被忽略
+     *
+     * @param profiles 名称与 UUID
+     */
+    void insertProfiles(@NotNull Map<String, UUID> profiles);
+
+    /**
+     * 更新已登记身份的创建者
+     *
+     * @param creators 假人 UUID 与创建者
+     */
+    void updateCreators(@NotNull Map<UUID, FakePlayerCreator> creators);
+
+    /**
+     * 批量保存最后所在的位置, 已存在的记录只更新位置和重生标记, 死亡原因为 {@code null} 时保留原来的值
+     *
+     * @param locations     位置
+     * @param shouldRespawn 是否需要重生, 不存在时为 {@code true}
+     * @param deathReasons  死亡原因
+     */
+    void saveLastLocations(
+            @NotNull Map<UUID, FakePlayerRespawnLocation> locations,
+            @NotNull Map<UUID, Boolean> shouldRespawn,
+            @NotNull Map<UUID, FakeplayerDeathTracker.DeathReason> deathReasons
+    );
+
+    /**
+     * 批量写入完整的重生数据, 已存在的记录会被覆盖. 与 {@link #saveLastLocations(Map, Map, Map)} 不同, 保留原来的死亡时间, 用于在存储之间迁移
+     *
+     * @param respawns 重生数据
+     */
+    void importRespawns(@NotNull Collection<FakePlayerRespawn> respawns);
+
+    /**
+     * 批量删除重生数据
+     *
+     * @param playerUuids 假人 UUID
+     */
+    void clearRespawnData(@NotNull Collection<UUID> playerUuids);
+
+    /**
+     * 更新已有记录的重生标记
+     */
+    void setShouldRespawn(@NotNull UUID playerUuid, boolean shouldRespawn);
+
+    /**
+     * 更新已有记录的死亡原因
+     */
+    void setDeathReason(@NotNull UUID playerUuid, @NotNull FakeplayerDeathTracker.DeathReason reason);
+
+    /**
+     * @return 最后所在的位置, 不存在或者世界已经不存在时为 {@code null}
+     */
+    @Nullable Location getLastLocation(@NotNull UUID playerUuid);
+
+    /**
+     * @return 需要重生的假人
+     */
+    @NotNull List<FakePlayerRespawnData> getAllPlayersWithRespawnData();
+
+    /**
+     * @return 所有重生数据, 包括不需要重生的
+     */
+    @NotNull List<FakePlayerRespawn> selectAllRespawns();
+
+    @NotNull List<UserConfig> selectUserConfigs(@NotNull UUID playerId);
+
+    @NotNull List<UserConfig> selectAllUserConfigs();
+
+    void saveUserConfig(@NotNull UserConfig config);
+
+    @Nullable FakePlayerSkin selectSkin(@NotNull UUID creatorId, @NotNull UUID playerId);
+
+    @NotNull List<FakePlayerSkin> selectAllSkins();
+
+    void saveSkin(@NotNull FakePlayerSkin skin);
+
+    /**
+     * 将另一个存储中的所有数据复制到这里, 已存在的数据会被覆盖
+     *
+     * @param other 另一个存储
+     */
+    default void importFrom(@NotNull FakeplayerStorage other) {
+        var profiles = new LinkedHashMap<String, UUID>();
+        var creators = new HashMap<UUID, FakePlayerCreator>();
+        for (var profile : other.selectAllProfiles()) {
+            var uuid = UUID.fromString(profile.uuid());
+            profiles.put(profile.name(), uuid);
+            Optional.ofNullable(profile.creator()).ifPresent(creator -> creators.put(uuid, creator));
+        }
+        this.insertProfiles(profiles);
+        this.updateCreators(creators);
+
+        this.importRespawns(other.selectAllRespawns());
+
+        other.selectAllUserConfigs().forEach(this::saveUserConfig);
+        other.selectAllSkins().forEach(this::saveSkin);
+    }
+
+    /**
+     * 必须在所有写入完成之后调用
+     */
+    default void close() {
+    }
+
+}
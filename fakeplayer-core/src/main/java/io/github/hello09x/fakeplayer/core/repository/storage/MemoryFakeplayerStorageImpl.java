@@ -0,0 +1,563 @@
+package io.github.hello09x.fakeplayer.core.repository.storage;
+
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerDeathTracker;
+import io.github.hello09x.fakeplayer.core.repository.model.*;
+import org.bukkit.Location;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * 所有数据都保存在内存中, 每次修改都会追加到日志文件里, 启动时重放日志恢复数据
+ * <p>日志中的记录数超过当前数据量的两倍时会压缩: 将当前数据完整写入临时文件, 再替换原来的日志. 启动和关闭时也会压缩一次</p>
+ * <p>日志格式: 魔数, 版本号, 然后是若干条记录. 每条记录以 1 字节的类型开头, 后面是修改之后的完整数据. 服务器崩溃导致最后一条记录不完整时会被丢弃</p>
+ */
+public class MemoryFakeplayerStorageImpl implements FakeplayerStorage {
+
+    private final static Logger log = Main.getInstance().getLogger();
+
+    public final static String FILE_NAME = "storage.log";
+
+    private final static int MAGIC = 0x4650534C; // FPSL
+
+    private final static short VERSION = 1;
+
+    /**
+     * 日志中的记录数少于这个值时不压缩
+     */
+    private final static int COMPACT_MIN_RECORDS = 4096;
+
+    private final static byte OP_PROFILE = 1;
+
+    private final static byte OP_RESPAWN = 2;
+
+    private final static byte OP_RESPAWN_CLEAR = 3;
+
+    private final static byte OP_USER_CONFIG = 4;
+
+    private final static byte OP_SKIN = 5;
+
+    private final static byte OP_CREATOR = 6;
+
+    private final Path file;
+
+    private final Map<String, UUID> profiles = new LinkedHashMap<>();
+
+    private final Set<UUID> profileUUIDs = new HashSet<>();
+
+    /**
+     * 假人 UUID -> 创建者
+     */
+    private final Map<UUID, FakePlayerCreator> creators = new HashMap<>();
+
+    private final Map<UUID, FakePlayerRespawn> respawns = new HashMap<>();
+
+    private final Map<UUID, Map<Feature, String>> userConfigs = new HashMap<>();
+
+    /**
+     * 假人 UUID -> 创建者 UUID -> 皮肤来源 UUID
+     */
+    private final Map<UUID, Map<UUID, UUID>> skins = new HashMap<>();
+
+    private DataOutputStream out;
+
+    /**
+     * 日志中的记录数
+     */
+    private int records;
+
+    /**
+     * 当前的数据量, 即压缩之后的记录数
+     */
+    private int size;
+
+    /**
+     * 日志已经被替换, 但无法打开新的追加流, 追加的记录写入了旧文件, 下次追加时需要重新压缩
+     */
+    private boolean detached;
+
+    /**
+     * 压缩失败之后, 日志中的记录数超过这个值才再次尝试, 避免每次追加都重写整个日志
+     */
+    private int retryAt;
+
+    public MemoryFakeplayerStorageImpl(@NotNull Path file) {
+        this.file = file;
+        this.replay();
+        if (!this.compact()) {
+            throw new IllegalStateException("Failed to open " + file);
+        }
+    }
+
+    @Override
+    public synchronized @NotNull List<FakePlayerProfile> selectAllProfiles() {
+        var result = new ArrayList<FakePlayerProfile>(this.profiles.size());
+        var id = 0;
+        for (var entry : this.profiles.entrySet()) {
+            var creator = this.creators.get(entry.getValue());
+            result.add(new FakePlayerProfile(
+                    ++id,
+                    entry.getKey(),
+                    entry.getValue().toString(),
+                    creator != null ? creator.uuid().toString() : null,
+                    creator != null ? creator.name() : null
+            ));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void insertProfiles(@NotNull Map<String, UUID> profiles) {
+        this.append(out -> {
+            for (var entry : profiles.entrySet()) {
+                if (this.putProfile(entry.getKey(), entry.getValue())) {
+                    this.writeProfile(out, entry.getKey(), entry.getValue());
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized void updateCreators(@NotNull Map<UUID, FakePlayerCreator> creators) {
+        this.append(out -> {
+            for (var entry : creators.entrySet()) {
+                if (this.profileUUIDs.contains(entry.getKey()) && !entry.getValue().equals(this.putCreator(entry.getKey(), entry.getValue()))) {
+                    this.writeCreator(out, entry.getKey(), entry.getValue());
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized void saveLastLocations(
+            @NotNull Map<UUID, FakePlayerRespawnLocation> locations,
+            @NotNull Map<UUID, Boolean> shouldRespawn,
+            @NotNull Map<UUID, FakeplayerDeathTracker.DeathReason> deathReasons
+    ) {
+        var now = System.currentTimeMillis();
+        this.append(out -> {
+            for (var entry : locations.entrySet()) {
+                var playerUuid = entry.getKey();
+                var reason = deathReasons.get(playerUuid);
+                if (reason == null) {
+                    reason = Optional.ofNullable(this.respawns.get(playerUuid)).map(FakePlayerRespawn::deathReason).orElse(null);
+                }
+                var respawn = new FakePlayerRespawn(playerUuid, entry.getValue(), reason, now, shouldRespawn.getOrDefault(playerUuid, true));
+                this.putRespawnValue(respawn);
+                this.writeRespawn(out, respawn);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void importRespawns(@NotNull Collection<FakePlayerRespawn> respawns) {
+        this.append(out -> {
+            for (var respawn : respawns) {
+                this.putRespawnValue(respawn);
+                this.writeRespawn(out, respawn);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void clearRespawnData(@NotNull Collection<UUID> playerUuids) {
+        this.append(out -> {
+            for (var playerUuid : playerUuids) {
+                if (this.removeRespawn(playerUuid)) {
+                    this.writeRespawnClear(out, playerUuid);
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized void setShouldRespawn(@NotNull UUID playerUuid, boolean shouldRespawn) {
+        var old = this.respawns.get(playerUuid);
+        if (old == null) {
+            return;
+        }
+        this.putRespawn(new FakePlayerRespawn(playerUuid, old.location(), old.deathReason(), old.deathTime(), shouldRespawn));
+    }
+
+    @Override
+    public synchronized void setDeathReason(@NotNull UUID playerUuid, @NotNull FakeplayerDeathTracker.DeathReason reason) {
+        var old = this.respawns.get(playerUuid);
+        if (old == null) {
+            return;
+        }
+        this.putRespawn(new FakePlayerRespawn(playerUuid, old.location(), reason, System.currentTimeMillis(), old.shouldRespawn()));
+    }
+
+    @Override
+    public synchronized @Nullable Location getLastLocation(@NotNull UUID playerUuid) {
+        return Optional.ofNullable(this.respawns.get(playerUuid)).map(respawn -> respawn.location().toLocation()).orElse(null);
+    }
+
+    @Override
+    public synchronized @NotNull List<FakePlayerRespawnData> getAllPlayersWithRespawnData() {
+        var result = new ArrayList<FakePlayerRespawnData>();
+        for (var entry : this.profiles.entrySet()) {
+            var respawn = this.respawns.get(entry.getValue());
+            if (respawn == null || !respawn.shouldRespawn()) {
+                continue;
+            }
+
+            var location = respawn.location();
+            var data = new FakePlayerRespawnData();
+            data.name = entry.getKey();
+            data.uuid = entry.getValue();
+            data.worldName = location.world();
+            data.x = location.x();
+            data.y = location.y();
+            data.z = location.z();
+            data.yaw = location.yaw();
+            data.pitch = location.pitch();
+            result.add(data);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized @NotNull List<FakePlayerRespawn> selectAllRespawns() {
+        return new ArrayList<>(this.respawns.values());
+    }
+
+    @Override
+    public synchronized @NotNull List<UserConfig> selectUserConfigs(@NotNull UUID playerId) {
+        var result = new ArrayList<UserConfig>();
+        this.userConfigs.getOrDefault(playerId, Collections.emptyMap()).forEach((key, value) -> result.add(new UserConfig(null, playerId, key, value)));
+        return result;
+    }
+
+    @Override
+    public synchronized @NotNull List<UserConfig> selectAllUserConfigs() {
+        var result = new ArrayList<UserConfig>();
+        this.userConfigs.forEach((playerId, values) -> values.forEach((key, value) -> result.add(new UserConfig(null, playerId, key, value))));
+        return result;
+    }
+
+    @Override
+    public synchronized void saveUserConfig(@NotNull UserConfig config) {
+        this.putUserConfig(config.playerId(), config.key(), config.value());
+        this.append(out -> this.writeUserConfig(out, config.playerId(), config.key(), config.value()));
+    }
+
+    @Override
+    public synchronized @Nullable FakePlayerSkin selectSkin(@NotNull UUID creatorId, @NotNull UUID playerId) {
+        var targetId = this.skins.getOrDefault(playerId, Collections.emptyMap()).get(creatorId);
+        return targetId != null ? new FakePlayerSkin(playerId, creatorId, targetId) : null;
+    }
+
+    @Override
+    public synchronized @NotNull List<FakePlayerSkin> selectAllSkins() {
+        var result = new ArrayList<FakePlayerSkin>();
+        this.skins.forEach((playerId, targets) -> targets.forEach((creatorId, targetId) -> result.add(new FakePlayerSkin(playerId, creatorId, targetId))));
+        return result;
+    }
+
+    @Override
+    public synchronized void saveSkin(@NotNull FakePlayerSkin skin) {
+        this.putSkin(skin);
+        this.append(out -> this.writeSkin(out, skin));
+    }
+
+    @Override
+    public synchronized void close() {
+        this.compact();
+        try {
+            this.out.close();
+        } catch (IOException e) {
+            log.warning("Failed to close %s: %s".formatted(this.file.getFileName(), e.getMessage()));
+        }
+    }
+
+    private boolean putProfile(@NotNull String name, @NotNull UUID uuid) {
+        if (this.profiles.containsKey(name) || this.profileUUIDs.contains(uuid)) {
+            return false;
+        }
+        this.profiles.put(name, uuid);
+        this.profileUUIDs.add(uuid);
+        this.size++;
+        return true;
+    }
+
+    private @Nullable FakePlayerCreator putCreator(@NotNull UUID uuid, @NotNull FakePlayerCreator creator) {
+        var previous = this.creators.put(uuid, creator);
+        if (previous == null) {
+            this.size++;
+        }
+        return previous;
+    }
+
+    private void putRespawn(@NotNull FakePlayerRespawn respawn) {
+        this.putRespawnValue(respawn);
+        this.append(out -> this.writeRespawn(out, respawn));
+    }
+
+    private void putRespawnValue(@NotNull FakePlayerRespawn respawn) {
+        if (this.respawns.put(respawn.playerUuid(), respawn) == null) {
+            this.size++;
+        }
+    }
+
+    private boolean removeRespawn(@NotNull UUID playerUuid) {
+        if (this.respawns.remove(playerUuid) == null) {
+            return false;
+        }
+        this.size--;
+        return true;
+    }
+
+    private void putUserConfig(@NotNull UUID playerId, @NotNull Feature key, @NotNull String value) {
+        if (this.userConfigs.computeIfAbsent(playerId, x -> new EnumMap<>(Feature.class)).put(key, value) == null) {
+            this.size++;
+        }
+    }
+
+    private void putSkin(@NotNull FakePlayerSkin skin) {
+        if (this.skins.computeIfAbsent(skin.playerId(), x -> new HashMap<>()).put(skin.creatorId(), skin.targetId()) == null) {
+            this.size++;
+        }
+    }
+
+    /**
+     * 将记录追加到日志, 记录过多时压缩日志
+     */
+    private void append(@NotNull LogWriter writer) {
+        try {
+            writer.write(this.out);
+            this.out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + this.file.getFileName(), e);
+        }
+
+        if (this.detached || (this.records > COMPACT_MIN_RECORDS && this.records > this.size * 2 && this.records > this.retryAt)) {
+            this.compact();
+        }
+    }
+
+    /**
+     * 重放日志
+     */
+    private void replay() {
+        if (!Files.exists(this.file)) {
+            return;
+        }
+
+        var start = System.currentTimeMillis();
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a fake player storage log");
+            }
+            var version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported storage log version: " + version);
+            }
+
+            int op;
+            while ((op = in.read()) != -1) {
+                this.replay(op, in);
+                this.records++;
+            }
+        } catch (EOFException e) {
+            log.warning("%s is truncated, the last incomplete record is discarded".formatted(this.file.getFileName()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + this.file, e);
+        }
+
+        log.info("Replayed %d records from %s in %d ms".formatted(this.records, this.file.getFileName(), System.currentTimeMillis() - start));
+    }
+
+    private void replay(int op, @NotNull DataInputStream in) throws IOException {
+        switch (op) {
+            case OP_PROFILE -> this.putProfile(in.readUTF(), readUUID(in));
+            case OP_RESPAWN -> {
+                var respawn = new FakePlayerRespawn(
+                        readUUID(in),
+                        new FakePlayerRespawnLocation(in.readUTF(), in.readDouble(), in.readDouble(), in.readDouble(), in.readFloat(), in.readFloat()),
+                        in.readBoolean() ? valueOf(FakeplayerDeathTracker.DeathReason.class, in.readUTF()) : null,
+                        in.readLong(),
+                        in.readBoolean()
+                );
+                this.putRespawnValue(respawn);
+            }
+            case OP_RESPAWN_CLEAR -> this.removeRespawn(readUUID(in));
+            case OP_USER_CONFIG -> {
+                var playerId = readUUID(in);
+                var key = valueOf(Feature.class, in.readUTF());
+                var value = in.readUTF();
+                if (key != null) {
+                    this.putUserConfig(playerId, key, value);
+                }
+            }
+            case OP_CREATOR -> this.putCreator(readUUID(in), new FakePlayerCreator(readUUID(in), in.readUTF()));
+            case OP_SKIN -> this.putSkin(new FakePlayerSkin(readUUID(in), readUUID(in), readUUID(in)));
+            default -> throw new IOException("Unknown record type: " + op);
+        }
+    }
+
+    /**
+     * 压缩日志
+     * <p>先写入临时文件并替换原来的日志, 成功之后才切换到新的追加流. 任何一步失败时继续使用原来的日志和追加流, 之前追加的记录不会丢失</p>
+     *
+     * @return 是否成功
+     */
+    private boolean compact() {
+        var records = this.records;
+        this.records = 0;
+        var tmp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(this.file.getParent());
+            try (var fos = new FileOutputStream(tmp.toFile()); var snapshot = new DataOutputStream(new BufferedOutputStream(fos))) {
+                snapshot.writeInt(MAGIC);
+                snapshot.writeShort(VERSION);
+                for (var entry : this.profiles.entrySet()) {
+                    this.writeProfile(snapshot, entry.getKey(), entry.getValue());
+                }
+                for (var entry : this.creators.entrySet()) {
+                    this.writeCreator(snapshot, entry.getKey(), entry.getValue());
+                }
+                for (var respawn : this.respawns.values()) {
+                    this.writeRespawn(snapshot, respawn);
+                }
+                for (var entry : this.userConfigs.entrySet()) {
+                    for (var value : entry.getValue().entrySet()) {
+                        this.writeUserConfig(snapshot, entry.getKey(), value.getKey(), value.getValue());
+                    }
+                }
+                for (var entry : this.skins.entrySet()) {
+                    for (var target : entry.getValue().entrySet()) {
+                        this.writeSkin(snapshot, new FakePlayerSkin(entry.getKey(), target.getKey(), target.getValue()));
+                    }
+                }
+                snapshot.flush();
+                fos.getFD().sync();
+            }
+
+            Files.move(tmp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            this.records = records;
+            this.retryAt = records + COMPACT_MIN_RECORDS;
+            log.warning("Failed to compact %s: %s".formatted(this.file.getFileName(), e.getMessage()));
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+            }
+            return false;
+        }
+
+        var previous = this.out;
+        try {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.file, StandardOpenOption.APPEND)));
+        } catch (IOException e) {
+            // 新的日志已经包含所有数据, 在重新压缩成功之前暂时使用原来的追加流
+            this.detached = true;
+            log.warning("Failed to reopen %s: %s".formatted(this.file.getFileName(), e.getMessage()));
+            return false;
+        }
+
+        this.detached = false;
+        this.retryAt = 0;
+
+        if (previous != null) {
+            try {
+                previous.close();
+            } catch (IOException e) {
+                log.warning("Failed to close %s: %s".formatted(this.file.getFileName(), e.getMessage()));
+            }
+        }
+        return true;
+    }
+
+    private void writeProfile(@NotNull DataOutputStream out, @NotNull String name, @NotNull UUID uuid) throws IOException {
+        out.writeByte(OP_PROFILE);
+        out.writeUTF(name);
+        writeUUID(out, uuid);
+        this.records++;
+    }
+
+    private void writeCreator(@NotNull DataOutputStream out, @NotNull UUID uuid, @NotNull FakePlayerCreator creator) throws IOException {
+        out.writeByte(OP_CREATOR);
+        writeUUID(out, uuid);
+        writeUUID(out, creator.uuid());
+        out.writeUTF(creator.name());
+        this.records++;
+    }
+
+    private void writeRespawn(@NotNull DataOutputStream out, @NotNull FakePlayerRespawn respawn) throws IOException {
+        var location = respawn.location();
+        out.writeByte(OP_RESPAWN);
+        writeUUID(out, respawn.playerUuid());
+        out.writeUTF(location.world());
+        out.writeDouble(location.x());
+        out.writeDouble(location.y());
+        out.writeDouble(location.z());
+        out.writeFloat(location.yaw());
+        out.writeFloat(location.pitch());
+        out.writeBoolean(respawn.deathReason() != null);
+        if (respawn.deathReason() != null) {
+            out.writeUTF(respawn.deathReason().name());
+        }
+        out.writeLong(respawn.deathTime());
+        out.writeBoolean(respawn.shouldRespawn());
+        this.records++;
+    }
+
+    private void writeRespawnClear(@NotNull DataOutputStream out, @NotNull UUID playerUuid) throws IOException {
+        out.writeByte(OP_RESPAWN_CLEAR);
+        writeUUID(out, playerUuid);
+        this.records++;
+    }
+
+    private void writeUserConfig(@NotNull DataOutputStream out, @NotNull UUID playerId, @NotNull Feature key, @NotNull String value) throws IOException {
+        out.writeByte(OP_USER_CONFIG);
+        writeUUID(out, playerId);
+        out.writeUTF(key.name());
+        out.writeUTF(value);
+        this.records++;
+    }
+
+    private void writeSkin(@NotNull DataOutputStream out, @NotNull FakePlayerSkin skin) throws IOException {
+        out.writeByte(OP_SKIN);
+        writeUUID(out, skin.playerId());
+        writeUUID(out, skin.creatorId());
+        writeUUID(out, skin.targetId());
+        this.records++;
+    }
+
+    private static void writeUUID(@NotNull DataOutputStream out, @NotNull UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static @NotNull UUID readUUID(@NotNull DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    /**
+     * 旧日志中可能包含已经被移除的枚举, 忽略即可
+     */
+    private static <E extends Enum<E>> @Nullable E valueOf(@NotNull Class<E> type, @NotNull String name) {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface LogWriter {
+
+        void write(@NotNull DataOutputStream out) throws IOException;
+
+    }
+
+}
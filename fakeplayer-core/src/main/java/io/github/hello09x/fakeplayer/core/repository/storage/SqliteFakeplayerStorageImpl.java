@@ -0,0 +1,131 @@
+package io.github.hello09x.fakeplayer.core.repository.storage;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerDeathTracker;
+import io.github.hello09x.fakeplayer.core.repository.FakeplayerProfileRepository;
+import io.github.hello09x.fakeplayer.core.repository.FakeplayerSkinRepository;
+import io.github.hello09x.fakeplayer.core.repository.UserConfigRepository;
+import io.github.hello09x.fakeplayer.core.repository.model.*;
+import org.bukkit.Location;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 使用 SQLite 保存数据
+ */
+@Singleton
+public class SqliteFakeplayerStorageImpl implements FakeplayerStorage {
+
+    private final FakeplayerProfileRepository profileRepository;
+
+    private final UserConfigRepository userConfigRepository;
+
+    private final FakeplayerSkinRepository skinRepository;
+
+    @Inject
+    public SqliteFakeplayerStorageImpl(
+            @NotNull FakeplayerProfileRepository profileRepository,
+            @NotNull UserConfigRepository userConfigRepository,
+            @NotNull FakeplayerSkinRepository skinRepository
+    ) {
+        this.profileRepository = profileRepository;
+        this.userConfigRepository = userConfigRepository;
+        this.skinRepository = skinRepository;
+    }
+
+    @Override
+    public @NotNull List<FakePlayerProfile> selectAllProfiles() {
+        return profileRepository.selectAll();
+    }
+
+    @Override
+    public void insertProfiles(@NotNull Map<String, UUID> profiles) {
+        profileRepository.insertAll(profiles);
+    }
+
+    @Override
+    public void updateCreators(@NotNull Map<UUID, FakePlayerCreator> creators) {
+        profileRepository.updateCreators(creators);
+    }
+
+    @Override
+    public void saveLastLocations(
+            @NotNull Map<UUID, FakePlayerRespawnLocation> locations,
+            @NotNull Map<UUID, Boolean> shouldRespawn,
+            @NotNull Map<UUID, FakeplayerDeathTracker.DeathReason> deathReasons
+    ) {
+        profileRepository.saveLastLocations(locations, shouldRespawn, deathReasons);
+    }
+
+    @Override
+    public void importRespawns(@NotNull Collection<FakePlayerRespawn> respawns) {
+        profileRepository.importRespawns(respawns);
+    }
+
+    @Override
+    public void clearRespawnData(@NotNull Collection<UUID> playerUuids) {
+        profileRepository.clearRespawnData(playerUuids);
+    }
+
+    @Override
+    public void setShouldRespawn(@NotNull UUID playerUuid, boolean shouldRespawn) {
+        profileRepository.setShouldRespawn(playerUuid, shouldRespawn);
+    }
+
+    @Override
+    public void setDeathReason(@NotNull UUID playerUuid, @NotNull FakeplayerDeathTracker.DeathReason reason) {
+        profileRepository.setDeathReason(playerUuid, reason);
+    }
+
+    @Override
+    public @Nullable Location getLastLocation(@NotNull UUID playerUuid) {
+        return profileRepository.getLastLocation(playerUuid);
+    }
+
+    @Override
+    public @NotNull List<FakePlayerRespawnData> getAllPlayersWithRespawnData() {
+        return profileRepository.getAllPlayersWithRespawnData();
+    }
+
+    @Override
+    public @NotNull List<FakePlayerRespawn> selectAllRespawns() {
+        return profileRepository.selectAllRespawns();
+    }
+
+    @Override
+    public @NotNull List<UserConfig> selectUserConfigs(@NotNull UUID playerId) {
+        return userConfigRepository.selectByPlayerId(playerId);
+    }
+
+    @Override
+    public @NotNull List<UserConfig> selectAllUserConfigs() {
+        return userConfigRepository.selectAll();
+    }
+
+    @Override
+    public void saveUserConfig(@NotNull UserConfig config) {
+        userConfigRepository.saveOrUpdate(config);
+    }
+
+    @Override
+    public @Nullable FakePlayerSkin selectSkin(@NotNull UUID creatorId, @NotNull UUID playerId) {
+        return skinRepository.selectByCreatorIdAndPlayerId(creatorId, playerId);
+    }
+
+    @Override
+    public @NotNull List<FakePlayerSkin> selectAllSkins() {
+        return skinRepository.selectAll();
+    }
+
+    @Override
+    public void saveSkin(@NotNull FakePlayerSkin skin) {
+        skinRepository.insertOrUpdate(skin);
+    }
+
+}
@@ -44,6 +44,19 @@ public class Reflections {
         return getFistFieldByTypeIncludeParent(superclass, fieldType);
     }
 
+    public static @Nullable Field getDeclaredField(
+            @NotNull Class<?> clazz,
+            @NotNull String name
+    ) {
+        try {
+            var field = clazz.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
     public static @Nullable Field getFirstFieldByAssignFromType(
             @NotNull Class<?> clazz,
             @NotNull Class<?> fieldType,
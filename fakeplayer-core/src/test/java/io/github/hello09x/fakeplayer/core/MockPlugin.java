@@ -0,0 +1,36 @@
+package io.github.hello09x.fakeplayer.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Installs a mocked {@link Main} so classes that read the plugin logger in their static initializer can be loaded without a server
+ */
+public final class MockPlugin {
+
+    private MockPlugin() {
+    }
+
+    public static synchronized @NotNull Main install() {
+        var instance = Main.getInstance();
+        if (instance != null) {
+            return instance;
+        }
+
+        var plugin = mock(Main.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("fakeplayer-test"));
+        try {
+            var field = Main.class.getDeclaredField("instance");
+            field.setAccessible(true);
+            field.set(null, plugin);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        return plugin;
+    }
+
+}
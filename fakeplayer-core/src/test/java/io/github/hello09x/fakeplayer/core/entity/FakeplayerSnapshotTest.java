@@ -0,0 +1,98 @@
+package io.github.hello09x.fakeplayer.core.entity;
+
+import io.github.hello09x.fakeplayer.api.spi.ActionSetting;
+import io.github.hello09x.fakeplayer.api.spi.ActionType;
+import io.github.hello09x.fakeplayer.core.repository.model.Feature;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FakeplayerSnapshotTest {
+
+    @Test
+    void roundTrip() {
+        var features = new EnumMap<Feature, String>(Feature.class);
+        features.put(Feature.collidable, "false");
+        features.put(Feature.autofish, "true");
+
+        var attack = new ActionSetting(10, 20, 5);
+        attack.remains = 3;
+        var actions = new EnumMap<ActionType, ActionSetting>(ActionType.class);
+        actions.put(ActionType.ATTACK, attack);
+        actions.put(ActionType.USE, ActionSetting.continuous());
+
+        var snapshot = new FakeplayerSnapshot(
+                UUID.randomUUID(),
+                "steve_1",
+                UUID.randomUUID(),
+                "steve",
+                90.5F,
+                -30.25F,
+                true,
+                false,
+                4,
+                60_000L,
+                features,
+                actions
+        );
+
+        var decoded = FakeplayerSnapshot.decode(ByteBuffer.wrap(snapshot.encode()));
+        assertEquals(snapshot, decoded);
+    }
+
+    @Test
+    void roundTripWithoutCreator() {
+        var snapshot = new FakeplayerSnapshot(
+                UUID.randomUUID(),
+                "中文名称",
+                null,
+                "CONSOLE",
+                0F,
+                0F,
+                false,
+                true,
+                0,
+                0L,
+                new EnumMap<>(Feature.class),
+                new EnumMap<>(ActionType.class)
+        );
+
+        var decoded = FakeplayerSnapshot.decode(ByteBuffer.wrap(snapshot.encode()));
+        assertEquals(snapshot, decoded);
+        assertNull(decoded.creatorUUID());
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertThrows(IllegalArgumentException.class, () -> FakeplayerSnapshot.decode(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6})));
+        assertThrows(IllegalArgumentException.class, () -> FakeplayerSnapshot.decode(ByteBuffer.wrap(new byte[0])));
+    }
+
+    @Test
+    void rejectsTruncated() {
+        var snapshot = new FakeplayerSnapshot(
+                UUID.randomUUID(),
+                "alex",
+                null,
+                "CONSOLE",
+                0F,
+                0F,
+                false,
+                false,
+                0,
+                0L,
+                new EnumMap<>(Feature.class),
+                new EnumMap<>(ActionType.class)
+        );
+
+        var bytes = snapshot.encode();
+        var truncated = Arrays.copyOf(bytes, bytes.length - 3);
+        assertThrows(IllegalArgumentException.class, () -> FakeplayerSnapshot.decode(ByteBuffer.wrap(truncated)));
+    }
+
+}
@@ -0,0 +1,64 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DeathHistoryTest {
+
+    @Test
+    void countsWithinWindow() {
+        var history = new DeathHistory();
+        assertEquals(0, history.countSince(0));
+
+        history.add(100);
+        history.add(200);
+        history.add(300);
+        assertEquals(3, history.countSince(0));
+        assertEquals(2, history.countSince(150));
+        assertEquals(1, history.countSince(300));
+        assertEquals(0, history.countSince(301));
+    }
+
+    @Test
+    void overwritesOldest() {
+        var history = new DeathHistory();
+        for (int i = 1; i <= FakeplayerConfig.DEATH_HISTORY_SIZE + 1; i++) {
+            history.add(i);
+        }
+        assertEquals(FakeplayerConfig.DEATH_HISTORY_SIZE, history.countSince(0));
+        assertEquals(FakeplayerConfig.DEATH_HISTORY_SIZE, history.countSince(2));
+        assertEquals(1, history.countSince(FakeplayerConfig.DEATH_HISTORY_SIZE + 1));
+    }
+
+    @Test
+    void doublesUpToMaxDelay() {
+        assertEquals(5, DeathHistory.getDelay(1, 5, 300, 0));
+        assertEquals(10, DeathHistory.getDelay(2, 5, 300, 0));
+        assertEquals(20, DeathHistory.getDelay(3, 5, 300, 0));
+        assertEquals(300, DeathHistory.getDelay(10, 5, 300, 0));
+        assertEquals(300, DeathHistory.getDelay(100, 5, 300, 0));
+    }
+
+    @Test
+    void neverShorterThanDelay() {
+        assertEquals(60, DeathHistory.getDelay(3, 60, 10, 0));
+    }
+
+    @Test
+    void backsOffWithoutDelay() {
+        assertEquals(0, DeathHistory.getDelay(1, 0, 300, 0));
+        assertEquals(2, DeathHistory.getDelay(2, 0, 300, 0));
+        assertEquals(4, DeathHistory.getDelay(3, 0, 300, 0));
+    }
+
+    @Test
+    void parksAtMaxDeaths() {
+        assertEquals(40, DeathHistory.getDelay(4, 5, 300, 5));
+        assertEquals(-1, DeathHistory.getDelay(5, 5, 300, 5));
+        assertEquals(-1, DeathHistory.getDelay(6, 5, 300, 5));
+        assertEquals(300, DeathHistory.getDelay(1000, 5, 300, 0));
+    }
+
+}
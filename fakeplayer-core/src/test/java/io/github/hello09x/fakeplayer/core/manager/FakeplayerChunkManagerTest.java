@@ -0,0 +1,98 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import io.github.hello09x.fakeplayer.core.MockPlugin;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FakeplayerChunkManagerTest {
+
+    @BeforeAll
+    static void setUp() {
+        MockPlugin.install();
+    }
+
+    private static FakeplayerChunkManager.Holder bot(String name, int x, int z, boolean idle) {
+        return new FakeplayerChunkManager.Holder(name, "steve", "world", x, z, 1, idle);
+    }
+
+    private static FakeplayerChunkManager.BotStats stats(FakeplayerChunkManager.ChunkReport report, String name) {
+        return report.bots().stream().filter(stats -> stats.name().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void removesOnlyOneOfOverlappingBots() {
+        var a = bot("a", 0, 0, true);
+        var b = bot("b", 0, 0, true);
+        var player = new FakeplayerChunkManager.Holder("alex", null, "world", 1, 0, 0, false);
+
+        var report = FakeplayerChunkManager.compute(List.of(b, a), List.of(player));
+        assertEquals(List.of(a), report.redundant());
+        assertEquals(18, report.held());
+        assertEquals(9, report.distinct());
+
+        var stats = stats(report, "a");
+        assertEquals(9, stats.held());
+        assertEquals(9, stats.sharedWithBots());
+        assertEquals(1, stats.sharedWithPlayers());
+        assertEquals(0, stats.unique());
+
+        var creators = report.creators();
+        assertEquals(1, creators.size());
+        assertEquals(2, creators.get(0).bots());
+        assertEquals(18, creators.get(0).held());
+    }
+
+    @Test
+    void keepsBotsWithUniqueChunks() {
+        var a = bot("a", 0, 0, true);
+        var b = bot("b", 2, 0, true);
+
+        var report = FakeplayerChunkManager.compute(List.of(a, b), List.of());
+        assertEquals(List.of(), report.redundant());
+        assertEquals(18, report.held());
+        assertEquals(15, report.distinct());
+        assertEquals(6, stats(report, "a").unique());
+        assertEquals(3, stats(report, "a").sharedWithBots());
+    }
+
+    @Test
+    void keepsBusyBots() {
+        var a = bot("a", 0, 0, false);
+        var b = bot("b", 0, 0, true);
+
+        var report = FakeplayerChunkManager.compute(List.of(a, b), List.of());
+        assertEquals(List.of(b), report.redundant());
+    }
+
+    @Test
+    void separatesCreators() {
+        var a = bot("a", 0, 0, true);
+        var b = new FakeplayerChunkManager.Holder("b", "alex", "world", 0, 0, 1, true);
+
+        // 不同创建者的假人互相重叠时不会被移除, 但仍然计入共享的区块
+        var report = FakeplayerChunkManager.compute(List.of(a, b), List.of());
+        assertEquals(List.of(), report.redundant());
+        assertEquals(9, report.distinct());
+        assertEquals(9, stats(report, "a").sharedWithBots());
+        assertEquals(2, report.creators().size());
+
+        var c = bot("c", 0, 0, true);
+        report = FakeplayerChunkManager.compute(List.of(a, b, c), List.of());
+        assertEquals(List.of(a), report.redundant());
+    }
+
+    @Test
+    void separatesWorlds() {
+        var a = bot("a", 0, 0, true);
+        var b = new FakeplayerChunkManager.Holder("b", "steve", "world_nether", 0, 0, 1, true);
+
+        var report = FakeplayerChunkManager.compute(List.of(a, b), List.of());
+        assertEquals(List.of(), report.redundant());
+        assertEquals(18, report.distinct());
+    }
+
+}
@@ -0,0 +1,242 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import io.github.hello09x.devtools.database.DatabaseModule;
+import io.github.hello09x.fakeplayer.api.spi.ActionSetting;
+import io.github.hello09x.fakeplayer.api.spi.ActionType;
+import io.github.hello09x.fakeplayer.core.FakeplayerModule;
+import io.github.hello09x.fakeplayer.core.Main;
+import io.github.hello09x.fakeplayer.core.MockPlugin;
+import io.github.hello09x.fakeplayer.core.config.FakeplayerConfig;
+import io.github.hello09x.fakeplayer.core.config.PreventKicking;
+import io.github.hello09x.fakeplayer.core.config.StorageType;
+import io.github.hello09x.fakeplayer.core.manager.action.ActionManager;
+import io.github.hello09x.fakeplayer.core.manager.naming.IdentityIndex;
+import io.github.hello09x.fakeplayer.core.manager.naming.NameManager;
+import io.github.hello09x.fakeplayer.core.repository.DatabaseExecutor;
+import io.github.hello09x.fakeplayer.core.repository.model.Feature;
+import io.github.hello09x.fakeplayer.core.repository.storage.FakeplayerStorage;
+import io.github.hello09x.fakeplayer.core.stub.StubServer;
+import io.github.hello09x.fakeplayer.core.util.Attributes;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Location;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Boots the plugin's own module against {@link io.github.hello09x.fakeplayer.core.stub.StubNMSBridge} and a temporary SQLite file,
+ * then spawns, drives and removes a few thousand fake players without a server
+ * <p>The NMS side does nothing, so the numbers only cover the plugin's own bookkeeping: naming, identity, spawn pipeline, action and tick scheduling, storage</p>
+ * <p>Run with {@code -Dfakeplayer.harness.bots=10000} to change the number of fake players</p>
+ */
+class FakeplayerHarnessTest {
+
+    private final static Logger log = Logger.getLogger("fakeplayer-test");
+
+    private final static int BOTS = Integer.getInteger("fakeplayer.harness.bots", 2000);
+
+    private final static int ACTION_TICKS = 100;
+
+    private final static ActionType[] ACTIONS = {ActionType.JUMP, ActionType.ATTACK, ActionType.MINE, ActionType.USE};
+
+    @TempDir
+    Path dir;
+
+    private StubServer server;
+
+    private Injector injector;
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        var plugin = MockPlugin.install();
+        when(plugin.getDataFolder()).thenReturn(this.dir.toFile());
+        when(plugin.getName()).thenReturn("fakeplayer");
+        when(plugin.getConfig()).thenReturn(new YamlConfiguration());
+
+        this.server = StubServer.install();
+
+        var config = config();
+        this.injector = Guice.createInjector(
+                new FakeplayerModule(),
+                new DatabaseModule(),
+                binder -> binder.bind(FakeplayerConfig.class).toInstance(config)
+        );
+        setInjector(plugin, this.injector);
+    }
+
+    @AfterEach
+    void tearDown() throws ReflectiveOperationException {
+        try {
+            if (this.injector != null) {
+                this.injector.getInstance(FakeplayerManager.class).onDisable();
+                this.injector.getInstance(DatabaseExecutor.class).onDisable();
+            }
+        } finally {
+            StubServer.uninstall();
+            setInjector(Main.getInstance(), null);
+        }
+    }
+
+    private static void setInjector(Main plugin, @Nullable Injector injector) throws ReflectiveOperationException {
+        var field = Main.class.getDeclaredField("injector");
+        field.setAccessible(true);
+        field.set(plugin, injector);
+    }
+
+    private static FakeplayerConfig config() {
+        var config = mock(FakeplayerConfig.class);
+        when(config.getPlayerLimit()).thenReturn(Integer.MAX_VALUE);
+        when(config.getServerLimit()).thenReturn(Integer.MAX_VALUE);
+        when(config.getNameTemplate()).thenReturn("");
+        when(config.getNamePrefix()).thenReturn("");
+        when(config.getNamePattern()).thenReturn(Pattern.compile("^[a-zA-Z0-9_]+$"));
+        when(config.getNameStyleColor()).thenReturn(NamedTextColor.WHITE);
+        when(config.getNameStyleDecorations()).thenReturn(List.of());
+        when(config.getPreventKicking()).thenReturn(PreventKicking.ON_SPAWNING);
+        when(config.getPreSpawnCommands()).thenReturn(List.of());
+        when(config.getDefaultFeatures()).thenReturn(Arrays.stream(Feature.values()).collect(Collectors.toMap(Function.identity(), ignored -> "false")));
+        when(config.getSpawnPreLoginThreads()).thenReturn(4);
+        when(config.getSpawnLoginsPerTick()).thenReturn(100);
+        when(config.getMaxConcurrentChunkLoads()).thenReturn(8);
+        when(config.getStorageType()).thenReturn(StorageType.SQLITE);
+        return config;
+    }
+
+    private static Player creator() {
+        var creator = mock(Player.class, withSettings().stubOnly());
+        when(creator.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(creator.getName()).thenReturn("harness");
+        when(creator.isOp()).thenReturn(true);
+        when(creator.hasPermission(anyString())).thenReturn(true);
+        return creator;
+    }
+
+    /**
+     * Bytes allocated by all live threads, the pre-login and database threads included
+     */
+    private static long allocated() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        var deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (!future.isDone()) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out after %d ticks".formatted(this.server.getCurrentTick()));
+            }
+            this.server.tick();
+        }
+        return future.join();
+    }
+
+    @Test
+    void spawnActAndRemove() {
+        var manager = this.injector.getInstance(FakeplayerManager.class);
+        var playerList = this.injector.getInstance(FakeplayerList.class);
+        var actionManager = this.injector.getInstance(ActionManager.class);
+        var nameManager = this.injector.getInstance(NameManager.class);
+        var spawnMetrics = this.injector.getInstance(FakeplayerSpawnMetrics.class);
+        var storage = this.injector.getInstance(FakeplayerStorage.class);
+        this.server.onQuit(manager::cleanup);
+
+        var creator = creator();
+        var spawnAt = new Location(this.server.getWorld(), 0, 64, 0);
+
+        // 血量属性需要服务端的注册表
+        try (var ignored = mockStatic(Attributes.class)) {
+            var allocated = allocated();
+            var start = System.nanoTime();
+            var result = this.await(manager.spawnBatchAsync(creator, BOTS, spawnAt, 0));
+            for (int i = 0; i < 20; i++) {
+                this.server.tick();  // 传送和第一次 tick
+            }
+            var spawnNanos = System.nanoTime() - start;
+            var spawnBytes = allocated() - allocated;
+
+            assertEquals(List.of(), result.failures());
+            assertEquals(BOTS, result.spawned().size());
+            assertEquals(BOTS, playerList.getSize());
+            assertEquals(BOTS, this.server.getOnlineCount());
+            assertEquals(BOTS, spawnMetrics.summarize().get(FakeplayerSpawnMetrics.SpawningStatePath.DIRECT).count());
+            log.info("Spawned %d fake players in %d ms (%.0f/s, %d KiB allocated per spawn)".formatted(
+                    BOTS,
+                    TimeUnit.NANOSECONDS.toMillis(spawnNanos),
+                    BOTS * 1e9 / spawnNanos,
+                    spawnBytes / BOTS / 1024
+            ));
+
+            var players = manager.getAll();
+            for (int i = 0; i < players.size(); i++) {
+                actionManager.setAction(players.get(i), ACTIONS[i % ACTIONS.length], ActionSetting.interval(2));
+            }
+            allocated = allocated();
+            start = System.nanoTime();
+            for (int i = 0; i < ACTION_TICKS; i++) {
+                this.server.tick();
+            }
+            var tickNanos = System.nanoTime() - start;
+            var tickBytes = allocated() - allocated;
+
+            for (int i = 0; i < players.size(); i++) {
+                assertEquals(Set.of(ACTIONS[i % ACTIONS.length]), actionManager.getActionSettings(players.get(i)).keySet());
+            }
+            log.info("Ticked %d fake players with actions for %d ticks in %d ms (%.2f us per player tick, %d bytes allocated per player tick)".formatted(
+                    BOTS,
+                    ACTION_TICKS,
+                    TimeUnit.NANOSECONDS.toMillis(tickNanos),
+                    tickNanos / 1e3 / ACTION_TICKS / BOTS,
+                    tickBytes / ACTION_TICKS / BOTS
+            ));
+
+            allocated = allocated();
+            start = System.nanoTime();
+            assertEquals(BOTS, manager.removeAll(null));
+            this.server.tick();
+            var removeNanos = System.nanoTime() - start;
+            var removeBytes = allocated() - allocated;
+
+            assertEquals(0, playerList.getSize());
+            assertEquals(0, this.server.getOnlineCount());
+            for (var player : players) {
+                assertEquals(Map.of(), actionManager.getActionSettings(player));
+            }
+            log.info("Removed %d fake players in %d ms (%.0f/s, %d KiB allocated per removal)".formatted(
+                    BOTS,
+                    TimeUnit.NANOSECONDS.toMillis(removeNanos),
+                    BOTS * 1e9 / removeNanos,
+                    removeBytes / BOTS / 1024
+            ));
+        }
+
+        // 名称归还之后再次生成会复用同样的名称和 UUID
+        assertEquals("harness_1", nameManager.getRegularName(creator).name());
+
+        this.injector.getInstance(IdentityIndex.class).onDisable();
+        assertEquals(BOTS, storage.selectAllProfiles().size());
+    }
+
+}
@@ -0,0 +1,132 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import io.github.hello09x.fakeplayer.core.MockPlugin;
+import io.github.hello09x.fakeplayer.core.repository.DatabaseExecutor;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerRespawnLocation;
+import io.github.hello09x.fakeplayer.core.repository.storage.FakeplayerStorage;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.*;
+
+class FakeplayerRespawnWriterTest {
+
+    private FakeplayerStorage storage;
+
+    private FakeplayerRespawnWriter writer;
+
+    private World world;
+
+    @BeforeAll
+    static void setUpPlugin() {
+        MockPlugin.install();
+    }
+
+    @BeforeEach
+    void setUp() {
+        this.storage = mock(FakeplayerStorage.class);
+        var database = mock(DatabaseExecutor.class);
+        when(database.write(any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return CompletableFuture.completedFuture(null);
+        });
+        this.writer = new FakeplayerRespawnWriter(this.storage, database);
+
+        this.world = mock(World.class);
+        when(this.world.getName()).thenReturn("world");
+    }
+
+    private Location at(double x) {
+        return new Location(this.world, x, 64, 0);
+    }
+
+    @Test
+    void coalescesToLatestLocation() {
+        var uuid = UUID.randomUUID();
+        this.writer.saveLastLocation(uuid, this.at(1), true);
+        this.writer.saveLastLocation(uuid, this.at(2), true);
+        this.writer.saveDeath(uuid, this.at(3), FakeplayerDeathTracker.DeathReason.ENVIRONMENT, false);
+        this.writer.onDisable();
+
+        verify(this.storage, times(1)).saveLastLocations(
+                Map.of(uuid, new FakePlayerRespawnLocation("world", 3, 64, 0, 0F, 0F)),
+                Map.of(uuid, false),
+                Map.of(uuid, FakeplayerDeathTracker.DeathReason.ENVIRONMENT)
+        );
+        verify(this.storage, never()).clearRespawnData(any());
+        verify(this.storage, never()).setShouldRespawn(any(), anyBoolean());
+        verify(this.storage, never()).setDeathReason(any(), any());
+
+        // 已经写入的修改不会再次写入
+        this.writer.onDisable();
+        verify(this.storage, times(1)).saveLastLocations(anyMap(), anyMap(), anyMap());
+    }
+
+    @Test
+    void clearsBeforeSaving() {
+        var uuid = UUID.randomUUID();
+        this.writer.saveLastLocation(uuid, this.at(1), true);
+        this.writer.clear(uuid);
+        this.writer.saveLastLocation(uuid, this.at(2), true);
+        this.writer.onDisable();
+
+        var order = inOrder(this.storage);
+        order.verify(this.storage).clearRespawnData(List.of(uuid));
+        order.verify(this.storage).saveLastLocations(
+                Map.of(uuid, new FakePlayerRespawnLocation("world", 2, 64, 0, 0F, 0F)),
+                Map.of(uuid, true),
+                Map.of()
+        );
+    }
+
+    @Test
+    void clearOverridesEarlierSave() {
+        var uuid = UUID.randomUUID();
+        this.writer.saveLastLocation(uuid, this.at(1), true);
+        this.writer.clear(uuid);
+        this.writer.onDisable();
+
+        verify(this.storage).clearRespawnData(List.of(uuid));
+        verify(this.storage, never()).saveLastLocations(anyMap(), anyMap(), anyMap());
+    }
+
+    @Test
+    void updatesWithoutLocation() {
+        var uuid = UUID.randomUUID();
+        this.writer.update(uuid, FakeplayerDeathTracker.DeathReason.COMMAND, false);
+        this.writer.onDisable();
+
+        verify(this.storage).setShouldRespawn(uuid, false);
+        verify(this.storage).setDeathReason(uuid, FakeplayerDeathTracker.DeathReason.COMMAND);
+        verify(this.storage, never()).saveLastLocations(anyMap(), anyMap(), anyMap());
+    }
+
+    @Test
+    void retriesFailedWrites() {
+        var uuid = UUID.randomUUID();
+        doThrow(new IllegalStateException("disk full")).doNothing().when(this.storage).saveLastLocations(anyMap(), anyMap(), anyMap());
+
+        this.writer.saveDeath(uuid, this.at(1), FakeplayerDeathTracker.DeathReason.HOSTILE_MOB, true);
+        this.writer.onDisable();
+
+        // 失败之后产生的修改优先, 没有被覆盖的字段保留失败的值
+        this.writer.saveLastLocation(uuid, this.at(2), false);
+        this.writer.onDisable();
+
+        verify(this.storage).saveLastLocations(
+                Map.of(uuid, new FakePlayerRespawnLocation("world", 2, 64, 0, 0F, 0F)),
+                Map.of(uuid, false),
+                Map.of(uuid, FakeplayerDeathTracker.DeathReason.HOSTILE_MOB)
+        );
+        verify(this.storage, times(2)).saveLastLocations(anyMap(), anyMap(), anyMap());
+    }
+
+}
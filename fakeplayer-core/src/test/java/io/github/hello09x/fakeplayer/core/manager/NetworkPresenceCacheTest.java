@@ -0,0 +1,109 @@
+package io.github.hello09x.fakeplayer.core.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetworkPresenceCacheTest {
+
+    private static byte[] message(String subChannel, String server, String players) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeUTF(subChannel);
+            out.writeUTF(server);
+            out.writeUTF(players);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void diffsAgainstPreviousReply() throws IOException {
+        var cache = new NetworkPresenceCache();
+        cache.track("steve");
+        cache.track("alex");
+
+        var diff = cache.update(message("PlayerList", "ALL", "notch, steve, herobrine"));
+        assertNotNull(diff);
+        assertEquals(List.of("steve"), diff.joined());
+        assertEquals(List.of("alex"), diff.left());
+
+        diff = cache.update(message("PlayerList", "ALL", "notch, steve, herobrine"));
+        assertNotNull(diff);
+        assertTrue(diff.joined().isEmpty());
+        assertTrue(diff.left().isEmpty());
+
+        diff = cache.update(message("PlayerList", "ALL", "alex"));
+        assertNotNull(diff);
+        assertEquals(List.of("alex"), diff.joined());
+        assertEquals(List.of("steve"), diff.left());
+    }
+
+    @Test
+    void isOnline() throws IOException {
+        var cache = new NetworkPresenceCache();
+        cache.track("steve");
+        cache.track("alex");
+
+        // 还没有收到回复
+        assertNull(cache.isOnline("steve"));
+        assertNull(cache.isOnline("notch"));
+
+        cache.update(message("PlayerList", "ALL", "notch, steve"));
+        assertEquals(Boolean.TRUE, cache.isOnline("steve"));
+        assertEquals(Boolean.FALSE, cache.isOnline("alex"));
+        assertNull(cache.isOnline("notch"));
+
+        cache.untrack("steve");
+        assertNull(cache.isOnline("steve"));
+    }
+
+    @Test
+    void matchesWholeNames() throws IOException {
+        var cache = new NetworkPresenceCache();
+        cache.track("steve");
+
+        var diff = cache.update(message("PlayerList", "ALL", "steve2, stev, xsteve"));
+        assertNotNull(diff);
+        assertTrue(diff.joined().isEmpty());
+        assertEquals(List.of("steve"), diff.left());
+    }
+
+    @Test
+    void emptyList() throws IOException {
+        var cache = new NetworkPresenceCache();
+        cache.track("steve");
+
+        var diff = cache.update(message("PlayerList", "ALL", ""));
+        assertNotNull(diff);
+        assertEquals(List.of("steve"), diff.left());
+    }
+
+    @Test
+    void untracked() throws IOException {
+        var cache = new NetworkPresenceCache();
+        cache.track("steve");
+        cache.untrack("steve");
+
+        var diff = cache.update(message("PlayerList", "ALL", "steve"));
+        assertNotNull(diff);
+        assertTrue(diff.joined().isEmpty());
+        assertTrue(diff.left().isEmpty());
+    }
+
+    @Test
+    void ignoresOtherMessages() throws IOException {
+        var cache = new NetworkPresenceCache();
+        cache.track("steve");
+
+        assertNull(cache.update(message("PlayerCount", "ALL", "steve")));
+        assertNull(cache.update(message("PlayerList", "lobby", "steve")));
+        assertNull(cache.update(new byte[0]));
+        assertNull(cache.update(new byte[]{0, 10, 'P'}));
+    }
+
+}
@@ -0,0 +1,119 @@
+package io.github.hello09x.fakeplayer.core.manager.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTestScenarioTest {
+
+    @TempDir
+    Path dir;
+
+    private File write(String name, String content) throws IOException {
+        var file = this.dir.resolve(name + ".yml");
+        Files.writeString(file, content);
+        return file.toFile();
+    }
+
+    @Test
+    void load() throws IOException {
+        var scenario = LoadTestScenario.load(this.write("farm", """
+                seed: 42
+                bots: 50
+                ramp-up: 10
+                duration: 60
+                action-interval: 40
+                regions:
+                  - world: world
+                    min-x: -100
+                    max-x: 100
+                    min-z: -50
+                    max-z: 50
+                actions:
+                  walk: 3
+                  mine: 1
+                  jump: 0
+                """));
+
+        assertEquals("farm", scenario.name());
+        assertEquals(42L, scenario.seed());
+        assertEquals(50, scenario.bots());
+        assertEquals(200, scenario.rampUpTicks());
+        assertEquals(1200, scenario.durationTicks());
+        assertEquals(40, scenario.actionInterval());
+        assertEquals(20, scenario.sampleInterval());
+        assertEquals(List.of(new LoadTestScenario.Region("world", -100, 100, -50, 50)), scenario.regions());
+        assertEquals(Map.of(LoadTestScenario.Behavior.WALK, 3, LoadTestScenario.Behavior.MINE, 1), scenario.actions());
+    }
+
+    @Test
+    void defaultsToIdle() throws IOException {
+        var scenario = LoadTestScenario.load(this.write("idle", """
+                regions:
+                  - {world: world, min-x: 0, max-x: 0, min-z: 0, max-z: 0}
+                """));
+
+        assertEquals(Map.of(LoadTestScenario.Behavior.IDLE, 1), scenario.actions());
+        var random = new SplittableRandom(0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(LoadTestScenario.Behavior.IDLE, scenario.nextBehavior(random));
+        }
+    }
+
+    @Test
+    void rejectsInvalidScenarios() throws IOException {
+        var noRegions = this.write("no-regions", "bots: 10\n");
+        assertThrows(IllegalArgumentException.class, () -> LoadTestScenario.load(noRegions));
+
+        var missingBound = this.write("missing-bound", """
+                regions:
+                  - {world: world, min-x: 0, max-x: 10, min-z: 0}
+                """);
+        assertThrows(IllegalArgumentException.class, () -> LoadTestScenario.load(missingBound));
+
+        var inverted = this.write("inverted", """
+                regions:
+                  - {world: world, min-x: 10, max-x: 0, min-z: 0, max-z: 0}
+                """);
+        assertThrows(IllegalArgumentException.class, () -> LoadTestScenario.load(inverted));
+
+        var unknownAction = this.write("unknown-action", """
+                regions:
+                  - {world: world, min-x: 0, max-x: 0, min-z: 0, max-z: 0}
+                actions:
+                  fly: 1
+                """);
+        assertThrows(IllegalArgumentException.class, () -> LoadTestScenario.load(unknownAction));
+    }
+
+    @Test
+    void sameSeedSameBehaviors() throws IOException {
+        var scenario = LoadTestScenario.load(this.write("mixed", """
+                regions:
+                  - {world: world, min-x: 0, max-x: 0, min-z: 0, max-z: 0}
+                actions:
+                  walk: 1
+                  mine: 1
+                  attack: 1
+                  use: 1
+                """));
+
+        var first = new SplittableRandom(7);
+        var second = new SplittableRandom(7);
+        var a = IntStream.range(0, 200).mapToObj(i -> scenario.nextBehavior(first)).toList();
+        var b = IntStream.range(0, 200).mapToObj(i -> scenario.nextBehavior(second)).toList();
+        assertEquals(a, b);
+        assertEquals(4, a.stream().distinct().count());
+    }
+
+}
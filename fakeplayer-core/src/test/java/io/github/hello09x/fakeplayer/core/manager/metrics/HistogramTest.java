@@ -0,0 +1,48 @@
+package io.github.hello09x.fakeplayer.core.manager.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void countsIntoBuckets() {
+        var histogram = new Histogram(0.001, 0.01, 0.1);
+        histogram.observe(MS / 2);  // 0.001
+        histogram.observe(MS);      // 0.001, 等于上限时落在该桶
+        histogram.observe(MS + 1);  // 0.01
+        histogram.observe(50 * MS); // 0.1
+        histogram.observe(5000 * MS); // +Inf
+
+        assertEquals(5, histogram.count());
+        assertEquals(MS / 2 + MS + MS + 1 + 50 * MS + 5000 * MS, histogram.sumNanos());
+
+        var out = new StringBuilder();
+        histogram.write(out, "fakeplayer_test_seconds", "op=\"read\"");
+        var text = out.toString();
+        assertTrue(text.contains("fakeplayer_test_seconds_bucket{op=\"read\",le=\"0.001\"} 2\n"), text);
+        assertTrue(text.contains("fakeplayer_test_seconds_bucket{op=\"read\",le=\"0.01\"} 3\n"), text);
+        assertTrue(text.contains("fakeplayer_test_seconds_bucket{op=\"read\",le=\"0.1\"} 4\n"), text);
+        assertTrue(text.contains("fakeplayer_test_seconds_bucket{op=\"read\",le=\"+Inf\"} 5\n"), text);
+        assertTrue(text.contains("fakeplayer_test_seconds_count{op=\"read\"} 5\n"), text);
+    }
+
+    @Test
+    void writesWithoutLabels() {
+        var histogram = new Histogram(1);
+        histogram.observe(2_000_000_000L);
+
+        var out = new StringBuilder();
+        histogram.write(out, "fakeplayer_test_seconds", "");
+        var text = out.toString();
+        assertTrue(text.contains("fakeplayer_test_seconds_bucket{le=\"1.0\"} 0\n"), text);
+        assertTrue(text.contains("fakeplayer_test_seconds_bucket{le=\"+Inf\"} 1\n"), text);
+        assertTrue(text.contains("fakeplayer_test_seconds_sum 2.0\n"), text);
+        assertTrue(text.contains("fakeplayer_test_seconds_count 1\n"), text);
+    }
+
+}
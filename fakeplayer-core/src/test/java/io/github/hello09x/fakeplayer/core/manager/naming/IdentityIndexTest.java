@@ -0,0 +1,134 @@
+package io.github.hello09x.fakeplayer.core.manager.naming;
+
+import io.github.hello09x.fakeplayer.core.MockPlugin;
+import io.github.hello09x.fakeplayer.core.repository.DatabaseExecutor;
+import io.github.hello09x.fakeplayer.core.repository.UsedIdRepository;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerCreator;
+import io.github.hello09x.fakeplayer.core.repository.model.FakePlayerProfile;
+import io.github.hello09x.fakeplayer.core.repository.storage.FakeplayerStorage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IdentityIndexTest {
+
+    @BeforeAll
+    static void setUp() {
+        MockPlugin.install();
+    }
+
+    private static IdentityIndex create(List<FakePlayerProfile> profiles, Set<UUID> legacy) {
+        var storage = mock(FakeplayerStorage.class);
+        when(storage.selectAllProfiles()).thenReturn(profiles);
+        var legacyRepository = mock(UsedIdRepository.class);
+        when(legacyRepository.getAll()).thenReturn(legacy);
+        return new IdentityIndex(storage, mock(DatabaseExecutor.class), legacyRepository);
+    }
+
+    @Test
+    void containsLoadedAndLegacy() {
+        var loaded = UUID.randomUUID();
+        var legacy = UUID.randomUUID();
+        var index = create(List.of(new FakePlayerProfile(1, "steve_1", loaded.toString(), null, null)), Set.of(legacy));
+
+        assertTrue(index.contains(loaded));
+        assertTrue(index.contains(legacy));
+        assertEquals(loaded, index.getUUID("steve_1"));
+        assertFalse(index.contains(UUID.randomUUID()));
+    }
+
+    @Test
+    void containsRegisteredAfterRebuild() {
+        var legacy = UUID.randomUUID();
+        var index = create(List.of(), Set.of(legacy));
+
+        // 超过布隆过滤器的最小容量, 至少重建一次
+        var registered = new ArrayList<UUID>();
+        for (int i = 0; i < 3000; i++) {
+            var uuid = UUID.randomUUID();
+            index.register("bot_" + i, uuid);
+            registered.add(uuid);
+        }
+
+        for (var uuid : registered) {
+            assertTrue(index.contains(uuid));
+        }
+        assertTrue(index.contains(legacy));
+
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(index.contains(UUID.randomUUID()));
+        }
+    }
+
+    @Test
+    void containsRegisteredConcurrently() throws InterruptedException {
+        var index = create(List.of(), Set.of());
+        var registered = new ConcurrentLinkedQueue<UUID>();
+        var threads = 8;
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                var thread = t;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 1000; i++) {
+                        var uuid = UUID.randomUUID();
+                        index.register("bot_" + thread + "_" + i, uuid);
+                        registered.add(uuid);
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * 1000, registered.size());
+        for (var uuid : registered) {
+            assertTrue(index.contains(uuid));
+        }
+    }
+
+    @Test
+    void retriesFailedWrites() {
+        var storage = mock(FakeplayerStorage.class);
+        when(storage.selectAllProfiles()).thenReturn(List.of());
+        doThrow(new IllegalStateException("disk full")).doNothing().when(storage).insertProfiles(anyMap());
+        var database = mock(DatabaseExecutor.class);
+        when(database.write(any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return CompletableFuture.completedFuture(null);
+        });
+        var legacyRepository = mock(UsedIdRepository.class);
+        when(legacyRepository.getAll()).thenReturn(Set.of());
+        var index = new IdentityIndex(storage, database, legacyRepository);
+
+        var uuid = UUID.randomUUID();
+        var creator = new FakePlayerCreator(UUID.randomUUID(), "steve");
+        index.register("steve_1", uuid);
+        index.setCreator(uuid, creator);
+
+        index.onDisable();
+        verify(storage, never()).updateCreators(anyMap());
+
+        index.onDisable();
+        verify(storage, times(2)).insertProfiles(Map.of("steve_1", uuid));
+        verify(storage).updateCreators(Map.of(uuid, creator));
+    }
+
+}
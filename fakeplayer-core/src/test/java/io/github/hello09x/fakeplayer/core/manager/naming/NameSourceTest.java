@@ -0,0 +1,29 @@
+package io.github.hello09x.fakeplayer.core.manager.naming;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NameSourceTest {
+
+    @Test
+    void popsSmallestUnused() {
+        var source = new NameSource();
+        assertEquals(0, source.pop());
+        assertEquals(1, source.pop());
+        assertEquals(2, source.pop());
+
+        source.push(1);
+        assertEquals(1, source.pop());
+        assertEquals(3, source.pop());
+    }
+
+    @Test
+    void ignoresNegative() {
+        var source = new NameSource();
+        source.pop();
+        source.push(-1);
+        assertEquals(1, source.pop());
+    }
+
+}
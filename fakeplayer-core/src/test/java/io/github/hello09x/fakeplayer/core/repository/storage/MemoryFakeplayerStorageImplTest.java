@@ -0,0 +1,177 @@
+package io.github.hello09x.fakeplayer.core.repository.storage;
+
+import io.github.hello09x.fakeplayer.core.MockPlugin;
+import io.github.hello09x.fakeplayer.core.manager.FakeplayerDeathTracker;
+import io.github.hello09x.fakeplayer.core.repository.model.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryFakeplayerStorageImplTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void setUp() {
+        MockPlugin.install();
+    }
+
+    private Path file() {
+        return this.dir.resolve(MemoryFakeplayerStorageImpl.FILE_NAME);
+    }
+
+    @Test
+    void replay() {
+        var bot = UUID.randomUUID();
+        var other = UUID.randomUUID();
+        var creator = new FakePlayerCreator(UUID.randomUUID(), "steve");
+        var target = UUID.randomUUID();
+        var location = new FakePlayerRespawnLocation("world", 1.5, 64, -3.5, 90F, 10F);
+
+        var storage = new MemoryFakeplayerStorageImpl(this.file());
+        storage.insertProfiles(Map.of("steve_1", bot, "steve_2", other));
+        storage.updateCreators(Map.of(bot, creator));
+        storage.saveLastLocations(Map.of(bot, location, other, location), Map.of(bot, true, other, true), Map.of(bot, FakeplayerDeathTracker.DeathReason.HOSTILE_MOB));
+        storage.clearRespawnData(List.of(other));
+        storage.setShouldRespawn(bot, false);
+        storage.saveUserConfig(new UserConfig(null, bot, Feature.collidable, "false"));
+        storage.saveSkin(new FakePlayerSkin(bot, creator.uuid(), target));
+        storage.close();
+
+        var reopened = new MemoryFakeplayerStorageImpl(this.file());
+        var profiles = reopened.selectAllProfiles();
+        assertEquals(2, profiles.size());
+        var profile = profiles.stream().filter(p -> p.name().equals("steve_1")).findFirst().orElseThrow();
+        assertEquals(bot.toString(), profile.uuid());
+        assertEquals(creator, profile.creator());
+
+        var respawns = reopened.selectAllRespawns();
+        assertEquals(1, respawns.size());
+        var respawn = respawns.get(0);
+        assertEquals(bot, respawn.playerUuid());
+        assertEquals(location, respawn.location());
+        assertEquals(FakeplayerDeathTracker.DeathReason.HOSTILE_MOB, respawn.deathReason());
+        assertFalse(respawn.shouldRespawn());
+
+        assertEquals(List.of(new UserConfig(null, bot, Feature.collidable, "false")), reopened.selectUserConfigs(bot));
+        assertEquals(new FakePlayerSkin(bot, creator.uuid(), target), reopened.selectSkin(creator.uuid(), bot));
+        reopened.close();
+    }
+
+    @Test
+    void importKeepsDeathTime() {
+        var bot = UUID.randomUUID();
+        var location = new FakePlayerRespawnLocation("world", 1.5, 64, -3.5, 90F, 10F);
+        var respawn = new FakePlayerRespawn(bot, location, FakeplayerDeathTracker.DeathReason.ENVIRONMENT, 1234L, false);
+
+        var source = new MemoryFakeplayerStorageImpl(this.dir.resolve("source.log"));
+        source.insertProfiles(Map.of("steve_1", bot));
+        source.importRespawns(List.of(respawn));
+
+        var storage = new MemoryFakeplayerStorageImpl(this.file());
+        storage.importFrom(source);
+        source.close();
+        storage.close();
+
+        // 迁移之后死亡时间不会被改成当前时间
+        var reopened = new MemoryFakeplayerStorageImpl(this.file());
+        assertEquals(List.of(respawn), reopened.selectAllRespawns());
+        reopened.close();
+    }
+
+    @Test
+    void ignoresDuplicateProfiles() {
+        var storage = new MemoryFakeplayerStorageImpl(this.file());
+        var uuid = UUID.randomUUID();
+        storage.insertProfiles(Map.of("steve_1", uuid));
+        storage.insertProfiles(Map.of("steve_1", UUID.randomUUID()));
+        storage.insertProfiles(Map.of("steve_2", uuid));
+        assertEquals(1, storage.selectAllProfiles().size());
+        storage.close();
+    }
+
+    @Test
+    void discardsTruncatedRecord() throws IOException {
+        var uuid = UUID.randomUUID();
+        var storage = new MemoryFakeplayerStorageImpl(this.file());
+        storage.insertProfiles(Map.of("steve_1", uuid));
+        storage.close();
+
+        // 一条只写入了类型和一半名称长度的记录
+        Files.write(this.file(), new byte[]{1, 0}, StandardOpenOption.APPEND);
+
+        var reopened = new MemoryFakeplayerStorageImpl(this.file());
+        var profiles = reopened.selectAllProfiles();
+        assertEquals(1, profiles.size());
+        assertEquals(uuid.toString(), profiles.get(0).uuid());
+
+        reopened.insertProfiles(Map.of("steve_2", UUID.randomUUID()));
+        reopened.close();
+
+        var again = new MemoryFakeplayerStorageImpl(this.file());
+        assertEquals(2, again.selectAllProfiles().size());
+        again.close();
+    }
+
+    @Test
+    void compactsWhenLogGrows() throws IOException {
+        var storage = new MemoryFakeplayerStorageImpl(this.file());
+        var playerId = UUID.randomUUID();
+        var config = new UserConfig(null, playerId, Feature.collidable, "false");
+
+        storage.saveUserConfig(config);
+        var record = Files.size(this.file()) - 6;
+        for (int i = 0; i < 5000; i++) {
+            storage.saveUserConfig(config);
+        }
+
+        // 超过 4096 条记录时已经压缩过一次
+        assertTrue(Files.size(this.file()) < 4096 * record, "log was not compacted");
+
+        storage.close();
+        assertEquals(6 + record, Files.size(this.file()));
+
+        var reopened = new MemoryFakeplayerStorageImpl(this.file());
+        assertEquals(List.of(config), reopened.selectUserConfigs(playerId));
+        reopened.close();
+    }
+
+    @Test
+    void keepsAppendingWhenCompactionFails() throws IOException {
+        var storage = new MemoryFakeplayerStorageImpl(this.file());
+        var playerId = UUID.randomUUID();
+
+        // 临时文件的位置被一个非空目录占用, 压缩必然失败
+        var tmp = this.dir.resolve(MemoryFakeplayerStorageImpl.FILE_NAME + ".tmp");
+        Files.createDirectories(tmp);
+        Files.writeString(tmp.resolve("blocker"), "x");
+
+        for (int i = 0; i < 6000; i++) {
+            storage.saveUserConfig(new UserConfig(null, playerId, Feature.collidable, String.valueOf(i % 2 == 0)));
+        }
+        var uuid = UUID.randomUUID();
+        storage.insertProfiles(Map.of("steve_1", uuid));
+        assertEquals(1, storage.selectAllProfiles().size());
+
+        Files.delete(tmp.resolve("blocker"));
+        Files.delete(tmp);
+        storage.close();
+
+        var reopened = new MemoryFakeplayerStorageImpl(this.file());
+        assertEquals(uuid.toString(), reopened.selectAllProfiles().get(0).uuid());
+        assertEquals(List.of(new UserConfig(null, playerId, Feature.collidable, "false")), reopened.selectUserConfigs(playerId));
+        reopened.close();
+    }
+
+}
@@ -0,0 +1,43 @@
+package io.github.hello09x.fakeplayer.core.stub;
+
+import io.github.hello09x.fakeplayer.api.spi.Action;
+import io.github.hello09x.fakeplayer.api.spi.ActionSetting;
+import io.github.hello09x.fakeplayer.api.spi.ActionTicker;
+import io.github.hello09x.fakeplayer.api.spi.ActionType;
+import io.github.hello09x.fakeplayer.api.spi.NMSBridge;
+import io.github.hello09x.fakeplayer.api.spi.NMSServerPlayer;
+import io.github.hello09x.fakeplayer.core.entity.action.BaseActionTicker;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Uses the shared actions from {@link BaseActionTicker}, the ones that need a real server only reset the idle timer
+ */
+public class StubActionTicker extends BaseActionTicker implements ActionTicker {
+
+    public StubActionTicker(@NotNull NMSBridge nms, @NotNull Player player, @NotNull ActionType action, @NotNull ActionSetting setting) {
+        super(nms, player, action, setting);
+        if (this.action == null) {
+            this.action = new IdleAction(nms.fromPlayer(player));
+        }
+    }
+
+    private record IdleAction(@NotNull NMSServerPlayer player) implements Action {
+
+        @Override
+        public boolean tick() {
+            this.player.resetLastActionTime();
+            return true;
+        }
+
+        @Override
+        public void inactiveTick() {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+    }
+
+}
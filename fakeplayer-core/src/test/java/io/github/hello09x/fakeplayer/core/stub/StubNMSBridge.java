@@ -0,0 +1,53 @@
+package io.github.hello09x.fakeplayer.core.stub;
+
+import io.github.hello09x.fakeplayer.api.spi.*;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.InetAddress;
+
+/**
+ * Test-scope bridge registered through {@code META-INF/services}, so {@link io.github.hello09x.fakeplayer.core.FakeplayerModule} picks it up without a server
+ * <p>Requires {@link StubServer#install()} before any player is created</p>
+ */
+public class StubNMSBridge implements NMSBridge {
+
+    @Override
+    public @NotNull NMSEntity fromEntity(@NotNull Entity entity) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull NMSServer fromServer(@NotNull Server server) {
+        return StubServer.current()::create;
+    }
+
+    @Override
+    public @NotNull NMSServerLevel fromWorld(@NotNull World world) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull NMSServerPlayer fromPlayer(@NotNull Player player) {
+        return StubServer.current().getHandle(player.getUniqueId());
+    }
+
+    @Override
+    public @NotNull NMSNetwork createNetwork(@NotNull InetAddress address) {
+        return new StubNMSNetwork();
+    }
+
+    @Override
+    public boolean isSupported() {
+        return true;
+    }
+
+    @Override
+    public @NotNull ActionTicker createAction(@NotNull Player player, @NotNull ActionType action, @NotNull ActionSetting setting) {
+        return new StubActionTicker(this, player, action, setting);
+    }
+
+}
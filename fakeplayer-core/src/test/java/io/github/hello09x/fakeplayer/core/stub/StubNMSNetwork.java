@@ -0,0 +1,32 @@
+package io.github.hello09x.fakeplayer.core.stub;
+
+import io.github.hello09x.fakeplayer.api.spi.NMSNetwork;
+import io.github.hello09x.fakeplayer.api.spi.NMSServerGamePacketListener;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Places the player into {@link StubServer} without opening a connection
+ */
+public class StubNMSNetwork implements NMSNetwork {
+
+    private NMSServerGamePacketListener serverGamePacketListener;
+
+    @Override
+    public @NotNull NMSServerGamePacketListener placeNewPlayer(@NotNull Server server, @NotNull Player player) {
+        StubServer.current().join(player.getUniqueId());
+        this.serverGamePacketListener = new NMSServerGamePacketListener() {
+        };
+        return this.serverGamePacketListener;
+    }
+
+    @Override
+    public @NotNull NMSServerGamePacketListener getServerGamePacketListener() throws IllegalStateException {
+        if (this.serverGamePacketListener == null) {
+            throw new IllegalStateException("not initialized");
+        }
+        return this.serverGamePacketListener;
+    }
+
+}
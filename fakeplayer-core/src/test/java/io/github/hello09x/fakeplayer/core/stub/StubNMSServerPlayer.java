@@ -0,0 +1,231 @@
+package io.github.hello09x.fakeplayer.core.stub;
+
+import io.github.hello09x.fakeplayer.api.spi.NMSServerPlayer;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Stands in for a server player, the Bukkit side is a mocked {@link Player} that only keeps its position and online state
+ */
+public class StubNMSServerPlayer implements NMSServerPlayer {
+
+    @NotNull
+    private final Player player;
+
+    private volatile boolean online;
+
+    private double x, y, z;
+
+    private float yRot, xRot;
+
+    private float zza, xxa;
+
+    private int tickCount;
+
+    private boolean jumping;
+
+    public StubNMSServerPlayer(@NotNull World world, @NotNull UUID uuid, @NotNull String name) {
+        var player = mock(Player.class, withSettings().stubOnly());
+        when(player.getUniqueId()).thenReturn(uuid);
+        when(player.getName()).thenReturn(name);
+        when(player.isOnline()).thenAnswer(ignored -> this.online);
+        when(player.isValid()).thenAnswer(ignored -> this.online);
+        when(player.getWorld()).thenReturn(world);
+        when(player.getLocation()).thenAnswer(ignored -> new Location(world, this.x, this.y, this.z, this.yRot, this.xRot));
+        when(player.teleport(any(Location.class))).thenAnswer(invocation -> {
+            var to = invocation.<Location>getArgument(0);
+            this.absMoveTo(to.getX(), to.getY(), to.getZ(), to.getYaw(), to.getPitch());
+            return true;
+        });
+        doAnswer(ignored -> {
+            StubServer.current().quit(uuid);
+            return null;
+        }).when(player).kick(any(Component.class));
+        this.player = player;
+    }
+
+    public boolean isOnline() {
+        return this.online;
+    }
+
+    void setOnline(boolean online) {
+        this.online = online;
+    }
+
+    public boolean isJumping() {
+        return this.jumping;
+    }
+
+    @Override
+    public @NotNull Player getPlayer() {
+        return this.player;
+    }
+
+    @Override
+    public double getX() {
+        return this.x;
+    }
+
+    @Override
+    public double getY() {
+        return this.y;
+    }
+
+    @Override
+    public double getZ() {
+        return this.z;
+    }
+
+    @Override
+    public void setXo(double xo) {
+    }
+
+    @Override
+    public void setYo(double yo) {
+    }
+
+    @Override
+    public void setZo(double zo) {
+    }
+
+    @Override
+    public void doTick() {
+        this.tickCount++;
+    }
+
+    @Override
+    public void absMoveTo(double x, double y, double z, float yRot, float xRot) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yRot = yRot;
+        this.xRot = xRot;
+    }
+
+    @Override
+    public float getYRot() {
+        return this.yRot;
+    }
+
+    @Override
+    public void setYRot(float yRot) {
+        this.yRot = yRot;
+    }
+
+    @Override
+    public float getXRot() {
+        return this.xRot;
+    }
+
+    @Override
+    public void setXRot(float xRot) {
+        this.xRot = xRot;
+    }
+
+    @Override
+    public float getZza() {
+        return this.zza;
+    }
+
+    @Override
+    public void setZza(float zza) {
+        this.zza = zza;
+    }
+
+    @Override
+    public float getXxa() {
+        return this.xxa;
+    }
+
+    @Override
+    public void setXxa(float xxa) {
+        this.xxa = xxa;
+    }
+
+    @Override
+    public void setDeltaMovement(@NotNull Vector vector) {
+    }
+
+    @Override
+    public boolean startRiding(@NotNull Entity entity, boolean force) {
+        return false;
+    }
+
+    @Override
+    public void stopRiding() {
+    }
+
+    @Override
+    public void disableAdvancements(@NotNull Plugin plugin) {
+    }
+
+    @Override
+    public int getTickCount() {
+        return this.tickCount;
+    }
+
+    @Override
+    public void drop(int slot, boolean flag, boolean flag1) {
+    }
+
+    @Override
+    public void drop(boolean allStack) {
+    }
+
+    @Override
+    public void resetLastActionTime() {
+    }
+
+    @Override
+    public boolean onGround() {
+        return !this.jumping;
+    }
+
+    @Override
+    public void jumpFromGround() {
+        this.jumping = true;
+    }
+
+    @Override
+    public void setJumping(boolean jumping) {
+        this.jumping = jumping;
+    }
+
+    @Override
+    public boolean isUsingItem() {
+        return false;
+    }
+
+    @Override
+    public void setPlayBefore() {
+    }
+
+    @Override
+    public void setupClientOptions() {
+    }
+
+    @Override
+    public void respawn() {
+    }
+
+    @Override
+    public void swapItemWithOffhand() {
+    }
+
+    @Override
+    public boolean resetSpawningState() {
+        return true;
+    }
+
+}
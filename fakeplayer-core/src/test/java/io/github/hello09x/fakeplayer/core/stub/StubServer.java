@@ -0,0 +1,252 @@
+package io.github.hello09x.fakeplayer.core.stub;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * A mocked {@link Server} whose scheduler only runs when {@link #tick()} is called
+ * <p>Tracks the players created through {@link StubNMSBridge} so {@link Bukkit#getPlayer(UUID)} behaves like on a real server</p>
+ */
+public final class StubServer {
+
+    private static StubServer current;
+
+    private final Server server;
+
+    private final World world;
+
+    private final Map<UUID, StubNMSServerPlayer> players = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Task> tasks = new ConcurrentSkipListMap<>();
+
+    /**
+     * Tasks may be scheduled from other threads, they are picked up at the start of the next tick
+     */
+    private final Queue<Task> scheduled = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger ids = new AtomicInteger();
+
+    private volatile int currentTick;
+
+    private volatile Consumer<Player> quitHandler = ignored -> {
+    };
+
+    private StubServer() {
+        this.world = mock(World.class, withSettings().stubOnly());
+        when(this.world.getName()).thenReturn("world");
+        when(this.world.isChunkLoaded(anyInt(), anyInt())).thenReturn(true);
+
+        var scheduler = mock(BukkitScheduler.class, withSettings().stubOnly());
+        when(scheduler.runTask(any(Plugin.class), any(Runnable.class)))
+                .thenAnswer(invocation -> this.schedule(invocation.getArgument(1), 0, -1));
+        when(scheduler.runTaskLater(any(Plugin.class), any(Runnable.class), anyLong()))
+                .thenAnswer(invocation -> this.schedule(invocation.getArgument(1), invocation.<Long>getArgument(2), -1));
+        when(scheduler.runTaskTimer(any(Plugin.class), any(Runnable.class), anyLong(), anyLong()))
+                .thenAnswer(invocation -> this.schedule(invocation.getArgument(1), invocation.<Long>getArgument(2), invocation.<Long>getArgument(3)));
+        doAnswer(invocation -> {
+            this.cancel(invocation.<Integer>getArgument(0));
+            return null;
+        }).when(scheduler).cancelTask(anyInt());
+
+        this.server = mock(Server.class, withSettings().stubOnly());
+        when(this.server.getLogger()).thenReturn(Logger.getLogger("fakeplayer-test"));
+        when(this.server.getScheduler()).thenReturn(scheduler);
+        when(this.server.getPluginManager()).thenReturn(mock(PluginManager.class, withSettings().stubOnly()));
+        when(this.server.getTPS()).thenReturn(new double[]{20, 20, 20});
+        when(this.server.getCurrentTick()).thenAnswer(ignored -> this.currentTick);
+        when(this.server.getWorlds()).thenReturn(List.of(this.world));
+        when(this.server.getPlayer(any(UUID.class))).thenAnswer(invocation -> this.getPlayer(invocation.getArgument(0)));
+        when(this.server.createProfile(any(UUID.class), anyString())).thenAnswer(ignored -> mock(PlayerProfile.class, withSettings().stubOnly()));
+    }
+
+    /**
+     * Installs a new server as {@link Bukkit#getServer()}
+     *
+     * @return the server
+     */
+    public static synchronized @NotNull StubServer install() {
+        if (current != null || Bukkit.getServer() != null) {
+            throw new IllegalStateException("A server has already been installed");
+        }
+
+        var instance = new StubServer();
+        setServer(instance.server);
+        current = instance;
+        return instance;
+    }
+
+    public static synchronized void uninstall() {
+        if (current != null) {
+            setServer(null);
+            current = null;
+        }
+    }
+
+    public static @NotNull StubServer current() {
+        return Objects.requireNonNull(current, "No server installed");
+    }
+
+    private static void setServer(@Nullable Server server) {
+        // Bukkit#setServer refuses to replace the singleton and prints the build info
+        try {
+            var field = Bukkit.class.getDeclaredField("server");
+            field.setAccessible(true);
+            field.set(null, server);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public @NotNull World getWorld() {
+        return this.world;
+    }
+
+    public int getCurrentTick() {
+        return this.currentTick;
+    }
+
+    /**
+     * @param handler called while the player is still online, as listeners of {@link org.bukkit.event.player.PlayerQuitEvent} would be
+     */
+    public void onQuit(@NotNull Consumer<Player> handler) {
+        this.quitHandler = handler;
+    }
+
+    /**
+     * @return the number of players placed in the world and not yet kicked
+     */
+    public int getOnlineCount() {
+        return (int) this.players.values().stream().filter(StubNMSServerPlayer::isOnline).count();
+    }
+
+    @NotNull StubNMSServerPlayer create(@NotNull UUID uuid, @NotNull String name) {
+        var handle = new StubNMSServerPlayer(this.world, uuid, name);
+        this.players.put(uuid, handle);
+        return handle;
+    }
+
+    @NotNull StubNMSServerPlayer getHandle(@NotNull UUID uuid) {
+        var handle = this.players.get(uuid);
+        if (handle == null) {
+            throw new IllegalArgumentException("Unknown player: " + uuid);
+        }
+        return handle;
+    }
+
+    void join(@NotNull UUID uuid) {
+        this.getHandle(uuid).setOnline(true);
+    }
+
+    void quit(@NotNull UUID uuid) {
+        var handle = this.players.get(uuid);
+        if (handle == null || !handle.isOnline()) {
+            return;
+        }
+
+        try {
+            this.quitHandler.accept(handle.getPlayer());
+        } finally {
+            handle.setOnline(false);
+            this.players.remove(uuid);
+        }
+    }
+
+    private @Nullable Player getPlayer(@NotNull UUID uuid) {
+        var handle = this.players.get(uuid);
+        return handle == null || !handle.isOnline() ? null : handle.getPlayer();
+    }
+
+    /**
+     * Runs every task that is due in this tick
+     */
+    public void tick() {
+        Task task;
+        while ((task = this.scheduled.poll()) != null) {
+            this.tasks.put(task.id, task);
+        }
+
+        var tick = this.currentTick;
+        for (var due : List.copyOf(this.tasks.values())) {
+            if (due.cancelled) {
+                this.tasks.remove(due.id);
+                continue;
+            }
+            if (due.nextTick > tick) {
+                continue;
+            }
+
+            due.runnable.run();
+            if (due.period <= 0) {
+                this.tasks.remove(due.id);
+            } else {
+                due.nextTick = tick + due.period;
+            }
+        }
+        this.currentTick = tick + 1;
+    }
+
+    private @NotNull BukkitTask schedule(@NotNull Runnable runnable, long delay, long period) {
+        var task = new Task(this.ids.incrementAndGet(), runnable, this.currentTick + Math.max(0, delay), period);
+        this.scheduled.offer(task);
+
+        var handle = mock(BukkitTask.class, withSettings().stubOnly());
+        when(handle.getTaskId()).thenReturn(task.id);
+        when(handle.isCancelled()).thenAnswer(ignored -> task.cancelled);
+        doAnswer(ignored -> {
+            task.cancelled = true;
+            return null;
+        }).when(handle).cancel();
+        return handle;
+    }
+
+    private void cancel(int id) {
+        var task = this.tasks.get(id);
+        if (task != null) {
+            task.cancelled = true;
+            return;
+        }
+        this.scheduled.stream().filter(t -> t.id == id).forEach(t -> t.cancelled = true);
+    }
+
+    private final static class Task {
+
+        private final int id;
+
+        private final Runnable runnable;
+
+        private final long period;
+
+        private long nextTick;
+
+        private volatile boolean cancelled;
+
+        private Task(int id, @NotNull Runnable runnable, long nextTick, long period) {
+            this.id = id;
+            this.runnable = runnable;
+            this.nextTick = nextTick;
+            this.period = period;
+        }
+
+    }
+
+}
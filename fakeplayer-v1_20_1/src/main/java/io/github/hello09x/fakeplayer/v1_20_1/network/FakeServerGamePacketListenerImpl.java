@@ -2,7 +2,7 @@ package io.github.hello09x.fakeplayer.v1_20_1.network;
 
 import io.github.hello09x.fakeplayer.api.spi.NMSServerGamePacketListener;
 import io.github.hello09x.fakeplayer.core.Main;
-import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
+import io.github.hello09x.fakeplayer.core.manager.PluginMessageForwarder;
 import net.minecraft.network.Connection;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.game.ClientboundCustomPayloadPacket;
@@ -18,7 +18,7 @@ import java.util.Optional;
 
 public class FakeServerGamePacketListenerImpl extends ServerGamePacketListenerImpl implements NMSServerGamePacketListener {
 
-    private final FakeplayerManager manager = Main.getInjector().getInstance(FakeplayerManager.class);
+    private final PluginMessageForwarder forwarder = Main.getInjector().getInstance(PluginMessageForwarder.class);
 
     public FakeServerGamePacketListenerImpl(
             @NotNull MinecraftServer server,
@@ -46,18 +46,8 @@ public class FakeServerGamePacketListenerImpl extends ServerGamePacketListenerIm
             return;
         }
 
-        var recipient = Bukkit
-                .getOnlinePlayers()
-                .stream()
-                .filter(manager::isNotFake)
-                .findAny()
-                .orElse(null);
-        if (recipient == null) {
-            return;
-        }
-
         var message = packet.getData().array();
-        recipient.sendPluginMessage(Main.getInstance(), channel, message);
+        forwarder.forward(message);
     }
 
 }
\ No newline at end of file
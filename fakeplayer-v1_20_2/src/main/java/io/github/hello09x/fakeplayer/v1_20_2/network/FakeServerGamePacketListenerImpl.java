@@ -2,7 +2,7 @@ package io.github.hello09x.fakeplayer.v1_20_2.network;
 
 import io.github.hello09x.fakeplayer.api.spi.NMSServerGamePacketListener;
 import io.github.hello09x.fakeplayer.core.Main;
-import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
+import io.github.hello09x.fakeplayer.core.manager.PluginMessageForwarder;
 import io.netty.buffer.Unpooled;
 import net.minecraft.network.Connection;
 import net.minecraft.network.FriendlyByteBuf;
@@ -21,7 +21,7 @@ import java.util.Optional;
 
 public class FakeServerGamePacketListenerImpl extends ServerGamePacketListenerImpl implements NMSServerGamePacketListener {
 
-    private final FakeplayerManager manager = Main.getInjector().getInstance(FakeplayerManager.class);
+    private final PluginMessageForwarder forwarder = Main.getInjector().getInstance(PluginMessageForwarder.class);
 
     public FakeServerGamePacketListenerImpl(
             @NotNull MinecraftServer server,
@@ -52,18 +52,7 @@ public class FakeServerGamePacketListenerImpl extends ServerGamePacketListenerIm
         payload.write(buf);
         var message = buf.array();
 
-        var recipient = Bukkit
-                .getOnlinePlayers()
-                .stream()
-                .filter(manager::isNotFake)
-                .findAny()
-                .orElse(null);
-
-        if (recipient == null) {
-            return;
-        }
-
-        recipient.sendPluginMessage(Main.getInstance(), BUNGEE_CORD_CHANNEL, message);
+        forwarder.forward(message);
     }
 
 }
\ No newline at end of file
@@ -2,7 +2,7 @@ package io.github.hello09x.fakeplayer.v1_20_4.network;
 
 import io.github.hello09x.fakeplayer.api.spi.NMSServerGamePacketListener;
 import io.github.hello09x.fakeplayer.core.Main;
-import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
+import io.github.hello09x.fakeplayer.core.manager.PluginMessageForwarder;
 import io.netty.buffer.Unpooled;
 import net.minecraft.network.Connection;
 import net.minecraft.network.FriendlyByteBuf;
@@ -21,7 +21,7 @@ import java.util.Optional;
 
 public class FakeServerGamePacketListenerImpl extends ServerGamePacketListenerImpl implements NMSServerGamePacketListener {
 
-    private final FakeplayerManager manager = Main.getInjector().getInstance(FakeplayerManager.class);
+    private final PluginMessageForwarder forwarder = Main.getInjector().getInstance(PluginMessageForwarder.class);
 
     public FakeServerGamePacketListenerImpl(
             @NotNull MinecraftServer server,
@@ -48,21 +48,11 @@ public class FakeServerGamePacketListenerImpl extends ServerGamePacketListenerIm
             return;
         }
 
-        var recipient = Bukkit
-                .getOnlinePlayers()
-                .stream()
-                .filter(manager::isNotFake)
-                .findAny()
-                .orElse(null);
-        if (recipient == null) {
-            return;
-        }
-
         var buf = new FriendlyByteBuf(Unpooled.buffer(0, 1048576));
         payload.write(buf);
         var message = buf.array();
 
-        recipient.sendPluginMessage(Main.getInstance(), channel, message);
+        forwarder.forward(message);
     }
 
 }
\ No newline at end of file
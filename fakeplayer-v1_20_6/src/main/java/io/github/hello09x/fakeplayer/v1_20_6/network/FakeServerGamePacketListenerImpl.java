@@ -2,7 +2,7 @@ package io.github.hello09x.fakeplayer.v1_20_6.network;
 
 import io.github.hello09x.fakeplayer.api.spi.NMSServerGamePacketListener;
 import io.github.hello09x.fakeplayer.core.Main;
-import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
+import io.github.hello09x.fakeplayer.core.manager.PluginMessageForwarder;
 import net.minecraft.network.Connection;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
@@ -16,12 +16,10 @@ import org.bukkit.craftbukkit.v1_20_R4.entity.CraftPlayer;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Optional;
-import java.util.logging.Logger;
 
 public class FakeServerGamePacketListenerImpl extends ServerGamePacketListenerImpl implements NMSServerGamePacketListener {
 
-    private final FakeplayerManager manager = Main.getInjector().getInstance(FakeplayerManager.class);
-    private final static Logger log = Main.getInstance().getLogger();
+    private final PluginMessageForwarder forwarder = Main.getInjector().getInstance(PluginMessageForwarder.class);
 
     public FakeServerGamePacketListenerImpl(
             @NotNull MinecraftServer server,
@@ -55,20 +53,8 @@ public class FakeServerGamePacketListenerImpl extends ServerGamePacketListenerIm
             return;
         }
 
-        var recipient = Bukkit
-                .getOnlinePlayers()
-                .stream()
-                .filter(manager::isNotFake)
-                .findAny()
-                .orElse(null);
-
-        if (recipient == null) {
-            log.warning("Failed to forward a plugin message cause non real players in the server");
-            return;
-        }
-
         var message = p.data().array();
-        recipient.sendPluginMessage(Main.getInstance(), BUNGEE_CORD_CHANNEL, message);
+        forwarder.forward(message);
     }
 
 }
\ No newline at end of file
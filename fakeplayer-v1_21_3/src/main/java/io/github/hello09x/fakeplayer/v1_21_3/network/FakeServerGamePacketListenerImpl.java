@@ -2,7 +2,7 @@ package io.github.hello09x.fakeplayer.v1_21_3.network;
 
 import io.github.hello09x.fakeplayer.api.spi.NMSServerGamePacketListener;
 import io.github.hello09x.fakeplayer.core.Main;
-import io.github.hello09x.fakeplayer.core.manager.FakeplayerManager;
+import io.github.hello09x.fakeplayer.core.manager.PluginMessageForwarder;
 import net.minecraft.network.Connection;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
@@ -12,17 +12,23 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.server.network.CommonListenerCookie;
 import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import net.minecraft.world.phys.Vec3;
 import org.bukkit.Bukkit;
 import org.bukkit.craftbukkit.v1_21_R2.entity.CraftPlayer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
-import java.util.logging.Logger;
 
 public class FakeServerGamePacketListenerImpl extends ServerGamePacketListenerImpl implements NMSServerGamePacketListener {
 
-    private final FakeplayerManager manager = Main.getInjector().getInstance(FakeplayerManager.class);
-    private final static Logger log = Main.getInstance().getLogger();
+    private final PluginMessageForwarder forwarder = Main.getInjector().getInstance(PluginMessageForwarder.class);
+
+    /**
+     * 待处理的击退动量, 后到的覆盖先到的
+     */
+    @Nullable
+    private Vec3 pendingMotion;
 
     public FakeServerGamePacketListenerImpl(
             @NotNull MinecraftServer server,
@@ -47,16 +53,26 @@ public class FakeServerGamePacketListenerImpl extends ServerGamePacketListenerIm
 
     /**
      * 玩家被击退的动作由客户端完成, 假人没有客户端因此手动完成这个动作
+     * <p>同一 tick 内可能收到大量击退包, 这里只记录最后一个, 在假人下一次 tick 开始时由 {@link #applyPendingMotion()} 统一处理</p>
      */
     public void handleClientboundSetEntityMotionPacket(@NotNull ClientboundSetEntityMotionPacket packet) {
         if (packet.getId() == this.player.getId() && this.player.hurtMarked) {
-            Bukkit.getScheduler().runTask(Main.getInstance(), () -> {
-                this.player.hurtMarked = true;
-                this.player.lerpMotion(packet.getXa(), packet.getYa(), packet.getZa());
-            });
+            this.pendingMotion = new Vec3(packet.getXa(), packet.getYa(), packet.getZa());
         }
     }
 
+    @Override
+    public void applyPendingMotion() {
+        var motion = this.pendingMotion;
+        if (motion == null) {
+            return;
+        }
+
+        this.pendingMotion = null;
+        this.player.hurtMarked = true;
+        this.player.lerpMotion(motion.x, motion.y, motion.z);
+    }
+
     private void handleCustomPayloadPacket(@NotNull ClientboundCustomPayloadPacket packet) {
         var payload = packet.payload();
         var resourceLocation = payload.type().id();
@@ -70,20 +86,8 @@ public class FakeServerGamePacketListenerImpl extends ServerGamePacketListenerIm
             return;
         }
 
-        var recipient = Bukkit
-                .getOnlinePlayers()
-                .stream()
-                .filter(manager::isNotFake)
-                .findAny()
-                .orElse(null);
-
-        if (recipient == null) {
-            log.warning("Failed to forward a plugin message cause non real players in the server");
-            return;
-        }
-
         var message = p.data().array();
-        recipient.sendPluginMessage(Main.getInstance(), BUNGEE_CORD_CHANNEL, message);
+        forwarder.forward(message);
     }
 
 }
\ No newline at end of file
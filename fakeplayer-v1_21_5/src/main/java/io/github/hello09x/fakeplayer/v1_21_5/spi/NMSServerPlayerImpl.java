@@ -1,10 +1,13 @@
 package io.github.hello09x.fakeplayer.v1_21_5.spi;
 
+import com.mojang.authlib.GameProfile;
 import io.github.hello09x.fakeplayer.api.spi.NMSServerPlayer;
+import io.github.hello09x.fakeplayer.core.Main;
 import io.github.hello09x.fakeplayer.core.constant.ConstantPool;
 import io.github.hello09x.fakeplayer.core.util.Reflections;
 import io.github.hello09x.fakeplayer.v1_21_5.network.FakePlayerAdvancements;
 import lombok.Getter;
+import net.kyori.adventure.text.Component;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
@@ -14,6 +17,7 @@ import net.minecraft.server.PlayerAdvancements;
 import net.minecraft.server.level.ClientInformation;
 import net.minecraft.server.level.ParticleStatus;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.stats.ServerStatsCounter;
 import net.minecraft.world.entity.HumanoidArm;
 import net.minecraft.world.entity.player.ChatVisiblity;
 import net.minecraft.world.phys.Vec3;
@@ -27,6 +31,7 @@ import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.Field;
+import java.util.UUID;
 
 public class NMSServerPlayerImpl implements NMSServerPlayer {
 
@@ -36,6 +41,26 @@ public class NMSServerPlayerImpl implements NMSServerPlayer {
             false
     );
 
+    private final static Field ServerPlayer$stats = Reflections.getFirstFieldByType(
+            ServerPlayer.class,
+            ServerStatsCounter.class,
+            false
+    );
+
+    private final static Field Player$gameProfile = Reflections.getFirstFieldByType(
+            net.minecraft.world.entity.player.Player.class,
+            GameProfile.class,
+            false
+    );
+
+    /**
+     * Paper 添加的字段, Spigot 中不存在
+     */
+    private final static Field ServerPlayer$adventureDisplayName = Reflections.getDeclaredField(
+            ServerPlayer.class,
+            "adventure$displayName"
+    );
+
     @Getter
     private final ServerPlayer handle;
 
@@ -251,4 +276,47 @@ public class NMSServerPlayerImpl implements NMSServerPlayer {
         ));
     }
 
+    @Override
+    public boolean resetSpawningState() {
+        if (handle.isRemoved()) {
+            return false;
+        }
+
+        // 与跨维度传送相同, 从世界中移除后重新加入, 让区块加载器重新登记这个玩家
+        var level = handle.serverLevel();
+        level.removePlayerImmediately(handle, net.minecraft.world.entity.Entity.RemovalReason.CHANGED_DIMENSION);
+        handle.unsetRemoved();
+        level.addDuringTeleport(handle);
+        return true;
+    }
+
+    @Override
+    public boolean rebind(@NotNull UUID uuid, @NotNull String name) {
+        if (Player$gameProfile == null || ServerPlayer$stats == null || ServerPlayer$advancements == null) {
+            return false;
+        }
+
+        var server = ((CraftServer) Bukkit.getServer()).getServer();
+        try {
+            Player$gameProfile.set(handle, new GameProfile(uuid, name));
+            handle.setUUID(uuid);
+            ServerPlayer$stats.set(handle, server.getPlayerList().getPlayerStats(handle));
+
+            // 预创建时的成就数据绑定在占位 UUID 上, 需要按新的身份重新创建
+            if (handle.getAdvancements() instanceof FakePlayerAdvancements) {
+                this.disableAdvancements(Main.getInstance());
+            } else {
+                ServerPlayer$advancements.set(handle, server.getPlayerList().getPlayerAdvancements(handle));
+            }
+
+            if (ServerPlayer$adventureDisplayName != null) {
+                ServerPlayer$adventureDisplayName.set(handle, Component.text(name));
+            }
+        } catch (IllegalAccessException e) {
+            return false;
+        }
+        handle.displayName = name;
+        return true;
+    }
+
 }